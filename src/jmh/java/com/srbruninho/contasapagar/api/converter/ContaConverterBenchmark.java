@@ -0,0 +1,75 @@
+package com.srbruninho.contasapagar.api.converter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.srbruninho.contasapagar.api.dto.ContaDTO;
+import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.model.Situacao;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO conversion and JSON serialization of a listing page, as done by {@code GET /api/contas}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContaConverterBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private Conta conta;
+
+    private Page<Conta> contaPage;
+
+    private Page<ContaDTO> dtoPage;
+
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        List<Conta> contas = new ArrayList<>();
+        for (long i = 1; i <= pageSize; i++) {
+            contas.add(Conta.builder()
+                    .id(i)
+                    .dataVencimento(LocalDate.of(2024, 6, 1).plusDays(i))
+                    .dataPagamento(i % 2 == 0 ? LocalDate.of(2024, 6, 10) : null)
+                    .valor(new BigDecimal("129.90"))
+                    .descricao("Fornecedor " + i)
+                    .situacao(i % 2 == 0 ? Situacao.PAGA : Situacao.PENDENTE)
+                    .build());
+        }
+        conta = contas.get(0);
+        contaPage = new PageImpl<>(contas, PageRequest.of(0, pageSize), 10_000);
+        dtoPage = contaPage.map(ContaConverter::toDTO);
+        // Same defaults as the ObjectMapper Spring Boot builds for MVC
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public ContaDTO toDTO() {
+        return ContaConverter.toDTO(conta);
+    }
+
+    @Benchmark
+    public Page<ContaDTO> mapPage() {
+        return contaPage.map(ContaConverter::toDTO);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(dtoPage);
+    }
+}
@@ -0,0 +1,41 @@
+package com.srbruninho.contasapagar.domain.model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Conta#defineSituacao()} for each of the states it can produce; it runs on every save and import.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ContaSituacaoBenchmark {
+
+    @Param({"PAGA", "PENDENTE", "ATRASADA"})
+    private Situacao expected;
+
+    private Conta conta;
+
+    @Setup
+    public void setUp() {
+        LocalDate today = LocalDate.now();
+        conta = Conta.builder()
+                .valor(new BigDecimal("50.00"))
+                .descricao("Conta de luz")
+                .dataVencimento(expected == Situacao.ATRASADA ? today.minusDays(10) : today.plusDays(10))
+                .dataPagamento(expected == Situacao.PAGA ? today : null)
+                .build();
+    }
+
+    @Benchmark
+    public Situacao defineSituacao() {
+        conta.defineSituacao();
+        return conta.getSituacao();
+    }
+}
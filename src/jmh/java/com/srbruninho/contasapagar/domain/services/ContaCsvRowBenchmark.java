@@ -0,0 +1,56 @@
+package com.srbruninho.contasapagar.domain.services;
+
+import com.opencsv.CSVParser;
+import com.srbruninho.contasapagar.domain.model.Conta;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row work of a CSV import: splitting the line and validating it into a {@link Conta}. The rejected row case
+ * is measured separately, since validation failures go through an exception.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ContaCsvRowBenchmark {
+
+    private static final String VALID_LINE = "\"Conta de Gás\",39.99,\"2024-06-22\",\"2024-04-22\"";
+    private static final String INVALID_LINE = "\"Conta de Gás\",abc,\"2024-06-22\",";
+
+    private final CSVParser parser = new CSVParser();
+
+    private String[] validRecord;
+
+    @Setup
+    public void setUp() throws Exception {
+        validRecord = parser.parseLine(VALID_LINE);
+    }
+
+    @Benchmark
+    public String[] parseLine() throws Exception {
+        return parser.parseLine(VALID_LINE);
+    }
+
+    @Benchmark
+    public Conta toConta() {
+        return ContaCsvImporter.toConta(validRecord);
+    }
+
+    @Benchmark
+    public Conta parseAndConvert() throws Exception {
+        return ContaCsvImporter.toConta(parser.parseLine(VALID_LINE));
+    }
+
+    @Benchmark
+    public Object parseAndReject() throws Exception {
+        try {
+            return ContaCsvImporter.toConta(parser.parseLine(INVALID_LINE));
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.srbruninho.contasapagar.infrastructure.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authentication cost of one API call: a Basic login checked with BCrypt on every call (the previous setup),
+ * the same login answered by the verified-credential cache, and a bearer token verification.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthenticationBenchmark {
+
+    private static final String USERNAME = "contas";
+
+    private static final String PASSWORD = "contas#2024";
+
+    private AuthenticationProvider bcryptProvider;
+
+    private AuthenticationProvider cachingProvider;
+
+    private TokenService tokenService;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+        DaoAuthenticationProvider passwordCheck = new DaoAuthenticationProvider(encoder);
+        passwordCheck.setUserDetailsService(new InMemoryUserDetailsManager(User.withUsername(USERNAME)
+                .password(encoder.encode(PASSWORD))
+                .roles("USER")
+                .build()));
+        bcryptProvider = passwordCheck;
+        cachingProvider = new CachingAuthenticationProvider(passwordCheck, 1000, Duration.ofMinutes(5));
+        cachingProvider.authenticate(login());
+
+        tokenService = new TokenService("0123456789abcdef0123456789abcdef".getBytes(), Duration.ofMinutes(15), Clock.systemUTC());
+        token = tokenService.issue(bcryptProvider.authenticate(login()));
+    }
+
+    @Benchmark
+    public Authentication basicWithBcrypt() {
+        return bcryptProvider.authenticate(login());
+    }
+
+    @Benchmark
+    public Authentication basicWithCache() {
+        return cachingProvider.authenticate(login());
+    }
+
+    @Benchmark
+    public Optional<Authentication> bearerToken() {
+        return tokenService.verify(token);
+    }
+
+    private static Authentication login() {
+        return UsernamePasswordAuthenticationToken.unauthenticated(USERNAME, PASSWORD);
+    }
+}
@@ -0,0 +1,36 @@
+package com.srbruninho.contasapagar.api.controller;
+
+import com.srbruninho.contasapagar.api.dto.TokenDTO;
+import com.srbruninho.contasapagar.infrastructure.exception.BusinessErrorResponse;
+import com.srbruninho.contasapagar.infrastructure.security.TokenService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/auth")
+@Tag(name = "Auth Controller", description = "Emissão de tokens de acesso")
+public class AuthController {
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Operation(summary = "Emitir um token de acesso (Bearer) para o usuário autenticado com usuário e senha")
+    @PostMapping("/token")
+    public ResponseEntity<Object> issueToken(Authentication authentication) {
+        // Tokens are only issued against the password, so a leaked token cannot be renewed forever.
+        if (authentication instanceof PreAuthenticatedAuthenticationToken) {
+            BusinessErrorResponse businessErrorResponse = new BusinessErrorResponse("A new token requires username and password!", HttpStatus.FORBIDDEN.value());
+            return new ResponseEntity<>(businessErrorResponse, HttpStatus.FORBIDDEN);
+        }
+        TokenDTO token = new TokenDTO(tokenService.issue(authentication), "Bearer", tokenService.getTtl().toSeconds());
+        return ResponseEntity.ok(token);
+    }
+}
@@ -1,9 +1,34 @@
 package com.srbruninho.contasapagar.api.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.srbruninho.contasapagar.api.converter.BulkCreateConverter;
+import com.srbruninho.contasapagar.api.converter.BulkPaymentConverter;
 import com.srbruninho.contasapagar.api.converter.ContaConverter;
+import com.srbruninho.contasapagar.api.converter.ContaExportConverter;
+import com.srbruninho.contasapagar.api.converter.ContaPatchConverter;
+import com.srbruninho.contasapagar.api.converter.CursorConverter;
+import com.srbruninho.contasapagar.api.converter.ETagConverter;
+import com.srbruninho.contasapagar.api.converter.ImportJobConverter;
+import com.srbruninho.contasapagar.api.dto.BulkPaymentRequestDTO;
 import com.srbruninho.contasapagar.api.dto.ContaDTO;
+import com.srbruninho.contasapagar.api.dto.CursorPageDTO;
+import com.srbruninho.contasapagar.domain.model.BulkDeleteResult;
+import com.srbruninho.contasapagar.domain.model.BulkPaymentResult;
 import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.model.ContaAggregate;
+import com.srbruninho.contasapagar.domain.model.ContaAggregateGroup;
+import com.srbruninho.contasapagar.domain.model.ContaDeleteFilter;
+import com.srbruninho.contasapagar.domain.model.ContaKeyset;
+import com.srbruninho.contasapagar.domain.model.ContaPatch;
+import com.srbruninho.contasapagar.domain.model.ContaSummary;
+import com.srbruninho.contasapagar.domain.model.DescriptionMatch;
+import com.srbruninho.contasapagar.domain.model.ExportFormat;
+import com.srbruninho.contasapagar.domain.model.ImportJob;
+import com.srbruninho.contasapagar.domain.model.Situacao;
+import com.srbruninho.contasapagar.domain.services.ContaAnalyticsService;
 import com.srbruninho.contasapagar.domain.services.ContaService;
+import com.srbruninho.contasapagar.domain.services.ImportJobService;
 import com.srbruninho.contasapagar.domain.repositories.projection.TotalValuePaidPerPeriodProjection;
 import com.srbruninho.contasapagar.infrastructure.exception.BusinessErrorResponse;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
@@ -13,14 +38,27 @@ import io.swagger.v3.oas.annotations.info.Info;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.*;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @RestController
@@ -32,13 +70,31 @@ public class ContaController {
     @Autowired
     private ContaService contaService;
 
-    @Operation(summary = "Criar uma nova conta")
+    @Autowired
+    private ImportJobService importJobService;
+
+    @Autowired
+    private ContaAnalyticsService contaAnalyticsService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static final int MAX_BULK_PAYMENT_IDS = ContaService.MAX_BULK_PAYMENTS;
+
+    /** Lets clients store read responses but revalidate them with If-None-Match on every use. */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    @Operation(summary = "Criar uma nova conta", description = "Sempre cria uma conta nova: id e version enviados no corpo são ignorados. Para alterar uma conta existente, use PUT /update-account/{id} ou PATCH /{id}.")
     @PostMapping("/create-account")
     public ResponseEntity<Object> createAccount(@Valid @RequestBody Conta conta) {
         try {
             if (conta == null)
                 return ResponseEntity.badRequest().body("The account cannot be null");
 
+            // With @Version, Spring Data decides between persist and merge by the version, so a client id without a
+            // version would be persisted as a detached entity and fail. Creating never updates an existing bill.
+            conta.setId(null);
+            conta.setVersion(null);
             Conta newAccount = contaService.save(conta);
 
             return new ResponseEntity<>(newAccount.getId(), HttpStatus.CREATED);
@@ -48,9 +104,29 @@ public class ContaController {
         }
     }
 
+    @Operation(summary = "Criar várias contas de uma vez a partir de um array JSON ou de um fluxo NDJSON (um objeto por linha)",
+            description = "O corpo é lido um elemento por vez e gravado em lotes, e a resposta é enviada à medida que cada lote é gravado. Ela traz, na ordem do corpo, o ID de cada conta criada ou os erros do elemento rejeitado, seguidos dos totais. Se o banco falhar, as contas já gravadas são mantidas, as do lote com falha são rejeitadas e failedAt indica o índice do primeiro elemento não criado.")
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> createBulk(@Parameter(hidden = true) InputStream body) {
+        // Items are written as their batch is committed, so the response never holds more than a batch in memory.
+        // A body that cannot be read ends the response where it was, like an interrupted export.
+        StreamingResponseBody response = outputStream -> {
+            try (BulkCreateConverter.ItemWriter writer = BulkCreateConverter.open(outputStream, objectMapper)) {
+                writer.finish(contaService.createAll(body, writer::write));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response);
+    }
+
     @Operation(summary = "Atualizar uma conta existente")
     @PutMapping("/update-account/{id}")
-    public ResponseEntity<Object> updateAccount( @Parameter(description = "ID da conta a ser atualizada", example = "1")@Valid @PathVariable Long id, @RequestBody Conta conta) {
+    public ResponseEntity<Object> updateAccount( @Parameter(description = "ID da conta a ser atualizada", example = "1")@Valid @PathVariable Long id, @RequestBody Conta conta,
+                                                 @Parameter(description = "ETag obtido no GET da conta; a atualização falha com 412 se a conta foi alterada desde então") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
             if (conta == null)
                 return ResponseEntity.badRequest().body("The account cannot be null!");
@@ -61,10 +137,20 @@ public class ContaController {
 
             if (existingAccount.isEmpty())
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Id not found!");
+
+            // If-Match wins over a version in the body; with neither, the update applies to the current version.
+            Long expectedVersion = ifMatch != null ? ETagConverter.toVersion(ifMatch) : conta.getVersion();
+            Long currentVersion = existingAccount.get().getVersion();
+            if (expectedVersion != null && !expectedVersion.equals(currentVersion))
+                return versionConflict(HttpStatus.PRECONDITION_FAILED);
             conta.setId(id);
+            conta.setVersion(currentVersion);
             Conta updatedAccount = contaService.save(conta);
+            ContaDTO updatedDTO = ContaConverter.toDTO(updatedAccount);
 
-            return new ResponseEntity<>(ContaConverter.toDTO(updatedAccount), HttpStatus.OK);
+            return ResponseEntity.ok().eTag(ETagConverter.fromVersion(updatedDTO)).body(updatedDTO);
+        } catch (OptimisticLockingFailureException e) {
+            return versionConflict(HttpStatus.PRECONDITION_FAILED);
         } catch (Exception e) {
             BusinessErrorResponse businessErrorResponse = new BusinessErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST.value());
             return new ResponseEntity<>(businessErrorResponse, HttpStatus.BAD_REQUEST);
@@ -87,6 +173,60 @@ public class ContaController {
             Conta updatedAccount = contaService.updateSituacao(existingAccount.get(), isPaid);
 
             return new ResponseEntity<>(ContaConverter.toDTO(updatedAccount), HttpStatus.OK);
+        } catch (OptimisticLockingFailureException e) {
+            return versionConflict(HttpStatus.CONFLICT);
+        } catch (Exception e) {
+            BusinessErrorResponse businessErrorResponse = new BusinessErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST.value());
+            return new ResponseEntity<>(businessErrorResponse, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Operation(summary = "Atualizar parcialmente uma conta (JSON merge patch), gravando somente os campos alterados")
+    @PatchMapping(value = "/{id}", consumes = {ContaPatchConverter.APPLICATION_MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Object> patchAccount(@Parameter(description = "ID da conta a ser atualizada", example = "1") @PathVariable Long id,
+                                               @RequestBody JsonNode body,
+                                               @Parameter(description = "ETag obtido no GET da conta; a atualização falha com 412 se a conta foi alterada desde então") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            ContaPatch patch = ContaPatchConverter.toPatch(body);
+            if (ifMatch != null)
+                patch = patch.toBuilder().version(ETagConverter.toVersion(ifMatch)).build();
+
+            Optional<Conta> patchedAccount = contaService.patch(id, patch);
+
+            if (patchedAccount.isEmpty())
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Id not found!");
+
+            ContaDTO patchedDTO = ContaConverter.toDTO(patchedAccount.get());
+            return ResponseEntity.ok().eTag(ETagConverter.fromVersion(patchedDTO)).body(patchedDTO);
+        } catch (OptimisticLockingFailureException e) {
+            return versionConflict(HttpStatus.PRECONDITION_FAILED);
+        } catch (Exception e) {
+            BusinessErrorResponse businessErrorResponse = new BusinessErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST.value());
+            return new ResponseEntity<>(businessErrorResponse, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Operation(summary = "Confirmar o pagamento de várias contas de uma vez, por lista de IDs ou por período de vencimento")
+    @PostMapping("/payments/bulk")
+    public ResponseEntity<Object> payBulk(@RequestBody BulkPaymentRequestDTO request) {
+        try {
+            boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+            boolean byDueDate = request.getStartDate() != null || request.getEndDate() != null;
+
+            if (byIds == byDueDate)
+                return ResponseEntity.badRequest().body("Inform either ids or a due date range!");
+            if (byIds && request.getIds().size() > MAX_BULK_PAYMENT_IDS)
+                return ResponseEntity.badRequest().body("At most " + MAX_BULK_PAYMENT_IDS + " ids can be paid per request!");
+            if (byIds && request.getIds().stream().anyMatch(Objects::isNull))
+                return ResponseEntity.badRequest().body("Ids cannot be null!");
+            if (byDueDate && (request.getStartDate() == null || request.getEndDate() == null || request.getStartDate().isAfter(request.getEndDate())))
+                return ResponseEntity.badRequest().body("Invalid due date range!");
+
+            BulkPaymentResult result = byIds
+                    ? contaService.payAll(request.getIds())
+                    : contaService.payAllDueBetween(request.getStartDate(), request.getEndDate(), request.getDescription());
+
+            return ResponseEntity.ok(BulkPaymentConverter.toDTO(result));
         } catch (Exception e) {
             BusinessErrorResponse businessErrorResponse = new BusinessErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST.value());
             return new ResponseEntity<>(businessErrorResponse, HttpStatus.BAD_REQUEST);
@@ -96,25 +236,98 @@ public class ContaController {
     @Operation(summary = "Obter todas as contas paginadas")
     @GetMapping
     public ResponseEntity<Page<ContaDTO>> getAll(@RequestParam(defaultValue = "0") int page,
-                                              @RequestParam(defaultValue = "10") int size) {
+                                              @RequestParam(defaultValue = "10") int size,
+                                              @Parameter(hidden = true) WebRequest webRequest) {
+        if (notModifiedSinceLastChange(webRequest))
+            return null;
         Pageable pageable = PageRequest.of(page, size, Sort.by("dataVencimento").descending());
-        Page<Conta> contas = contaService.findAll(pageable);
-        Page<ContaDTO> contaDTOPage = contas.map(ContaConverter::toDTO);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(contaService.findAllDTOs(pageable));
+    }
+
+    @Operation(summary = "Exportar todas as contas em NDJSON ou CSV, em streaming a partir de um cursor do banco")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@Parameter(description = "NDJSON: um objeto JSON por linha; CSV: valores separados por vírgula com cabeçalho") @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                                                        @Parameter(description = "Data de vencimento inicial (opcional)", example = "2024-01-01") @RequestParam(required = false) LocalDate from,
+                                                        @Parameter(description = "Data de vencimento final (opcional)", example = "2024-12-31") @RequestParam(required = false) LocalDate to) {
+        if (from != null && to != null && from.isAfter(to))
+            throw new IllegalArgumentException("Invalid due date range!");
 
-        return ResponseEntity.ok(contaDTOPage);
+        StreamingResponseBody body = outputStream -> {
+            try (ContaExportConverter.RowWriter writer = ContaExportConverter.open(format, outputStream, objectMapper)) {
+                contaService.exportAll(from, to, writer::write);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(ContaExportConverter.mediaType(format))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + ContaExportConverter.fileName(format) + "\"")
+                .body(body);
     }
+
+    @Operation(summary = "Obter quantidade e valor total das contas agrupados por mês de vencimento, mês de pagamento, situação ou descrição")
+    @GetMapping("/aggregates")
+    public ResponseEntity<List<ContaAggregate>> getAggregates(@Parameter(description = "DUE_MONTH: mês de vencimento; PAYMENT_MONTH: mês de pagamento (só contas pagas); SITUACAO; DESCRIPTION") @RequestParam(defaultValue = "DUE_MONTH") ContaAggregateGroup groupBy,
+                                                              @Parameter(description = "Data de vencimento inicial (opcional)", example = "2024-01-01") @RequestParam(required = false) LocalDate from,
+                                                              @Parameter(description = "Data de vencimento final (opcional)", example = "2024-12-31") @RequestParam(required = false) LocalDate to) {
+        if (from != null && to != null && from.isAfter(to))
+            throw new IllegalArgumentException("Invalid due date range!");
+
+        return ResponseEntity.ok(contaAnalyticsService.aggregate(groupBy, from, to));
+    }
+
+    @Operation(summary = "Resumo para o painel: quantidade e valor por situação e contas vencidas por faixa de atraso (1-30, 31-60, 61-90 e 90+ dias)")
+    @GetMapping("/summary")
+    public ResponseEntity<ContaSummary> getSummary(@Parameter(description = "Calcula o resumo na hora, sem o cache de curta duração") @RequestParam(defaultValue = "false") boolean fresh) {
+        LocalDate today = LocalDate.now();
+        ContaSummary summary = fresh ? contaService.getSummary(today) : contaService.getCachedSummary(today);
+        return ResponseEntity.ok(summary);
+    }
+
     @Operation(summary = "Filtrar contas pendentes por data de vencimento e descrição")
     @GetMapping("/filter/due-date/description/unpaid")
     public ResponseEntity<Page<ContaDTO>> getPendingBills(@Parameter(description = "Número da página (começa em 0)", example = "0") @RequestParam(defaultValue = "0") int page,
                                                           @Parameter(description = "Tamanho da página", example = "10") @RequestParam(defaultValue = "10") int size,
                                                           @Parameter(description = "Data de início do filtro", example = "2024-06-01") @RequestParam LocalDate startDate,
                                                           @Parameter(description = "Data de término do filtro", example = "2024-06-30") @RequestParam LocalDate endDate,
-                                                          @Parameter(description = "Descrição da conta") @RequestParam String description) {
+                                                          @Parameter(description = "Descrição da conta") @RequestParam String description,
+                                                          @Parameter(description = "EXACT: descrição idêntica; CONTAINS: contém o texto, sem diferenciar maiúsculas") @RequestParam(defaultValue = "EXACT") DescriptionMatch match,
+                                                          @Parameter(hidden = true) WebRequest webRequest) {
+        if (notModifiedSinceLastChange(webRequest))
+            return null;
         Pageable pageable = PageRequest.of(page, size, Sort.by("dataVencimento").descending());
-        Page<Conta> contas = contaService.getAccountsbyDateAndDescription(startDate, endDate, description, pageable);
-        Page<ContaDTO> contaDTOPage = contas.map(ContaConverter::toDTO);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(contaService.getAccountsbyDateAndDescription(startDate, endDate, description, match, pageable));
+    }
+
+    @Operation(summary = "Obter todas as contas com paginação por cursor (sem contagem total)")
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageDTO<ContaDTO>> getAllByCursor(@Parameter(description = "Cursor retornado em nextCursor pela página anterior; vazio para a primeira página") @RequestParam(required = false) String cursor,
+                                                                  @Parameter(description = "Tamanho da página", example = "10") @RequestParam(defaultValue = "10") int size,
+                                                                  @Parameter(hidden = true) WebRequest webRequest) {
+        ContaKeyset after = CursorConverter.decode(cursor);
+        if (notModifiedSinceLastChange(webRequest))
+            return null;
+        Slice<Conta> contas = contaService.findAll(after, size);
 
-        return ResponseEntity.ok(contaDTOPage);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(CursorConverter.toDTO(contas, ContaConverter::toDTO));
+    }
+
+    @Operation(summary = "Filtrar contas pendentes por data de vencimento e descrição com paginação por cursor (sem contagem total)")
+    @GetMapping("/filter/due-date/description/unpaid/cursor")
+    public ResponseEntity<CursorPageDTO<ContaDTO>> getPendingBillsByCursor(@Parameter(description = "Cursor retornado em nextCursor pela página anterior; vazio para a primeira página") @RequestParam(required = false) String cursor,
+                                                                           @Parameter(description = "Tamanho da página", example = "10") @RequestParam(defaultValue = "10") int size,
+                                                                           @Parameter(description = "Data de início do filtro", example = "2024-06-01") @RequestParam LocalDate startDate,
+                                                                           @Parameter(description = "Data de término do filtro", example = "2024-06-30") @RequestParam LocalDate endDate,
+                                                                           @Parameter(description = "Descrição da conta") @RequestParam String description,
+                                                                           @Parameter(description = "EXACT: descrição idêntica; CONTAINS: contém o texto, sem diferenciar maiúsculas") @RequestParam(defaultValue = "EXACT") DescriptionMatch match,
+                                                                           @Parameter(hidden = true) WebRequest webRequest) {
+        ContaKeyset after = CursorConverter.decode(cursor);
+        if (notModifiedSinceLastChange(webRequest))
+            return null;
+        Slice<Conta> contas = contaService.getAccountsbyDateAndDescription(startDate, endDate, description, match, after, size);
+
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(CursorConverter.toDTO(contas, ContaConverter::toDTO));
     }
 
     @Operation(summary = "Obter valor total pago por período")
@@ -122,29 +335,34 @@ public class ContaController {
     public ResponseEntity<Page<TotalValuePaidPerPeriodProjection>> getTotalValuePerPeriod(@Parameter(description = "Número da página (começa em 0)", example = "0") @RequestParam(defaultValue = "0") int page,
                                                                                           @Parameter(description = "Tamanho da página", example = "10") @RequestParam(defaultValue = "10") int size,
                                                                                           @Parameter(description = "Data de início do período", example = "2024-01-01") @RequestParam LocalDate startDate,
-                                                                                          @Parameter(description = "Data de término do período", example = "2024-06-30") @RequestParam LocalDate endDate) {
+                                                                                          @Parameter(description = "Data de término do período", example = "2024-06-30") @RequestParam LocalDate endDate,
+                                                                                          @Parameter(hidden = true) WebRequest webRequest) {
+        if (notModifiedSinceLastChange(webRequest))
+            return null;
         Pageable pageable = PageRequest.of(page, size);
         Page<TotalValuePaidPerPeriodProjection> periodos = contaService.getTotalValuePaidPerPeriod(startDate, endDate, pageable);
-        return ResponseEntity.ok(periodos);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(periodos);
     }
 
 
     @Operation(summary = "Obter uma conta pelo ID - paginada")
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getById(@Parameter(description = "ID da conta a ser recuperada", example = "1")@PathVariable Long id) {
+    public ResponseEntity<Object> getById(@Parameter(description = "ID da conta a ser recuperada", example = "1")@PathVariable Long id,
+                                          @Parameter(hidden = true) WebRequest webRequest) {
         try {
             if (id == null)
                 return ResponseEntity.badRequest().body("An Id must be informed!");
 
-            Optional<Conta> existingAccount = contaService.findById(id);
+            Optional<ContaDTO> existingAccount = contaService.findDTOById(id);
 
             if (existingAccount.isEmpty())
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Id not found!");
+            if (webRequest.checkNotModified(ETagConverter.fromVersion(existingAccount.get())))
+                return null;
 
-            Page<Conta> contaPage = new PageImpl<>(List.of(existingAccount.get()));
-            Page<ContaDTO> contaDTOPage = contaPage.map(ContaConverter::toDTO);
+            Page<ContaDTO> contaDTOPage = new PageImpl<>(List.of(existingAccount.get()));
 
-            return new ResponseEntity<>(contaDTOPage, HttpStatus.OK);
+            return ResponseEntity.ok().cacheControl(REVALIDATE).body(contaDTOPage);
         } catch (Exception e) {
             return new ResponseEntity<>(ResponseEntity.noContent(), HttpStatus.BAD_REQUEST);
         }
@@ -159,15 +377,85 @@ public class ContaController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Excluir de uma vez todas as contas de um período de vencimento, opcionalmente filtrando por situação e descrição")
+    @DeleteMapping
+    public ResponseEntity<Object> deleteAll(@Parameter(description = "Data de início do vencimento", example = "2024-01-01") @RequestParam LocalDate startDate,
+                                            @Parameter(description = "Data de término do vencimento", example = "2024-06-30") @RequestParam LocalDate endDate,
+                                            @Parameter(description = "Situação das contas a excluir") @RequestParam(required = false) Situacao situacao,
+                                            @Parameter(description = "Descrição exata das contas a excluir") @RequestParam(required = false) String description) {
+        try {
+            if (startDate.isAfter(endDate))
+                return ResponseEntity.badRequest().body("Invalid due date range!");
+
+            BulkDeleteResult result = contaService.deleteAll(new ContaDeleteFilter(startDate, endDate, situacao, description));
+
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            BusinessErrorResponse businessErrorResponse = new BusinessErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST.value());
+            return new ResponseEntity<>(businessErrorResponse, HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @Operation(summary = "Importar contas a pagar a partir de um arquivo CSV")
     @PostMapping("/import-csv")
-    public ResponseEntity<Object> importFromCsv(@Parameter(description = "Arquivo CSV contendo contas a pagar no formato 'Descrição,Valor,Vencimento,Pagamento' separados por vírgula. Exemplo: \"Conta Gás\",39.99,\"2024-06-22\",\"2024-04-22\"", required = true) @RequestParam("file") MultipartFile file) {
+    public ResponseEntity<Object> importFromCsv(@Parameter(description = "Arquivo CSV contendo contas a pagar no formato 'Descrição,Valor,Vencimento,Pagamento' separados por vírgula. Exemplo: \"Conta Gás\",39.99,\"2024-06-22\",\"2024-04-22\"", required = true) @RequestParam("file") MultipartFile file,
+                                                @Parameter(description = "Processar em segundo plano e retornar o ID do job de importação") @RequestParam(defaultValue = "false") boolean async) {
         if (file.isEmpty()) {
             return ResponseEntity.badRequest().body("File is empty");
         }
 
+        if (async) {
+            try {
+                ImportJob job = importJobService.submit(file);
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(ImportJobConverter.toDTO(job));
+            } catch (TaskRejectedException e) {
+                BusinessErrorResponse businessErrorResponse = new BusinessErrorResponse("Import queue is full, try again later", HttpStatus.SERVICE_UNAVAILABLE.value());
+                return new ResponseEntity<>(businessErrorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+            } catch (IOException e) {
+                BusinessErrorResponse businessErrorResponse = new BusinessErrorResponse(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value());
+                return new ResponseEntity<>(businessErrorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+        }
+
         contaService.processCSV(file);
 
         return ResponseEntity.noContent().build();
     }
+
+    @Operation(summary = "Consultar o progresso de um job de importação CSV")
+    @GetMapping("/import-jobs/{id}")
+    public ResponseEntity<Object> getImportJob(@Parameter(description = "ID do job de importação") @PathVariable String id) {
+        Optional<ImportJob> job = importJobService.findById(id);
+
+        if (job.isEmpty())
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Import job not found!");
+
+        return ResponseEntity.ok(ImportJobConverter.toDTO(job.get()));
+    }
+
+    @Operation(summary = "Baixar o relatório de linhas rejeitadas de um job de importação CSV")
+    @GetMapping(value = "/import-jobs/{id}/rejections", produces = "text/csv")
+    public ResponseEntity<Object> getImportJobRejections(@Parameter(description = "ID do job de importação") @PathVariable String id) {
+        Optional<Path> report = importJobService.findRejectionReport(id);
+
+        if (report.isEmpty())
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Rejection report not found!");
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + id + "-rejections.csv\"")
+                .body(new FileSystemResource(report.get()));
+    }
+
+    /**
+     * Answers a conditional GET from the table-level change watermark alone: when it still matches If-None-Match,
+     * the response is a bodiless 304 and the listing query never runs.
+     */
+    private boolean notModifiedSinceLastChange(WebRequest webRequest) {
+        return webRequest.checkNotModified(ETagConverter.fromWatermark(contaService.getChangeWatermark()));
+    }
+
+    private static ResponseEntity<Object> versionConflict(HttpStatus status) {
+        BusinessErrorResponse businessErrorResponse = new BusinessErrorResponse("The account was changed by another request!", status.value());
+        return new ResponseEntity<>(businessErrorResponse, status);
+    }
 }
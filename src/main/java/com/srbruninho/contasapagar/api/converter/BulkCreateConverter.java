@@ -0,0 +1,70 @@
+package com.srbruninho.contasapagar.api.converter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.srbruninho.contasapagar.api.dto.BulkCreateItemDTO;
+import com.srbruninho.contasapagar.domain.model.BulkCreateItem;
+import com.srbruninho.contasapagar.domain.model.BulkCreateResult;
+import org.springframework.util.StreamUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes the response of a bulk creation while the body is still being read:
+ * {@code {"items": [...], "created": n, "rejected": n, "failedAt": i}}, with {@code failedAt} only after a database
+ * error. The counts come last because they are only known once every item has been written.
+ */
+public class BulkCreateConverter {
+
+    public static BulkCreateItemDTO toDTO(BulkCreateItem item) {
+        return new BulkCreateItemDTO(item.getIndex(), item.getId(), item.getErrors());
+    }
+
+    /**
+     * Opens an item writer on {@code outputStream}. Closing the item writer flushes it but leaves the stream open.
+     */
+    public static ItemWriter open(OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(StreamUtils.nonClosing(outputStream));
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("items");
+        return new ItemWriter(generator);
+    }
+
+    /**
+     * Sink for the items of a bulk creation. {@link #write(BulkCreateItem)} wraps I/O failures, such as the client
+     * disconnecting, in an {@link UncheckedIOException} so they abort the creation.
+     */
+    public static final class ItemWriter implements Closeable {
+
+        private final JsonGenerator generator;
+
+        private ItemWriter(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        public void write(BulkCreateItem item) {
+            try {
+                generator.writeObject(toDTO(item));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public void finish(BulkCreateResult result) throws IOException {
+            generator.writeEndArray();
+            generator.writeNumberField("created", result.getCreated());
+            generator.writeNumberField("rejected", result.getRejected());
+            if (result.getFailedAt() != null)
+                generator.writeNumberField("failedAt", result.getFailedAt());
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.srbruninho.contasapagar.api.converter;
+
+import com.srbruninho.contasapagar.api.dto.BulkPaymentResultDTO;
+import com.srbruninho.contasapagar.api.dto.PaymentOutcomeDTO;
+import com.srbruninho.contasapagar.domain.model.BulkPaymentResult;
+import com.srbruninho.contasapagar.domain.model.PaymentOutcome;
+
+public class BulkPaymentConverter {
+    public static BulkPaymentResultDTO toDTO(BulkPaymentResult result) {
+        BulkPaymentResultDTO dto = new BulkPaymentResultDTO();
+        dto.setPaymentDate(result.getPaymentDate());
+        dto.setPaid(result.count(PaymentOutcome.PAID));
+        dto.setAlreadyPaid(result.count(PaymentOutcome.ALREADY_PAID));
+        dto.setNotFound(result.count(PaymentOutcome.NOT_FOUND));
+        dto.setOutcomes(result.getOutcomes().entrySet().stream()
+                .map(entry -> new PaymentOutcomeDTO(entry.getKey(), entry.getValue()))
+                .toList());
+        return dto;
+    }
+}
@@ -12,6 +12,7 @@ public class ContaConverter {
         dto.setValor(conta.getValor());
         dto.setDescricao(conta.getDescricao());
         dto.setSituacao(conta.getSituacao());
+        dto.setVersion(conta.getVersion());
         return dto;
     }
 }
@@ -0,0 +1,123 @@
+package com.srbruninho.contasapagar.api.converter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.model.ExportFormat;
+import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes exported bills one row at a time, in the layout of {@link ContaConverter#toDTO(Conta)}.
+ */
+public class ContaExportConverter {
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private static final String CSV_HEADER = "id,descricao,valor,dataVencimento,dataPagamento,situacao\n";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public static MediaType mediaType(ExportFormat format) {
+        return format == ExportFormat.CSV ? TEXT_CSV : APPLICATION_NDJSON;
+    }
+
+    public static String fileName(ExportFormat format) {
+        return format == ExportFormat.CSV ? "contas.csv" : "contas.ndjson";
+    }
+
+    /**
+     * Opens a row writer on {@code outputStream}. Closing the row writer flushes it but leaves the stream open.
+     */
+    public static RowWriter open(ExportFormat format, OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(StreamUtils.nonClosing(outputStream), StandardCharsets.UTF_8), BUFFER_SIZE);
+        return format == ExportFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(objectMapper.getFactory().createGenerator(writer));
+    }
+
+    /**
+     * Sink for exported rows. {@link #write(Conta)} wraps I/O failures, such as the client disconnecting, in an
+     * {@link UncheckedIOException} so they abort the export.
+     */
+    public interface RowWriter extends Closeable {
+
+        void write(Conta conta);
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(JsonGenerator generator) {
+            this.generator = generator;
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(Conta conta) {
+            try {
+                generator.writeObject(ContaConverter.toDTO(conta));
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        private CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.writer.write(CSV_HEADER);
+        }
+
+        @Override
+        public void write(Conta conta) {
+            try {
+                writer.write(String.valueOf(conta.getId()));
+                writer.write(',');
+                writer.write(csvField(conta.getDescricao()));
+                writer.write(',');
+                writer.write(conta.getValor().toPlainString());
+                writer.write(',');
+                writer.write(conta.getDataVencimento().toString());
+                writer.write(',');
+                if (conta.getDataPagamento() != null)
+                    writer.write(conta.getDataPagamento().toString());
+                writer.write(',');
+                writer.write(conta.getSituacao().name());
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+
+        private static String csvField(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0)
+                return value;
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.srbruninho.contasapagar.api.converter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.srbruninho.contasapagar.domain.model.ContaPatch;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Reads a JSON merge patch (RFC 7396) of a bill into a {@link ContaPatch}. Members that are absent stay unchanged
+ * and {@code null} clears a member, which only {@code dataPagamento} allows. {@code id} and {@code situacao} cannot be
+ * patched; the situation follows from the dates.
+ */
+public class ContaPatchConverter {
+
+    public static final String APPLICATION_MERGE_PATCH_JSON = "application/merge-patch+json";
+
+    /**
+     * @throws IllegalArgumentException when the body is not a JSON object or a member is unknown or invalid
+     */
+    public static ContaPatch toPatch(JsonNode body) {
+        if (body == null || !body.isObject())
+            throw new IllegalArgumentException("The patch must be a JSON object!");
+
+        ContaPatch.ContaPatchBuilder patch = ContaPatch.builder();
+        Iterator<Map.Entry<String, JsonNode>> fields = body.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String name = field.getKey();
+            JsonNode value = field.getValue();
+            switch (name) {
+                case "descricao" -> patch.descricao(requiredText(name, value));
+                case "valor" -> patch.valor(positiveDecimal(name, value));
+                case "dataVencimento" -> patch.dataVencimento(date(name, requiredText(name, value)));
+                case "dataPagamento" -> patch.dataPagamentoSet(true).dataPagamento(value.isNull() ? null : date(name, requiredText(name, value)));
+                case "version" -> {
+                    if (!value.canConvertToExactIntegral())
+                        throw invalid(name);
+                    patch.version(value.longValue());
+                }
+                default -> throw new IllegalArgumentException("Field " + name + " cannot be patched!");
+            }
+        }
+        return patch.build();
+    }
+
+    private static String requiredText(String name, JsonNode value) {
+        if (!value.isTextual())
+            throw invalid(name);
+        return value.textValue();
+    }
+
+    private static BigDecimal positiveDecimal(String name, JsonNode value) {
+        BigDecimal decimal;
+        try {
+            decimal = value.isNumber() ? value.decimalValue() : new BigDecimal(requiredText(name, value));
+        } catch (NumberFormatException e) {
+            throw invalid(name);
+        }
+        if (decimal.signum() <= 0)
+            throw invalid(name);
+        return decimal;
+    }
+
+    private static LocalDate date(String name, String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw invalid(name);
+        }
+    }
+
+    private static IllegalArgumentException invalid(String name) {
+        return new IllegalArgumentException("Invalid value for " + name + "!");
+    }
+}
@@ -0,0 +1,46 @@
+package com.srbruninho.contasapagar.api.converter;
+
+import com.srbruninho.contasapagar.api.dto.CursorPageDTO;
+import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.model.ContaKeyset;
+import org.springframework.data.domain.Slice;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Encodes keyset positions as opaque URL-safe cursor tokens and builds {@link CursorPageDTO} responses.
+ */
+public class CursorConverter {
+
+    private static final String SEPARATOR = "|";
+
+    public static String encode(ContaKeyset keyset) {
+        String raw = keyset.getDataVencimento() + SEPARATOR + keyset.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded position, or null for a null or blank cursor (first page)
+     * @throws IllegalArgumentException when the cursor was not produced by {@link #encode(ContaKeyset)}
+     */
+    public static ContaKeyset decode(String cursor) {
+        if (cursor == null || cursor.isBlank())
+            return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new ContaKeyset(LocalDate.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public static <T> CursorPageDTO<T> toDTO(Slice<Conta> slice, Function<Conta, T> mapper) {
+        String nextCursor = slice.hasNext() ? encode(ContaKeyset.of(slice.getContent().get(slice.getNumberOfElements() - 1))) : null;
+        return new CursorPageDTO<>(slice.map(mapper).getContent(), slice.getNumberOfElements(), slice.hasNext(), nextCursor);
+    }
+}
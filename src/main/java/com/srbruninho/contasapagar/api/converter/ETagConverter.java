@@ -0,0 +1,41 @@
+package com.srbruninho.contasapagar.api.converter;
+
+import com.srbruninho.contasapagar.api.dto.ContaDTO;
+
+/**
+ * Builds entity tags for conditional requests. A bill is tagged with its row version (strong, the representation
+ * only changes when the version does); listings and aggregates with the table-level change watermark (weak, rows
+ * with equal sort keys may come back in a different order).
+ */
+public class ETagConverter {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    public static String fromVersion(ContaDTO conta) {
+        return "\"" + conta.getVersion() + "\"";
+    }
+
+    public static String fromWatermark(long watermark) {
+        return WEAK_PREFIX + "\"w" + watermark + "\"";
+    }
+
+    /**
+     * @return the version carried by an {@code If-Match} value built by {@link #fromVersion(ContaDTO)}, or null
+     * for {@code *}, which matches any current version
+     * @throws IllegalArgumentException when the value is not a version tag
+     */
+    public static Long toVersion(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.equals("*"))
+            return null;
+        if (tag.startsWith(WEAK_PREFIX))
+            tag = tag.substring(WEAK_PREFIX.length());
+        try {
+            if (tag.length() < 2 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"')
+                throw new NumberFormatException(tag);
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid If-Match header!");
+        }
+    }
+}
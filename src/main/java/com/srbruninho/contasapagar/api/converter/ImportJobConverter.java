@@ -0,0 +1,25 @@
+package com.srbruninho.contasapagar.api.converter;
+
+import com.srbruninho.contasapagar.api.dto.ImportJobDTO;
+import com.srbruninho.contasapagar.domain.model.ImportJob;
+
+import java.time.Duration;
+
+public class ImportJobConverter {
+    public static ImportJobDTO toDTO(ImportJob job) {
+        ImportJobDTO dto = new ImportJobDTO();
+        dto.setId(job.getId());
+        dto.setStatus(job.getStatus());
+        dto.setRowsRead(job.getProgress().getRowsRead());
+        dto.setRowsInserted(job.getProgress().getRowsInserted());
+        dto.setRowsRejected(job.getProgress().getRowsRejected());
+        dto.setRowsPerSecond(job.getRowsPerSecond());
+        Duration eta = job.getEstimatedTimeRemaining();
+        dto.setEtaSeconds(eta != null ? eta.toSeconds() : null);
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        dto.setErrorMessage(job.getErrorMessage());
+        return dto;
+    }
+}
@@ -0,0 +1,19 @@
+package com.srbruninho.contasapagar.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class BulkCreateItemDTO {
+
+    private int index;
+
+    private Long id;
+
+    private List<String> errors;
+}
@@ -0,0 +1,24 @@
+package com.srbruninho.contasapagar.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Either {@code ids} or a due date range ({@code startDate}, {@code endDate} and optionally {@code description}).
+ */
+@Data
+public class BulkPaymentRequestDTO {
+
+    private List<Long> ids;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate startDate;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate endDate;
+
+    private String description;
+}
@@ -0,0 +1,22 @@
+package com.srbruninho.contasapagar.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class BulkPaymentResultDTO {
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate paymentDate;
+
+    private long paid;
+
+    private long alreadyPaid;
+
+    private long notFound;
+
+    private List<PaymentOutcomeDTO> outcomes;
+}
@@ -2,12 +2,16 @@ package com.srbruninho.contasapagar.api.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.srbruninho.contasapagar.domain.model.Situacao;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class ContaDTO {
 
     private Long id;
@@ -23,4 +27,6 @@ public class ContaDTO {
     private String descricao;
 
     private Situacao situacao;
+
+    private Long version;
 }
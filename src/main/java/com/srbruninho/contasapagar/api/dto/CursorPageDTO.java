@@ -0,0 +1,23 @@
+package com.srbruninho.contasapagar.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of a cursor-paginated listing. Pass {@code nextCursor} back as {@code cursor} to get the
+ * following page; it is null on the last page. No total count is computed.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> content;
+
+    private int size;
+
+    private boolean hasNext;
+
+    private String nextCursor;
+}
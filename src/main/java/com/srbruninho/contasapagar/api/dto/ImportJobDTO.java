@@ -0,0 +1,32 @@
+package com.srbruninho.contasapagar.api.dto;
+
+import com.srbruninho.contasapagar.domain.model.ImportJobStatus;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class ImportJobDTO {
+
+    private String id;
+
+    private ImportJobStatus status;
+
+    private long rowsRead;
+
+    private long rowsInserted;
+
+    private long rowsRejected;
+
+    private double rowsPerSecond;
+
+    private Long etaSeconds;
+
+    private Instant createdAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private String errorMessage;
+}
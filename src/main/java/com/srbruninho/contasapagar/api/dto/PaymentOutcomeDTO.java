@@ -0,0 +1,14 @@
+package com.srbruninho.contasapagar.api.dto;
+
+import com.srbruninho.contasapagar.domain.model.PaymentOutcome;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PaymentOutcomeDTO {
+
+    private Long id;
+
+    private PaymentOutcome outcome;
+}
@@ -0,0 +1,19 @@
+package com.srbruninho.contasapagar.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Bearer token issued by {@code POST /api/auth/token}; send it as {@code Authorization: Bearer <accessToken>}
+ * until it expires, {@code expiresIn} seconds after issue.
+ */
+@Data
+@AllArgsConstructor
+public class TokenDTO {
+
+    private String accessToken;
+
+    private String tokenType;
+
+    private long expiresIn;
+}
@@ -0,0 +1,497 @@
+package com.srbruninho.contasapagar.domain.analytics;
+
+import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.model.ContaAggregate;
+import com.srbruninho.contasapagar.domain.model.ContaAggregateGroup;
+import com.srbruninho.contasapagar.domain.model.Situacao;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Column-oriented copy of {@code conta} made of primitive arrays, one slot per bill: dates as epoch days,
+ * {@code valor} as cents, {@code situacao} as its ordinal and descriptions as codes into a dictionary. Aggregates
+ * scan the columns in parallel without touching a single object per row.
+ *
+ * <p>Not thread-safe; ContaAnalyticsService guards it with a read/write lock. Rows are unordered: a removed row
+ * is replaced by the last one.
+ */
+public final class ContaColumns {
+
+    /** Payment day of unpaid bills. */
+    static final int NOT_PAID = Integer.MIN_VALUE;
+
+    /** Smallest slice of rows summed by one fork/join task. */
+    static final int MIN_ROWS_PER_TASK = 1 << 15;
+
+    /** Longest span of days, about 180 years, whose month slots are looked up in a table instead of computed. */
+    private static final int MAX_TABLE_DAYS = 1 << 16;
+
+    private static final Situacao[] SITUACOES = Situacao.values();
+
+    private static final byte PAGA = (byte) Situacao.PAGA.ordinal();
+
+    private long[] ids;
+    private long[] versions;
+    private int[] dueDays;
+    private int[] paidDays;
+    private long[] cents;
+    private byte[] situacoes;
+    private int[] descricoes;
+    private int size;
+
+    /** Bounds of the dates ever stored, so month groups can be laid out as array slots. */
+    private int minDueDay = Integer.MAX_VALUE;
+    private int maxDueDay = Integer.MIN_VALUE;
+    private int minPaidDay = Integer.MAX_VALUE;
+    private int maxPaidDay = Integer.MIN_VALUE;
+
+    private final IdIndex rows;
+
+    /** Descriptions by code; entries of removed bills stay until the next full load. */
+    private final List<String> dictionary = new ArrayList<>();
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    public ContaColumns() {
+        this(1024);
+    }
+
+    public ContaColumns(int capacity) {
+        capacity = Math.max(capacity, 16);
+        ids = new long[capacity];
+        versions = new long[capacity];
+        dueDays = new int[capacity];
+        paidDays = new int[capacity];
+        cents = new long[capacity];
+        situacoes = new byte[capacity];
+        descricoes = new int[capacity];
+        rows = new IdIndex(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds the bill, or overwrites its row unless the stored version is newer.
+     *
+     * @return false when the stored row was kept
+     */
+    public boolean upsert(Conta conta) {
+        long id = conta.getId();
+        long version = conta.getVersion() != null ? conta.getVersion() : 0;
+        int row = rows.get(id);
+        if (row < 0) {
+            ensureCapacity(size + 1);
+            row = size++;
+            ids[row] = id;
+            rows.put(id, row);
+        } else if (versions[row] > version) {
+            return false;
+        }
+
+        int dueDay = (int) conta.getDataVencimento().toEpochDay();
+        int paidDay = conta.getDataPagamento() != null ? (int) conta.getDataPagamento().toEpochDay() : NOT_PAID;
+        versions[row] = version;
+        dueDays[row] = dueDay;
+        paidDays[row] = paidDay;
+        // Postgres rounds numeric(10, 2) half up as well.
+        cents[row] = conta.getValor().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        situacoes[row] = (byte) conta.getSituacao().ordinal();
+        descricoes[row] = code(conta.getDescricao());
+        trackDueDay(dueDay);
+        if (paidDay != NOT_PAID)
+            trackPaidDay(paidDay);
+        return true;
+    }
+
+    /**
+     * @return false when the bill was not stored
+     */
+    public boolean remove(long id) {
+        int row = rows.remove(id);
+        if (row < 0)
+            return false;
+
+        int last = --size;
+        if (row != last) {
+            ids[row] = ids[last];
+            versions[row] = versions[last];
+            dueDays[row] = dueDays[last];
+            paidDays[row] = paidDays[last];
+            cents[row] = cents[last];
+            situacoes[row] = situacoes[last];
+            descricoes[row] = descricoes[last];
+            rows.put(ids[row], row);
+        }
+        return true;
+    }
+
+    /**
+     * Mirrors a bulk payment: bills still unpaid become PAGA on {@code paymentDate}. Bills already paid are left
+     * as they are, so replaying the same payment is harmless.
+     *
+     * @return the number of rows changed
+     */
+    public int markPaid(Collection<Long> paidIds, LocalDate paymentDate) {
+        int paidDay = (int) paymentDate.toEpochDay();
+        int changed = 0;
+        for (Long id : paidIds) {
+            int row = rows.get(id);
+            if (row < 0 || paidDays[row] != NOT_PAID)
+                continue;
+            paidDays[row] = paidDay;
+            situacoes[row] = PAGA;
+            versions[row]++;
+            changed++;
+        }
+        if (changed > 0)
+            trackPaidDay(paidDay);
+        return changed;
+    }
+
+    /**
+     * Counts and sums the bills due in {@code [from, to]} (open-ended when a bound is null) per group, splitting
+     * the rows across {@code pool}.
+     *
+     * @return one entry per non-empty group, ordered by key
+     */
+    public List<ContaAggregate> aggregate(ContaAggregateGroup group, LocalDate from, LocalDate to, ForkJoinPool pool) {
+        int fromDay = from != null ? (int) from.toEpochDay() : Integer.MIN_VALUE;
+        int toDay = to != null ? (int) to.toEpochDay() : Integer.MAX_VALUE;
+
+        int firstKey;
+        int groups;
+        MonthSlots months = null;
+        switch (group) {
+            case DUE_MONTH -> {
+                int first = Math.max(fromDay, minDueDay);
+                int last = Math.min(toDay, maxDueDay);
+                if (first > last)
+                    return List.of();
+                months = new MonthSlots(first, last);
+                firstKey = months.firstKey;
+                groups = months.groups;
+            }
+            case PAYMENT_MONTH -> {
+                if (minPaidDay > maxPaidDay)
+                    return List.of();
+                months = new MonthSlots(minPaidDay, maxPaidDay);
+                firstKey = months.firstKey;
+                groups = months.groups;
+            }
+            case SITUACAO -> {
+                firstKey = 0;
+                groups = SITUACOES.length;
+            }
+            default -> {
+                firstKey = 0;
+                groups = dictionary.size();
+            }
+        }
+        if (size == 0 || groups == 0)
+            return List.of();
+
+        // Each task allocates a count and a sum per group, so many groups call for larger slices.
+        int rowsPerTask = Math.max(MIN_ROWS_PER_TASK, Math.max(groups, size / (4 * pool.getParallelism())));
+        long[] totals = pool.invoke(new AggregateTask(group, fromDay, toDay, months, groups, 0, size, rowsPerTask));
+
+        List<ContaAggregate> result = new ArrayList<>();
+        for (int g = 0; g < groups; g++) {
+            if (totals[2 * g] > 0)
+                result.add(new ContaAggregate(key(group, firstKey + g), totals[2 * g], BigDecimal.valueOf(totals[2 * g + 1], 2)));
+        }
+        result.sort(Comparator.comparing(ContaAggregate::getKey));
+        return result;
+    }
+
+    /**
+     * Approximate heap used by the columns, the id index and the dictionary.
+     */
+    public long footprintBytes() {
+        long columns = (long) ids.length * (Long.BYTES * 3 + Integer.BYTES * 3 + Byte.BYTES);
+        long dictionaryBytes = 0;
+        for (String descricao : dictionary)
+            // String, its byte[] (UTF-16 at worst), the map entry, its boxed code and the list slot.
+            dictionaryBytes += 24 + 16 + 2L * descricao.length() + 32 + 16 + 8;
+        return columns + rows.footprintBytes() + dictionaryBytes;
+    }
+
+    private String key(ContaAggregateGroup group, int key) {
+        return switch (group) {
+            case DUE_MONTH, PAYMENT_MONTH -> String.format("%04d-%02d", Math.floorDiv(key, 12), Math.floorMod(key, 12) + 1);
+            case SITUACAO -> SITUACOES[key].name();
+            case DESCRIPTION -> dictionary.get(key);
+        };
+    }
+
+    private int code(String descricao) {
+        Integer code = codes.get(descricao);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.add(descricao);
+            codes.put(descricao, code);
+        }
+        return code;
+    }
+
+    private void trackDueDay(int day) {
+        minDueDay = Math.min(minDueDay, day);
+        maxDueDay = Math.max(maxDueDay, day);
+    }
+
+    private void trackPaidDay(int day) {
+        minPaidDay = Math.min(minPaidDay, day);
+        maxPaidDay = Math.max(maxPaidDay, day);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length)
+            return;
+        int grown = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, grown);
+        versions = Arrays.copyOf(versions, grown);
+        dueDays = Arrays.copyOf(dueDays, grown);
+        paidDays = Arrays.copyOf(paidDays, grown);
+        cents = Arrays.copyOf(cents, grown);
+        situacoes = Arrays.copyOf(situacoes, grown);
+        descricoes = Arrays.copyOf(descricoes, grown);
+    }
+
+    /**
+     * {@code year * 12 + month - 1} of an epoch day, with the civil-from-days arithmetic of {@link LocalDate#ofEpochDay}
+     * but no allocation.
+     */
+    static int epochMonth(int epochDay) {
+        long zeroDay = epochDay + 719_468L;
+        long era = Math.floorDiv(zeroDay, 146_097L);
+        long dayOfEra = zeroDay - era * 146_097L;
+        long yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return (int) (year * 12 + month - 1);
+    }
+
+    /**
+     * Maps the days of {@code [firstDay, lastDay]} to consecutive month slots, through a table when the span is
+     * short enough, since the calendar arithmetic would otherwise dominate the scan.
+     */
+    private static final class MonthSlots {
+
+        private final int firstDay;
+        private final int firstKey;
+        private final int groups;
+        private final int[] slotOfDay;
+
+        MonthSlots(int firstDay, int lastDay) {
+            this.firstDay = firstDay;
+            this.firstKey = epochMonth(firstDay);
+            this.groups = epochMonth(lastDay) - firstKey + 1;
+            long days = (long) lastDay - firstDay + 1;
+            if (days <= MAX_TABLE_DAYS) {
+                slotOfDay = new int[(int) days];
+                for (int day = 0; day < slotOfDay.length; day++)
+                    slotOfDay[day] = epochMonth(firstDay + day) - firstKey;
+            } else {
+                slotOfDay = null;
+            }
+        }
+
+        int slot(int day) {
+            return slotOfDay != null ? slotOfDay[day - firstDay] : epochMonth(day) - firstKey;
+        }
+    }
+
+    /**
+     * Sums a slice of rows into {@code [count, cents]} pairs, one per group and side by side so both share a cache
+     * line, halving the slice until it is small enough.
+     */
+    private final class AggregateTask extends RecursiveTask<long[]> {
+
+        private final ContaAggregateGroup group;
+        private final int fromDay;
+        private final int toDay;
+        private final MonthSlots months;
+        private final int groups;
+        private final int start;
+        private final int end;
+        private final int rowsPerTask;
+
+        AggregateTask(ContaAggregateGroup group, int fromDay, int toDay, MonthSlots months, int groups, int start, int end, int rowsPerTask) {
+            this.group = group;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+            this.months = months;
+            this.groups = groups;
+            this.start = start;
+            this.end = end;
+            this.rowsPerTask = rowsPerTask;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (end - start <= rowsPerTask)
+                return sum();
+
+            int middle = (start + end) >>> 1;
+            AggregateTask left = new AggregateTask(group, fromDay, toDay, months, groups, start, middle, rowsPerTask);
+            left.fork();
+            long[] totals = new AggregateTask(group, fromDay, toDay, months, groups, middle, end, rowsPerTask).compute();
+            long[] leftTotals = left.join();
+            for (int i = 0; i < totals.length; i++)
+                totals[i] += leftTotals[i];
+            return totals;
+        }
+
+        private long[] sum() {
+            long[] totals = new long[2 * groups];
+            // One loop per grouping keeps the per-row work free of branches on the grouping.
+            switch (group) {
+                case DUE_MONTH -> {
+                    for (int row = start; row < end; row++) {
+                        int due = dueDays[row];
+                        if (due >= fromDay && due <= toDay)
+                            add(totals, months.slot(due), row);
+                    }
+                }
+                case PAYMENT_MONTH -> {
+                    for (int row = start; row < end; row++) {
+                        int due = dueDays[row];
+                        int paid = paidDays[row];
+                        if (paid != NOT_PAID && due >= fromDay && due <= toDay)
+                            add(totals, months.slot(paid), row);
+                    }
+                }
+                case SITUACAO -> {
+                    for (int row = start; row < end; row++) {
+                        int due = dueDays[row];
+                        if (due >= fromDay && due <= toDay)
+                            add(totals, situacoes[row], row);
+                    }
+                }
+                case DESCRIPTION -> {
+                    for (int row = start; row < end; row++) {
+                        int due = dueDays[row];
+                        if (due >= fromDay && due <= toDay)
+                            add(totals, descricoes[row], row);
+                    }
+                }
+            }
+            return totals;
+        }
+
+        private void add(long[] totals, int key, int row) {
+            totals[2 * key]++;
+            totals[2 * key + 1] += cents[row];
+        }
+    }
+
+    /**
+     * Open-addressing map from bill id to row, with linear probing and backward-shift deletion, so lookups
+     * neither box the id nor allocate an entry.
+     */
+    private static final class IdIndex {
+
+        private static final long FREE = Long.MIN_VALUE;
+
+        private long[] keys;
+        private int[] values;
+        private int mask;
+        private int size;
+
+        IdIndex(int expected) {
+            allocate(Integer.highestOneBit(Math.max(expected, 8) * 2 - 1) << 1);
+        }
+
+        int get(long key) {
+            for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+                long stored = keys[slot];
+                if (stored == key)
+                    return values[slot];
+                if (stored == FREE)
+                    return -1;
+            }
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length)
+                resize();
+            for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+                long stored = keys[slot];
+                if (stored == key) {
+                    values[slot] = value;
+                    return;
+                }
+                if (stored == FREE) {
+                    keys[slot] = key;
+                    values[slot] = value;
+                    size++;
+                    return;
+                }
+            }
+        }
+
+        int remove(long key) {
+            int slot = slot(key);
+            while (keys[slot] != key) {
+                if (keys[slot] == FREE)
+                    return -1;
+                slot = (slot + 1) & mask;
+            }
+            int value = values[slot];
+
+            // Pulls back every later entry of the probe run that may sit in the hole, so no lookup stops early.
+            int hole = slot;
+            for (int next = (hole + 1) & mask; keys[next] != FREE; next = (next + 1) & mask) {
+                int home = slot(keys[next]);
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    values[hole] = values[next];
+                    hole = next;
+                }
+            }
+            keys[hole] = FREE;
+            size--;
+            return value;
+        }
+
+        long footprintBytes() {
+            return (long) keys.length * (Long.BYTES + Integer.BYTES);
+        }
+
+        private int slot(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            allocate(oldKeys.length * 2);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != FREE)
+                    put(oldKeys[i], oldValues[i]);
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            values = new int[capacity];
+            Arrays.fill(keys, FREE);
+            mask = capacity - 1;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.srbruninho.contasapagar.domain.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Ranges of days an unpaid bill is past its due date.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum AgingBucket {
+
+    DAYS_1_30("1-30", 1, 30),
+    DAYS_31_60("31-60", 31, 60),
+    DAYS_61_90("61-90", 61, 90),
+    OVER_90_DAYS("90+", 91, null);
+
+    private final String label;
+    private final int minDaysOverdue;
+    /** Null for the open-ended bucket. */
+    private final Integer maxDaysOverdue;
+}
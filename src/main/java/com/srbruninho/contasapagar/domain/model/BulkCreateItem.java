@@ -0,0 +1,31 @@
+package com.srbruninho.contasapagar.domain.model;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk creation for a single element, identified by its position in the request body.
+ */
+@Value
+public class BulkCreateItem {
+
+    int index;
+
+    /** Id of the created bill, null when the element was rejected. */
+    Long id;
+
+    List<String> errors;
+
+    public static BulkCreateItem created(int index, Long id) {
+        return new BulkCreateItem(index, id, List.of());
+    }
+
+    public static BulkCreateItem rejected(int index, List<String> errors) {
+        return new BulkCreateItem(index, null, errors);
+    }
+
+    public boolean isCreated() {
+        return id != null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.srbruninho.contasapagar.domain.model;
+
+import lombok.Value;
+
+/**
+ * Outcome of a bulk creation as a whole; the outcome of each element is handed on as a {@link BulkCreateItem}.
+ */
+@Value
+public class BulkCreateResult {
+
+    long created;
+
+    long rejected;
+
+    /** Index of the first element a database error kept from being created, null when there was none. Nothing after its batch was read. */
+    Integer failedAt;
+}
@@ -0,0 +1,14 @@
+package com.srbruninho.contasapagar.domain.model;
+
+import lombok.Value;
+
+/**
+ * Outcome of a bulk delete: how many bills it removed, and whether they were only stamped as deleted.
+ */
+@Value
+public class BulkDeleteResult {
+
+    long deleted;
+
+    boolean soft;
+}
@@ -0,0 +1,21 @@
+package com.srbruninho.contasapagar.domain.model;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Outcome of a bulk payment, per bill id in request order.
+ */
+@Value
+public class BulkPaymentResult {
+
+    LocalDate paymentDate;
+
+    Map<Long, PaymentOutcome> outcomes;
+
+    public long count(PaymentOutcome outcome) {
+        return outcomes.values().stream().filter(outcome::equals).count();
+    }
+}
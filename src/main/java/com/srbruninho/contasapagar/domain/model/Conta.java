@@ -5,19 +5,40 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+/**
+ * Updates are dynamic: Hibernate writes only the columns that changed, plus the version.
+ * Soft-deleted rows (deleted_at set, see V11) are invisible to every entity load and JPQL query.
+ */
 @Data
 @Entity
+@DynamicUpdate
+@SQLRestriction(Conta.NOT_DELETED)
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 public class Conta {
 
+    public static final String ID_SEQUENCE = "conta_seq";
+
+    /** SQL condition selecting the rows that are not soft-deleted; native queries on conta must add it themselves. */
+    public static final String NOT_DELETED = "deleted_at IS NULL";
+
+    /** Must match the INCREMENT BY of {@code conta_seq}, so each nextval reserves a block of ids. */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Unique across partitions: the primary key is (id, data_vencimento) since V10, so the conta_id table (V13)
+     * rejects an id already in use.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @JsonFormat(pattern = "yyyy-MM-dd")
@@ -37,6 +58,10 @@ public class Conta {
     @Enumerated(EnumType.STRING)
     private Situacao situacao;
 
+    /** Incremented on every write; drives optimistic locking and the ETag of the bill. */
+    @Version
+    private Long version;
+
     public void defineSituacao() {
         if (this.dataPagamento != null) {
             this.situacao = Situacao.PAGA;
@@ -0,0 +1,16 @@
+package com.srbruninho.contasapagar.domain.model;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * Number and total value of the bills of one group.
+ */
+@Value
+public class ContaAggregate {
+
+    String key;
+    long count;
+    BigDecimal total;
+}
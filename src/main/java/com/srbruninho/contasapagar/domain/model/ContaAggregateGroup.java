@@ -0,0 +1,14 @@
+package com.srbruninho.contasapagar.domain.model;
+
+/**
+ * Grouping of the bills summed by an aggregate query.
+ */
+public enum ContaAggregateGroup {
+
+    /** Month of the due date, keyed {@code yyyy-MM}. */
+    DUE_MONTH,
+    /** Month of the payment date, keyed {@code yyyy-MM}; unpaid bills are left out. */
+    PAYMENT_MONTH,
+    SITUACAO,
+    DESCRIPTION
+}
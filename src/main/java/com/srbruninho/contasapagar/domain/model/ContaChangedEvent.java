@@ -0,0 +1,31 @@
+package com.srbruninho.contasapagar.domain.model;
+
+import lombok.Value;
+
+/**
+ * Published by ContaService when a bill is saved or deleted; listeners see it once the transaction commits.
+ */
+@Value
+public class ContaChangedEvent {
+
+    Long id;
+
+    /** Copy of the bill as written, or null when it was deleted. */
+    Conta conta;
+
+    public static ContaChangedEvent saved(Conta conta) {
+        return new ContaChangedEvent(conta.getId(), Conta.builder()
+                .id(conta.getId())
+                .dataVencimento(conta.getDataVencimento())
+                .dataPagamento(conta.getDataPagamento())
+                .valor(conta.getValor())
+                .descricao(conta.getDescricao())
+                .situacao(conta.getSituacao())
+                .version(conta.getVersion())
+                .build());
+    }
+
+    public static ContaChangedEvent deleted(Long id) {
+        return new ContaChangedEvent(id, null);
+    }
+}
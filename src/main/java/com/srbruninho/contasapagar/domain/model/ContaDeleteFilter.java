@@ -0,0 +1,23 @@
+package com.srbruninho.contasapagar.domain.model;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Bills to delete in bulk: those due in {@code [startDate, endDate]}, optionally only with the given stored
+ * situacao and exact description.
+ */
+@Value
+public class ContaDeleteFilter {
+
+    LocalDate startDate;
+
+    LocalDate endDate;
+
+    /** Null for any situacao. */
+    Situacao situacao;
+
+    /** Null for any description. */
+    String description;
+}
@@ -0,0 +1,19 @@
+package com.srbruninho.contasapagar.domain.model;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Position of a row in the (dataVencimento, id) descending order used by keyset pagination.
+ */
+@Value
+public class ContaKeyset {
+
+    LocalDate dataVencimento;
+    Long id;
+
+    public static ContaKeyset of(Conta conta) {
+        return new ContaKeyset(conta.getDataVencimento(), conta.getId());
+    }
+}
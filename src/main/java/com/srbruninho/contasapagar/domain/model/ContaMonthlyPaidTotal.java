@@ -0,0 +1,32 @@
+package com.srbruninho.contasapagar.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Sum of the paid {@link Conta} values of one month. Rows are only changed through the
+ * incremental upsert and rebuild queries of {@code ContaMonthlyPaidTotalRepository}.
+ */
+@Data
+@Entity
+@Table(name = "conta_monthly_paid_total")
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContaMonthlyPaidTotal {
+
+    /** First day of the month. */
+    @Id
+    private LocalDate period;
+
+    @Column(nullable = false)
+    private BigDecimal totalValue;
+
+    @Column(nullable = false)
+    private long billCount;
+}
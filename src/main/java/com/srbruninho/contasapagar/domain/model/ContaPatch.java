@@ -0,0 +1,53 @@
+package com.srbruninho.contasapagar.domain.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Partial update of a bill, as sent in a JSON merge patch. A null field is left unchanged, except for
+ * {@code dataPagamento}, which {@code dataPagamentoSet} lets a patch clear.
+ */
+@Value
+@Builder(toBuilder = true)
+public class ContaPatch {
+
+    String descricao;
+
+    BigDecimal valor;
+
+    LocalDate dataVencimento;
+
+    boolean dataPagamentoSet;
+
+    LocalDate dataPagamento;
+
+    /** Version the client last read, or null to patch whatever version is current. */
+    Long version;
+
+    /**
+     * Copies the fields that differ onto {@code conta}, so unchanged columns stay clean for dynamic updates.
+     * {@code situacao} is re-evaluated only when a date changed.
+     */
+    public void applyTo(Conta conta) {
+        if (descricao != null && !descricao.equals(conta.getDescricao()))
+            conta.setDescricao(descricao);
+        if (valor != null && (conta.getValor() == null || valor.compareTo(conta.getValor()) != 0))
+            conta.setValor(valor);
+
+        boolean datesChanged = false;
+        if (dataVencimento != null && !dataVencimento.equals(conta.getDataVencimento())) {
+            conta.setDataVencimento(dataVencimento);
+            datesChanged = true;
+        }
+        if (dataPagamentoSet && !Objects.equals(dataPagamento, conta.getDataPagamento())) {
+            conta.setDataPagamento(dataPagamento);
+            datesChanged = true;
+        }
+        if (datesChanged)
+            conta.defineSituacao();
+    }
+}
@@ -0,0 +1,22 @@
+package com.srbruninho.contasapagar.domain.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Dashboard totals: count and value per situacao, and unpaid bills per {@link AgingBucket}, counted from
+ * {@code referenceDate}. Every situacao and bucket is listed, empty ones with zeros.
+ */
+@Value
+public class ContaSummary {
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    LocalDate referenceDate;
+
+    List<ContaAggregate> bySituacao;
+
+    List<ContaAggregate> overdueAging;
+}
@@ -0,0 +1,14 @@
+package com.srbruninho.contasapagar.domain.model;
+
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * Published by ContaService after each committed chunk of a bulk delete, with the ids of the bills it deleted.
+ */
+@Value
+public class ContasDeletedEvent {
+
+    Set<Long> ids;
+}
@@ -0,0 +1,16 @@
+package com.srbruninho.contasapagar.domain.model;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Published by ContaService after a bulk payment, with the ids of the bills it actually paid.
+ */
+@Value
+public class ContasPaidEvent {
+
+    Set<Long> ids;
+    LocalDate paymentDate;
+}
@@ -0,0 +1,9 @@
+package com.srbruninho.contasapagar.domain.model;
+
+public enum DescriptionMatch {
+
+    /** Case-sensitive equality. */
+    EXACT,
+    /** Case-insensitive substring search, backed by a trigram index when pg_trgm is installed. */
+    CONTAINS
+}
@@ -0,0 +1,9 @@
+package com.srbruninho.contasapagar.domain.model;
+
+public enum ExportFormat {
+
+    /** One JSON object per line ({@code application/x-ndjson}). */
+    NDJSON,
+    /** Comma-separated values with a header row ({@code text/csv}). */
+    CSV
+}
@@ -0,0 +1,72 @@
+package com.srbruninho.contasapagar.domain.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory state of an asynchronous CSV import. The upload is spooled to {@link #getFile()} and
+ * processed by the import executor; progress is exposed through {@link #getProgress()} and rejected
+ * rows are written to {@link #getRejectionReport()} as they are found.
+ */
+@Getter
+public class ImportJob {
+
+    private final String id;
+    private final Path file;
+    private final Path rejectionReport;
+    private final long totalBytes;
+    private final Instant createdAt = Instant.now();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final ImportProgress progress = new ImportProgress();
+
+    @Setter
+    private volatile ImportJobStatus status = ImportJobStatus.QUEUED;
+    @Setter
+    private volatile Instant startedAt;
+    @Setter
+    private volatile Instant finishedAt;
+    @Setter
+    private volatile String errorMessage;
+
+    public ImportJob(String id, Path file, Path rejectionReport, long totalBytes) {
+        this.id = id;
+        this.file = file;
+        this.rejectionReport = rejectionReport;
+        this.totalBytes = totalBytes;
+    }
+
+    public boolean isFinished() {
+        return status == ImportJobStatus.COMPLETED || status == ImportJobStatus.FAILED;
+    }
+
+    public Duration getElapsed() {
+        if (startedAt == null)
+            return Duration.ZERO;
+        return Duration.between(startedAt, finishedAt != null ? finishedAt : Instant.now());
+    }
+
+    public double getRowsPerSecond() {
+        long millis = getElapsed().toMillis();
+        if (millis == 0)
+            return 0;
+        return progress.getRowsRead() * 1000.0 / millis;
+    }
+
+    /**
+     * Remaining time estimated from the share of the spooled file consumed so far, or null while unknown.
+     */
+    public Duration getEstimatedTimeRemaining() {
+        if (isFinished())
+            return Duration.ZERO;
+        long read = bytesRead.get();
+        if (read == 0 || startedAt == null)
+            return null;
+        long elapsedMillis = getElapsed().toMillis();
+        return Duration.ofMillis(elapsedMillis * Math.max(0, totalBytes - read) / read);
+    }
+}
@@ -0,0 +1,9 @@
+package com.srbruninho.contasapagar.domain.model;
+
+public enum ImportJobStatus {
+
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,37 @@
+package com.srbruninho.contasapagar.domain.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Row counters of a CSV import. Updated by the import thread and read concurrently by status requests.
+ */
+public class ImportProgress {
+
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsInserted = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+
+    public void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    public void rowsInserted(long count) {
+        rowsInserted.addAndGet(count);
+    }
+
+    public void rowRejected() {
+        rowsRejected.incrementAndGet();
+    }
+
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    public long getRowsInserted() {
+        return rowsInserted.get();
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected.get();
+    }
+}
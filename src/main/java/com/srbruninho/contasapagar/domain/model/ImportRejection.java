@@ -0,0 +1,15 @@
+package com.srbruninho.contasapagar.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A CSV row that failed validation and was not persisted.
+ */
+@Data
+@AllArgsConstructor
+public class ImportRejection {
+
+    private long line;
+    private String reason;
+}
@@ -0,0 +1,10 @@
+package com.srbruninho.contasapagar.domain.model;
+
+/**
+ * Result of a bulk payment for a single bill.
+ */
+public enum PaymentOutcome {
+    PAID,
+    ALREADY_PAID,
+    NOT_FOUND
+}
@@ -0,0 +1,520 @@
+package com.srbruninho.contasapagar.domain.repositories;
+
+import com.srbruninho.contasapagar.domain.model.AgingBucket;
+import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.model.ContaAggregate;
+import com.srbruninho.contasapagar.domain.model.ContaAggregateGroup;
+import com.srbruninho.contasapagar.domain.model.ContaDeleteFilter;
+import com.srbruninho.contasapagar.domain.model.ContaSummary;
+import com.srbruninho.contasapagar.domain.model.Situacao;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC writer for bulk inserts and set-based updates and deletes of {@link Conta}, bypassing the persistence
+ * context. Inserts run in their own transaction and send the whole list as a single JDBC batch.
+ * <p>
+ * Ids are reserved from {@code conta_seq} with the same pooled semantics Hibernate uses (each
+ * nextval value {@code v} owns {@code (v - allocationSize, v]}), so both writers can share the sequence.
+ * Paid rows are added to {@code conta_monthly_paid_total} in the same transaction, one upsert per month.
+ * Updates increment {@code version} as Hibernate would, so ETags and optimistic locks see them.
+ * Every statement skips soft-deleted rows ({@link Conta#NOT_DELETED}), which Hibernate filters out on its own.
+ */
+@Repository
+@Timed(value = "contasapagar.repository", description = "JDBC repository query latency")
+public class ContaBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO conta (id, data_vencimento, data_pagamento, valor, descricao, situacao) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String PAY_BY_IDS_SQL = "UPDATE conta SET data_pagamento = ?, situacao = ?, version = version + 1 " +
+            "WHERE id = ANY (?) AND data_pagamento IS NULL AND " + Conta.NOT_DELETED + " RETURNING id, valor";
+
+    private static final String UNPAID_DUE_BETWEEN = "data_vencimento BETWEEN ? AND ? AND data_pagamento IS NULL AND " + Conta.NOT_DELETED;
+
+    private static final String PAY_BY_DUE_DATE_SQL = "UPDATE conta SET data_pagamento = ?, situacao = ?, version = version + 1 " +
+            "WHERE " + UNPAID_DUE_BETWEEN;
+
+    // Stops counting past the limit, so a range with millions of unpaid bills costs no more than one at the limit.
+    private static final String COUNT_UNPAID_DUE_BETWEEN_SQL = "SELECT COUNT(*) FROM (SELECT 1 FROM conta WHERE " + UNPAID_DUE_BETWEEN + "%s LIMIT ?) AS matching";
+
+    /*
+     * The sweep locks a chunk of ids first and updates them by id, for the same reasons as the chunked deletes below.
+     */
+    private static final String LOCK_OVERDUE_CHUNK_SQL = "SELECT id FROM conta WHERE situacao = ? AND data_pagamento IS NULL " +
+            "AND data_vencimento < ? AND " + Conta.NOT_DELETED + " LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String MARK_OVERDUE_BY_IDS_SQL = "UPDATE conta SET situacao = ?, version = version + 1 WHERE id = ANY (?)";
+
+    private static final String TRY_ADVISORY_LOCK_SQL = "SELECT pg_try_advisory_lock(?)";
+
+    private static final String ADVISORY_UNLOCK_SQL = "SELECT pg_advisory_unlock(?)";
+
+    private static final String EXISTING_IDS_SQL = "SELECT id FROM conta WHERE id = ANY (?) AND " + Conta.NOT_DELETED;
+
+    private static final String DELETE_BY_ID_SQL = "DELETE FROM conta WHERE id = ? AND " + Conta.NOT_DELETED + " RETURNING id, data_pagamento, valor";
+
+    private static final String SOFT_DELETE_BY_ID_SQL = "UPDATE conta SET deleted_at = now(), version = version + 1 " +
+            "WHERE id = ? AND " + Conta.NOT_DELETED + " RETURNING id, data_pagamento, valor";
+
+    /*
+     * Chunked deletes lock their ids with a LIMITed SELECT, then delete them by id in a second statement of the same
+     * transaction. A single statement joining the two plans the join before the chunk exists: on a freshly loaded
+     * partition with no statistics Postgres expects one row and picks a nested loop that is quadratic in the chunk
+     * size, and as an IN (subquery) it may rerun the LIMIT for every outer row. The due-date range repeated in the
+     * DELETE lets Postgres prune the partitions outside it.
+     */
+    private static final String LOCK_CHUNK_SQL = "SELECT id FROM conta WHERE %s LIMIT ? FOR UPDATE";
+
+    private static final String DELETE_BY_IDS_SQL = "DELETE FROM conta WHERE id = ANY (?) AND data_vencimento BETWEEN ? AND ? " +
+            "RETURNING id, data_pagamento, valor";
+
+    private static final String SOFT_DELETE_BY_IDS_SQL = "UPDATE conta SET deleted_at = now(), version = version + 1 " +
+            "WHERE id = ANY (?) AND data_vencimento BETWEEN ? AND ? RETURNING id, data_pagamento, valor";
+
+    private static final String LOCK_PURGE_CHUNK_SQL = "SELECT id FROM conta WHERE deleted_at < ? LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String PURGE_BY_IDS_SQL = "DELETE FROM conta WHERE id = ANY (?) AND deleted_at IS NOT NULL";
+
+    private static final String EXPORT_SQL = "SELECT id, data_vencimento, data_pagamento, valor, descricao, situacao, version FROM conta WHERE " + Conta.NOT_DELETED;
+
+    /** Rows per round trip while streaming an export; only this many rows are held by the driver at a time. */
+    static final int EXPORT_FETCH_SIZE = 1000;
+
+    private static final String AGGREGATE_SQL = "SELECT %1$s AS key, count(*) AS count, sum(valor) AS total FROM conta " +
+            "WHERE %2$s GROUP BY %1$s ORDER BY %1$s COLLATE \"C\"";
+
+    private static final String SUMMARY_SQL = summarySql();
+
+    private static final String ENSURE_PARTITIONS_SQL = "SELECT ensure_conta_partitions(?)";
+
+    private static final String ARCHIVE_PARTITIONS_SQL = "SELECT archive_conta_partitions(?)";
+
+    private static final String NEXT_ID_BLOCKS_SQL = "SELECT nextval('" + Conta.ID_SEQUENCE + "') FROM generate_series(1, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ContaMonthlyPaidTotalRepository contaMonthlyPaidTotalRepository;
+
+    @Transactional
+    public void insertAll(List<Conta> contas) {
+        if (contas.isEmpty())
+            return;
+
+        assignIds(contas);
+        jdbcTemplate.batchUpdate(INSERT_SQL, contas, contas.size(), (ps, conta) -> {
+            ps.setLong(1, conta.getId());
+            ps.setDate(2, Date.valueOf(conta.getDataVencimento()));
+            if (conta.getDataPagamento() != null) {
+                ps.setDate(3, Date.valueOf(conta.getDataPagamento()));
+            } else {
+                ps.setNull(3, Types.DATE);
+            }
+            ps.setBigDecimal(4, conta.getValor());
+            ps.setString(5, conta.getDescricao());
+            ps.setString(6, conta.getSituacao().name());
+        });
+        addPaidTotals(contas, false);
+    }
+
+    /**
+     * Marks the unpaid bills among {@code ids} as paid on {@code paymentDate} with a single UPDATE.
+     * Must run inside the caller's transaction, which is also responsible for the monthly totals.
+     *
+     * @return the value of every bill that was paid, by id
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Long, BigDecimal> markPaid(Collection<Long> ids, LocalDate paymentDate) {
+        Map<Long, BigDecimal> paid = new LinkedHashMap<>();
+        jdbcTemplate.query(PAY_BY_IDS_SQL, ps -> {
+            ps.setDate(1, Date.valueOf(paymentDate));
+            ps.setString(2, Situacao.PAGA.name());
+            ps.setArray(3, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+        }, (RowCallbackHandler) rs -> paid.put(rs.getLong("id"), rs.getBigDecimal("valor")));
+        return paid;
+    }
+
+    /**
+     * Counts the unpaid bills due in {@code [startDate, endDate]}, optionally restricted to an exact description,
+     * stopping at {@code limit}.
+     */
+    public long countUnpaidDueBetween(LocalDate startDate, LocalDate endDate, String description, int limit) {
+        String sql = String.format(COUNT_UNPAID_DUE_BETWEEN_SQL, description != null ? " AND descricao = ?" : "");
+        return description != null
+                ? jdbcTemplate.queryForObject(sql, Long.class, Date.valueOf(startDate), Date.valueOf(endDate), description, limit)
+                : jdbcTemplate.queryForObject(sql, Long.class, Date.valueOf(startDate), Date.valueOf(endDate), limit);
+    }
+
+    /**
+     * Marks every unpaid bill due in {@code [startDate, endDate]} as paid on {@code paymentDate}, optionally
+     * restricted to an exact description. Same transaction rules as {@link #markPaid(Collection, LocalDate)}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Long, BigDecimal> markPaidByDueDate(LocalDate startDate, LocalDate endDate, String description, LocalDate paymentDate) {
+        String sql = PAY_BY_DUE_DATE_SQL + (description != null ? " AND descricao = ?" : "") + " RETURNING id, valor";
+        Map<Long, BigDecimal> paid = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, ps -> {
+            ps.setDate(1, Date.valueOf(paymentDate));
+            ps.setString(2, Situacao.PAGA.name());
+            ps.setDate(3, Date.valueOf(startDate));
+            ps.setDate(4, Date.valueOf(endDate));
+            if (description != null)
+                ps.setString(5, description);
+        }, (RowCallbackHandler) rs -> paid.put(rs.getLong("id"), rs.getBigDecimal("valor")));
+        return paid;
+    }
+
+    /**
+     * Flips unpaid PENDENTE bills due before {@code today} to ATRASADA, {@code batchSize} rows at a time, each batch
+     * committed on its own (unless the caller has a transaction) so row locks are held briefly. Bills locked by
+     * other sessions are skipped and left for the next run. The whole sweep holds the session advisory lock
+     * {@code lockKey} on a single connection, so only one node sweeps at a time.
+     *
+     * @return the number of bills changed, or empty if another session holds the lock
+     */
+    public OptionalLong markOverdue(LocalDate today, int batchSize, long lockKey) {
+        return jdbcTemplate.execute((ConnectionCallback<OptionalLong>) connection -> {
+            if (!queryBoolean(connection, TRY_ADVISORY_LOCK_SQL, lockKey))
+                return OptionalLong.empty();
+            try (PreparedStatement lock = connection.prepareStatement(LOCK_OVERDUE_CHUNK_SQL);
+                 PreparedStatement update = connection.prepareStatement(MARK_OVERDUE_BY_IDS_SQL)) {
+                lock.setString(1, Situacao.PENDENTE.name());
+                lock.setDate(2, Date.valueOf(today));
+                lock.setInt(3, batchSize);
+                update.setString(1, Situacao.ATRASADA.name());
+                return OptionalLong.of(updateInBatches(connection, lock, update, 2));
+            } finally {
+                queryBoolean(connection, ADVISORY_UNLOCK_SQL, lockKey);
+            }
+        });
+    }
+
+    /**
+     * Deletes one bill with a single statement, without loading it first; with {@code soft} it is only stamped as
+     * deleted. Must run inside the caller's transaction, which is also responsible for the monthly totals.
+     *
+     * @return the id, payment date and value of the deleted bill, or empty if there was no such bill
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<Conta> deleteById(Long id, boolean soft) {
+        List<Conta> deleted = jdbcTemplate.query(soft ? SOFT_DELETE_BY_ID_SQL : DELETE_BY_ID_SQL, ContaBatchRepository::deletedRow, id);
+        return deleted.stream().findFirst();
+    }
+
+    /**
+     * Deletes up to {@code limit} bills matching {@code filter}, or stamps them as deleted with {@code soft}, without
+     * loading them, and takes the paid ones out of the monthly totals. Runs in its own transaction unless the caller
+     * has one, so a bulk delete made of chunks only holds row locks for one chunk at a time.
+     *
+     * @return the ids of the deleted bills; empty means no matching bill is left, while fewer than {@code limit} does
+     *         not, as rows updated concurrently fail the recheck of {@code FOR UPDATE} and drop out of the chunk
+     */
+    @Transactional
+    public List<Long> deleteChunk(ContaDeleteFilter filter, int limit, boolean soft) {
+        Date startDate = Date.valueOf(filter.getStartDate());
+        Date endDate = Date.valueOf(filter.getEndDate());
+        List<Object> parameters = new ArrayList<>(List.of(startDate, endDate));
+        List<String> conditions = new ArrayList<>(List.of(Conta.NOT_DELETED, "data_vencimento BETWEEN ? AND ?"));
+        if (filter.getSituacao() != null) {
+            conditions.add("situacao = ?");
+            parameters.add(filter.getSituacao().name());
+        }
+        if (filter.getDescription() != null) {
+            conditions.add("descricao = ?");
+            parameters.add(filter.getDescription());
+        }
+        parameters.add(limit);
+
+        List<Long> ids = jdbcTemplate.queryForList(String.format(LOCK_CHUNK_SQL, String.join(" AND ", conditions)), Long.class, parameters.toArray());
+        if (ids.isEmpty())
+            return ids;
+
+        List<Conta> deleted = jdbcTemplate.query(soft ? SOFT_DELETE_BY_IDS_SQL : DELETE_BY_IDS_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+            ps.setDate(2, startDate);
+            ps.setDate(3, endDate);
+        }, ContaBatchRepository::deletedRow);
+        addPaidTotals(deleted, true);
+        return deleted.stream().map(Conta::getId).toList();
+    }
+
+    /**
+     * Physically removes the bills soft-deleted before {@code deletedBefore}, {@code batchSize} rows at a time, each
+     * batch committed on its own (unless the caller has a transaction) so row locks are held briefly. Rows locked by
+     * other sessions are left for the next run. Their paid amounts already left the monthly totals when they were
+     * soft-deleted. Holds the session advisory lock {@code lockKey} like {@link #markOverdue}.
+     *
+     * @return the number of rows removed, or empty if another session holds the lock
+     */
+    public OptionalLong purgeDeleted(Instant deletedBefore, int batchSize, long lockKey) {
+        return jdbcTemplate.execute((ConnectionCallback<OptionalLong>) connection -> {
+            if (!queryBoolean(connection, TRY_ADVISORY_LOCK_SQL, lockKey))
+                return OptionalLong.empty();
+            try (PreparedStatement lock = connection.prepareStatement(LOCK_PURGE_CHUNK_SQL);
+                 PreparedStatement delete = connection.prepareStatement(PURGE_BY_IDS_SQL)) {
+                lock.setTimestamp(1, Timestamp.from(deletedBefore));
+                lock.setInt(2, batchSize);
+                return OptionalLong.of(updateInBatches(connection, lock, delete, 1));
+            } finally {
+                queryBoolean(connection, ADVISORY_UNLOCK_SQL, lockKey);
+            }
+        });
+    }
+
+    /**
+     * Streams every bill due in {@code [from, to]} (either bound may be null) to {@code sink}, ordered by due date
+     * and id, through a forward-only server-side cursor. Postgres only honours the fetch size with autocommit off,
+     * so this must run inside the caller's (read-only) transaction.
+     *
+     * @return the number of rows streamed
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long streamAll(LocalDate from, LocalDate to, Consumer<Conta> sink) {
+        StringBuilder sql = new StringBuilder(EXPORT_SQL);
+        List<LocalDate> parameters = new ArrayList<>(2);
+        if (from != null) {
+            sql.append(" AND data_vencimento >= ?");
+            parameters.add(from);
+        }
+        if (to != null) {
+            sql.append(" AND data_vencimento <= ?");
+            parameters.add(to);
+        }
+        sql.append(" ORDER BY data_vencimento, id");
+
+        long[] streamed = {0};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(EXPORT_FETCH_SIZE);
+            for (int i = 0; i < parameters.size(); i++)
+                ps.setDate(i + 1, Date.valueOf(parameters.get(i)));
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            Date dataPagamento = rs.getDate("data_pagamento");
+            sink.accept(Conta.builder()
+                    .id(rs.getLong("id"))
+                    .dataVencimento(rs.getDate("data_vencimento").toLocalDate())
+                    .dataPagamento(dataPagamento != null ? dataPagamento.toLocalDate() : null)
+                    .valor(rs.getBigDecimal("valor"))
+                    .descricao(rs.getString("descricao"))
+                    .situacao(Situacao.valueOf(rs.getString("situacao")))
+                    .version(rs.getLong("version"))
+                    .build());
+            streamed[0]++;
+        });
+        return streamed[0];
+    }
+
+    /**
+     * Counts and sums the bills due in {@code [from, to]} (open-ended when a bound is null) per group with one
+     * GROUP BY, ordered by key.
+     */
+    public List<ContaAggregate> aggregate(ContaAggregateGroup group, LocalDate from, LocalDate to) {
+        String key = switch (group) {
+            case DUE_MONTH -> "to_char(data_vencimento, 'YYYY-MM')";
+            case PAYMENT_MONTH -> "to_char(data_pagamento, 'YYYY-MM')";
+            case SITUACAO -> "situacao";
+            case DESCRIPTION -> "descricao";
+        };
+        List<String> conditions = new ArrayList<>(4);
+        List<Object> parameters = new ArrayList<>(2);
+        conditions.add(Conta.NOT_DELETED);
+        if (group == ContaAggregateGroup.PAYMENT_MONTH)
+            conditions.add("data_pagamento IS NOT NULL");
+        if (from != null) {
+            conditions.add("data_vencimento >= ?");
+            parameters.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            conditions.add("data_vencimento <= ?");
+            parameters.add(Date.valueOf(to));
+        }
+        return jdbcTemplate.query(String.format(AGGREGATE_SQL, key, String.join(" AND ", conditions)),
+                (rs, rowNum) -> new ContaAggregate(rs.getString("key"), rs.getLong("count"), rs.getBigDecimal("total")),
+                parameters.toArray());
+    }
+
+    /**
+     * Count and value per situacao and per aging bucket of the unpaid bills, all from a single scan of
+     * {@code conta} with one FILTER clause per figure. Aging goes by the dates, not by the stored situacao, so
+     * bills the overdue sweep has not flipped yet are counted too.
+     */
+    public ContaSummary summarize(LocalDate today) {
+        return jdbcTemplate.queryForObject(SUMMARY_SQL, (rs, rowNum) -> {
+            List<ContaAggregate> bySituacao = new ArrayList<>();
+            for (Situacao situacao : Situacao.values())
+                bySituacao.add(new ContaAggregate(situacao.name(), rs.getLong("count_" + situacao.ordinal()), rs.getBigDecimal("total_" + situacao.ordinal())));
+            List<ContaAggregate> overdueAging = new ArrayList<>();
+            for (AgingBucket bucket : AgingBucket.values())
+                overdueAging.add(new ContaAggregate(bucket.getLabel(), rs.getLong("aging_count_" + bucket.ordinal()), rs.getBigDecimal("aging_total_" + bucket.ordinal())));
+            return new ContaSummary(today, bySituacao, overdueAging);
+        }, Date.valueOf(today));
+    }
+
+    /**
+     * Creates the missing yearly partitions of {@code conta} up to the year of {@code through}, and one for every
+     * year with rows parked in the default partition.
+     *
+     * @return the number of partitions created
+     */
+    @Transactional
+    public int ensurePartitions(LocalDate through) {
+        return jdbcTemplate.queryForObject(ENSURE_PARTITIONS_SQL, Integer.class, Date.valueOf(through));
+    }
+
+    /**
+     * Detaches the yearly partitions entirely due before {@code before} into the {@code conta_archive} schema, and
+     * takes their paid bills out of the monthly totals and their ids out of conta_id in the same transaction.
+     *
+     * @return the names of the archived tables
+     */
+    @Transactional
+    public List<String> archivePartitions(LocalDate before) {
+        return jdbcTemplate.queryForList(ARCHIVE_PARTITIONS_SQL, String.class, Date.valueOf(before));
+    }
+
+    private static String summarySql() {
+        List<String> columns = new ArrayList<>();
+        for (Situacao situacao : Situacao.values())
+            columns.add(filtered("situacao = '" + situacao.name() + "'", "count_" + situacao.ordinal(), "total_" + situacao.ordinal()));
+        for (AgingBucket bucket : AgingBucket.values()) {
+            String overdue = "data_pagamento IS NULL AND today - data_vencimento " + (bucket.getMaxDaysOverdue() != null
+                    ? "BETWEEN " + bucket.getMinDaysOverdue() + " AND " + bucket.getMaxDaysOverdue()
+                    : ">= " + bucket.getMinDaysOverdue());
+            columns.add(filtered(overdue, "aging_count_" + bucket.ordinal(), "aging_total_" + bucket.ordinal()));
+        }
+        return "SELECT " + String.join(",\n       ", columns) + "\nFROM conta CROSS JOIN (SELECT CAST(? AS DATE) AS today) AS reference\nWHERE " + Conta.NOT_DELETED;
+    }
+
+    private static String filtered(String condition, String countAlias, String totalAlias) {
+        return "count(*) FILTER (WHERE " + condition + ") AS " + countAlias +
+                ", coalesce(sum(valor) FILTER (WHERE " + condition + "), 0.00) AS " + totalAlias;
+    }
+
+    private static Conta deletedRow(ResultSet rs, int rowNum) throws SQLException {
+        Date dataPagamento = rs.getDate("data_pagamento");
+        return Conta.builder()
+                .id(rs.getLong("id"))
+                .dataPagamento(dataPagamento != null ? dataPagamento.toLocalDate() : null)
+                .valor(rs.getBigDecimal("valor"))
+                .build();
+    }
+
+    /**
+     * Runs {@code lock} (a SELECT of ids FOR UPDATE SKIP LOCKED) and then {@code write} with those ids bound as
+     * parameter {@code idsParameter}, until {@code lock} finds no more ids. A short batch does not end the loop,
+     * since rows skipped because another session holds them make batches short while matching rows remain.
+     * Without a caller transaction each batch is a transaction of its own, so its lock and write commit together.
+     *
+     * @return the number of rows written
+     */
+    private static long updateInBatches(Connection connection, PreparedStatement lock, PreparedStatement write, int idsParameter) throws SQLException {
+        boolean ownTransactions = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            long total = 0;
+            while (true) {
+                List<Long> ids = new ArrayList<>();
+                try (ResultSet rs = lock.executeQuery()) {
+                    while (rs.next())
+                        ids.add(rs.getLong(1));
+                }
+                if (ids.isEmpty())
+                    break;
+                write.setArray(idsParameter, connection.createArrayOf("bigint", ids.toArray()));
+                total += write.executeUpdate();
+                if (ownTransactions)
+                    connection.commit();
+            }
+            if (ownTransactions)
+                connection.commit();
+            return total;
+        } catch (SQLException | RuntimeException e) {
+            if (ownTransactions)
+                connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(ownTransactions);
+        }
+    }
+
+    private static boolean queryBoolean(Connection connection, String sql, long parameter) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, parameter);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        Set<Long> existing = new HashSet<>();
+        if (ids.isEmpty())
+            return existing;
+        jdbcTemplate.query(EXISTING_IDS_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())),
+                (RowCallbackHandler) rs -> existing.add(rs.getLong(1)));
+        return existing;
+    }
+
+    /**
+     * Adds the paid bills of {@code contas} to the monthly totals, one upsert per month, or takes them out when
+     * {@code subtract} is set.
+     */
+    private void addPaidTotals(List<Conta> contas, boolean subtract) {
+        Map<LocalDate, BigDecimal> totals = new HashMap<>();
+        Map<LocalDate, Long> counts = new HashMap<>();
+        for (Conta conta : contas) {
+            if (conta.getDataPagamento() == null)
+                continue;
+            LocalDate month = conta.getDataPagamento().withDayOfMonth(1);
+            totals.merge(month, conta.getValor(), BigDecimal::add);
+            counts.merge(month, 1L, Long::sum);
+        }
+        totals.forEach((month, total) -> contaMonthlyPaidTotalRepository.addPaidAmount(month,
+                subtract ? total.negate() : total, subtract ? -counts.get(month) : counts.get(month)));
+    }
+
+    /** Overwrites any id already set, so a batch never collides with an existing bill in conta_id (see V13). */
+    private void assignIds(List<Conta> contas) {
+        int blocks = (contas.size() + Conta.ID_ALLOCATION_SIZE - 1) / Conta.ID_ALLOCATION_SIZE;
+        List<Long> hiValues = jdbcTemplate.queryForList(NEXT_ID_BLOCKS_SQL, Long.class, blocks);
+
+        int index = 0;
+        for (Long hiValue : hiValues) {
+            long nextId = hiValue - Conta.ID_ALLOCATION_SIZE + 1;
+            for (int i = 0; i < Conta.ID_ALLOCATION_SIZE && index < contas.size(); i++) {
+                contas.get(index++).setId(nextId++);
+            }
+        }
+    }
+}
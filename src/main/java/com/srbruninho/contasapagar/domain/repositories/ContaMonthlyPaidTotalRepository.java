@@ -0,0 +1,57 @@
+package com.srbruninho.contasapagar.domain.repositories;
+
+import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.model.ContaMonthlyPaidTotal;
+import com.srbruninho.contasapagar.domain.repositories.projection.TotalValuePaidPerPeriodProjection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Repository
+public interface ContaMonthlyPaidTotalRepository extends JpaRepository<ContaMonthlyPaidTotal, LocalDate> {
+
+    /**
+     * Adds {@code amount} and {@code count} (both may be negative) to the month of {@code paymentDate}.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO conta_monthly_paid_total AS t (period, total_value, bill_count)\n" +
+            "VALUES (date_trunc('month', CAST(:paymentDate AS date)), :amount, :count)\n" +
+            "ON CONFLICT (period) DO UPDATE SET total_value = t.total_value + EXCLUDED.total_value, bill_count = t.bill_count + EXCLUDED.bill_count", nativeQuery = true)
+    void addPaidAmount(@Param("paymentDate") LocalDate paymentDate, @Param("amount") BigDecimal amount, @Param("count") long count);
+
+    /**
+     * Totals of the months whose first day lies in {@code [startDate, endDate]}, in chronological order.
+     */
+    @Query("SELECT t.totalValue AS totalValue, t.period AS period FROM ContaMonthlyPaidTotal t\n" +
+            "WHERE t.period BETWEEN :startDate AND :endDate AND t.billCount > 0\n" +
+            "ORDER BY t.period")
+    Page<TotalValuePaidPerPeriodProjection> findTotalValuePaidPerPeriod(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, Pageable pageable);
+
+    /**
+     * Blocks incremental updates until the surrounding transaction ends, so a rebuild sees a stable table.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE conta_monthly_paid_total IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query(value = "DELETE FROM conta_monthly_paid_total WHERE period BETWEEN :startMonth AND :endMonth", nativeQuery = true)
+    int deleteMonths(@Param("startMonth") LocalDate startMonth, @Param("endMonth") LocalDate endMonth);
+
+    /**
+     * Recomputes the months between {@code startMonth} and {@code endMonth} (first days of month) from {@code conta}.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO conta_monthly_paid_total (period, total_value, bill_count)\n" +
+            "SELECT CAST(date_trunc('month', data_pagamento) AS date), SUM(valor), COUNT(*) FROM conta\n" +
+            "WHERE data_pagamento >= :startMonth AND data_pagamento < CAST(:endMonth AS date) + INTERVAL '1 month' AND " + Conta.NOT_DELETED + "\n" +
+            "GROUP BY CAST(date_trunc('month', data_pagamento) AS date)", nativeQuery = true)
+    int insertMonthsFromConta(@Param("startMonth") LocalDate startMonth, @Param("endMonth") LocalDate endMonth);
+}
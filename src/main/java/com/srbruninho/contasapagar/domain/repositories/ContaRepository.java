@@ -1,22 +1,124 @@
 package com.srbruninho.contasapagar.domain.repositories;
 
+import com.srbruninho.contasapagar.api.dto.ContaDTO;
 import com.srbruninho.contasapagar.domain.model.Conta;
 import com.srbruninho.contasapagar.domain.repositories.projection.TotalValuePaidPerPeriodProjection;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ContaRepository extends JpaRepository<Conta, Long> {
 
-    Page<Conta> findByDataVencimentoBetweenAndDescricaoAndDataPagamentoIsNull(LocalDate startDate, LocalDate endDate, String description, Pageable pageable);
+    String TOTAL_VALUE_PAID_PER_PERIOD_QUERY = "SELECT SUM(valor) AS totalValue, CAST(date_trunc('month', data_pagamento) AS date) AS period FROM conta\n" +
+            "WHERE data_pagamento BETWEEN :startDate AND :endDate AND " + Conta.NOT_DELETED + "\n" +
+            "GROUP BY CAST(date_trunc('month', data_pagamento) AS date)\n" +
+            "ORDER BY period";
 
-    @Query(value = "SELECT SUM(valor) AS totalValue,to_char(data_pagamento,'MM/yyyy') AS period FROM conta\n" +
-            "WHERE data_pagamento IS NOT NULL\n" +
-            "GROUP BY to_char(data_pagamento,'MM/yyyy')" ,nativeQuery = true)
-    Page<TotalValuePaidPerPeriodProjection> getTotalValuePaidPerPeriod(LocalDate startDate, LocalDate endDate, Pageable pageable);
+    /*
+     * Read endpoints select straight into ContaDTO with a constructor expression: no managed entities, no
+     * dirty-checking snapshots and no copy in ContaConverter.
+     */
+    String SELECT_CONTA_DTO = "SELECT new com.srbruninho.contasapagar.api.dto.ContaDTO(c.id, c.dataVencimento, c.dataPagamento, c.valor, c.descricao, c.situacao, c.version) FROM Conta c";
+
+    @Query(value = SELECT_CONTA_DTO, countQuery = "SELECT count(c) FROM Conta c")
+    Page<ContaDTO> findAllDTOs(Pageable pageable);
+
+    @Query(SELECT_CONTA_DTO + " WHERE c.id = :id")
+    Optional<ContaDTO> findDTOById(@Param("id") Long id);
+
+    @Query(value = SELECT_CONTA_DTO + " WHERE c.descricao = :description AND c.dataPagamento IS NULL AND c.dataVencimento BETWEEN :startDate AND :endDate",
+            countQuery = "SELECT count(c) FROM Conta c WHERE c.descricao = :description AND c.dataPagamento IS NULL AND c.dataVencimento BETWEEN :startDate AND :endDate")
+    Page<ContaDTO> findUnpaidByDescription(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("description") String description, Pageable pageable);
+
+    /**
+     * Unpaid bills whose description matches {@code pattern} case-insensitively. The pattern is an ILIKE pattern
+     * escaped with backslash, e.g. {@code %luz%}.
+     */
+    @Query(value = SELECT_CONTA_DTO + " WHERE c.descricao ILIKE :pattern ESCAPE '\\' AND c.dataPagamento IS NULL AND c.dataVencimento BETWEEN :startDate AND :endDate",
+            countQuery = "SELECT count(c) FROM Conta c WHERE c.descricao ILIKE :pattern ESCAPE '\\' AND c.dataPagamento IS NULL AND c.dataVencimento BETWEEN :startDate AND :endDate")
+    Page<ContaDTO> findUnpaidByDescriptionLike(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * Loads the bill for a read-modify-write, holding its row lock (SELECT ... FOR UPDATE) until the transaction
+     * ends, so concurrent patches apply one after the other on fresh state.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Conta c WHERE c.id = :id")
+    Optional<Conta> findByIdForUpdate(@Param("id") Long id);
+
+    /*
+     * Keyset pagination: pages are ordered by (dataVencimento, id) descending and the next page starts strictly
+     * after the last row of the previous one. The row-value comparison lets Postgres seek straight into
+     * idx_conta_data_vencimento_id, so cost does not grow with depth. The redundant dataVencimento bound is what
+     * Postgres prunes partitions on; it cannot prune on the row comparison. Only pageable.getPageSize() is used.
+     * The rows are only converted to DTOs, so they are loaded read-only, without dirty-checking snapshots.
+     */
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT c FROM Conta c ORDER BY c.dataVencimento DESC, c.id DESC")
+    List<Conta> findFirstKeysetPage(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT c FROM Conta c WHERE c.dataVencimento <= :dataVencimento AND (c.dataVencimento, c.id) < (:dataVencimento, :id) ORDER BY c.dataVencimento DESC, c.id DESC")
+    List<Conta> findKeysetPageAfter(@Param("dataVencimento") LocalDate dataVencimento, @Param("id") Long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT c FROM Conta c WHERE c.descricao = :description AND c.dataPagamento IS NULL AND c.dataVencimento BETWEEN :startDate AND :endDate\n" +
+            "ORDER BY c.dataVencimento DESC, c.id DESC")
+    List<Conta> findFirstUnpaidKeysetPage(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("description") String description, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT c FROM Conta c WHERE c.descricao = :description AND c.dataPagamento IS NULL AND c.dataVencimento BETWEEN :startDate AND :endDate\n" +
+            "AND c.dataVencimento <= :dataVencimento AND (c.dataVencimento, c.id) < (:dataVencimento, :id) ORDER BY c.dataVencimento DESC, c.id DESC")
+    List<Conta> findUnpaidKeysetPageAfter(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("description") String description,
+                                          @Param("dataVencimento") LocalDate dataVencimento, @Param("id") Long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT c FROM Conta c WHERE c.descricao ILIKE :pattern ESCAPE '\\' AND c.dataPagamento IS NULL AND c.dataVencimento BETWEEN :startDate AND :endDate\n" +
+            "ORDER BY c.dataVencimento DESC, c.id DESC")
+    List<Conta> findFirstUnpaidLikeKeysetPage(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("pattern") String pattern, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT c FROM Conta c WHERE c.descricao ILIKE :pattern ESCAPE '\\' AND c.dataPagamento IS NULL AND c.dataVencimento BETWEEN :startDate AND :endDate\n" +
+            "AND c.dataVencimento <= :dataVencimento AND (c.dataVencimento, c.id) < (:dataVencimento, :id) ORDER BY c.dataVencimento DESC, c.id DESC")
+    List<Conta> findUnpaidLikeKeysetPageAfter(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("pattern") String pattern,
+                                              @Param("dataVencimento") LocalDate dataVencimento, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Current value of the table-level change watermark, bumped by a trigger on every statement that changes
+     * {@code conta}. Read it before the data it describes.
+     */
+    @Query(value = "SELECT version FROM conta_change_watermark WHERE id = 1", nativeQuery = true)
+    long findChangeWatermark();
+
+    /**
+     * Bumps the change watermark for writes that alter what the read endpoints return without touching {@code conta}.
+     */
+    @Modifying
+    @Query(value = "UPDATE conta_change_watermark SET version = version + 1 WHERE id = 1", nativeQuery = true)
+    void bumpChangeWatermark();
+
+    /**
+     * Paid totals per month computed from {@code conta}, restricted to payments inside the exact day range.
+     * The range predicate is served by {@code idx_conta_paid_data_pagamento}.
+     */
+    @Query(value = TOTAL_VALUE_PAID_PER_PERIOD_QUERY,
+            countQuery = "SELECT COUNT(DISTINCT date_trunc('month', data_pagamento)) FROM conta\n" +
+                    "WHERE data_pagamento BETWEEN :startDate AND :endDate AND " + Conta.NOT_DELETED,
+            nativeQuery = true)
+    Page<TotalValuePaidPerPeriodProjection> getTotalValuePaidPerPeriod(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, Pageable pageable);
 }
@@ -1,8 +1,14 @@
 package com.srbruninho.contasapagar.domain.repositories.projection;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+
 import java.math.BigDecimal;
+import java.time.LocalDate;
 
 public interface TotalValuePaidPerPeriodProjection {
     BigDecimal getTotalValue();
-    String getPeriod();
+
+    /** First day of the month, rendered as yyyy-MM so periods sort chronologically. */
+    @JsonFormat(pattern = "yyyy-MM")
+    LocalDate getPeriod();
 }
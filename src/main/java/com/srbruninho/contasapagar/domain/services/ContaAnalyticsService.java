@@ -0,0 +1,235 @@
+package com.srbruninho.contasapagar.domain.services;
+
+import com.srbruninho.contasapagar.domain.analytics.ContaColumns;
+import com.srbruninho.contasapagar.domain.model.ContaAggregate;
+import com.srbruninho.contasapagar.domain.model.ContaAggregateGroup;
+import com.srbruninho.contasapagar.domain.model.ContaChangedEvent;
+import com.srbruninho.contasapagar.domain.model.ContasDeletedEvent;
+import com.srbruninho.contasapagar.domain.model.ContasPaidEvent;
+import com.srbruninho.contasapagar.domain.repositories.ContaBatchRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Aggregates of {@code conta} per month, situacao or description. With {@code contasapagar.analytics.enabled} they
+ * are answered from an in-memory {@link ContaColumns} copy instead of a GROUP BY over the table.
+ *
+ * <p>The copy is loaded at startup and follows the writes of ContaService once they commit. Set-based writes made
+ * elsewhere (CSV imports, bulk creation, the overdue sweep, partition archiving) show up at the next refresh, which
+ * reloads the copy whenever the change watermark has moved since the last load. Until the first load completes,
+ * aggregates come from the database.
+ */
+@Service
+public class ContaAnalyticsService {
+
+    private static final Logger LOGGER = Logger.getLogger(ContaAnalyticsService.class.getName());
+
+    @Autowired
+    private ContaService contaService;
+
+    @Autowired
+    private ContaBatchRepository contaBatchRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${contasapagar.analytics.enabled:false}")
+    private boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Null until the first load. */
+    private ContaColumns columns;
+
+    /** Changes committed while a reload streams the table, replayed onto the new copy before it is swapped in. */
+    private List<Consumer<ContaColumns>> pendingChanges;
+
+    private long loadedWatermark = Long.MIN_VALUE;
+
+    @PostConstruct
+    void registerMeters() {
+        Gauge.builder("contasapagar.analytics.rows", this, service -> service.read(ContaColumns::size))
+                .description("Bills held by the in-memory analytics copy")
+                .register(meterRegistry);
+        Gauge.builder("contasapagar.analytics.memory", this, service -> service.read(ContaColumns::footprintBytes))
+                .description("Approximate heap used by the in-memory analytics copy")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * State and memory footprint of the in-memory copy, for the analytics actuator endpoint.
+     */
+    public Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("enabled", enabled);
+        lock.readLock().lock();
+        try {
+            description.put("loaded", columns != null);
+            if (columns != null) {
+                long bytes = columns.footprintBytes();
+                description.put("rows", columns.size());
+                description.put("bytes", bytes);
+                description.put("bytesPerMillionRows", columns.size() > 0 ? bytes * 1_000_000 / columns.size() : 0);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return description;
+    }
+
+    /**
+     * Counts and sums the bills due in {@code [from, to]} (open-ended when a bound is null) per group.
+     *
+     * @return one entry per non-empty group, ordered by key
+     */
+    public List<ContaAggregate> aggregate(ContaAggregateGroup group, LocalDate from, LocalDate to) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<ContaAggregate> aggregates = null;
+        lock.readLock().lock();
+        try {
+            if (columns != null)
+                aggregates = columns.aggregate(group, from, to, ForkJoinPool.commonPool());
+        } finally {
+            lock.readLock().unlock();
+        }
+        String source = aggregates != null ? "memory" : "database";
+        if (aggregates == null)
+            aggregates = contaBatchRepository.aggregate(group, from, to);
+        sample.stop(meterRegistry.timer("contasapagar.analytics.aggregate", "group", group.name(), "source", source));
+        return aggregates;
+    }
+
+    /**
+     * Reloads the in-memory copy when the table changed since the last load. Runs at startup and then every
+     * {@code contasapagar.analytics.refresh-interval}.
+     *
+     * @return true when the copy was reloaded
+     */
+    @Scheduled(fixedDelayString = "${contasapagar.analytics.refresh-interval:PT10M}")
+    public boolean refresh() {
+        if (!enabled)
+            return false;
+        synchronized (this) {
+            if (contaService.getChangeWatermark() == loadedWatermark)
+                return false;
+            load();
+            return true;
+        }
+    }
+
+    /**
+     * Streams the whole table into a new copy and swaps it in. Reads keep using the previous copy meanwhile.
+     *
+     * @return the number of bills loaded, 0 when the in-memory copy is disabled
+     */
+    public int reload() {
+        return enabled ? load() : 0;
+    }
+
+    private synchronized int load() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        // Read before the rows, so a write racing with the load moves it again and triggers the next refresh.
+        long watermark = contaService.getChangeWatermark();
+        ContaColumns fresh;
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+            fresh = new ContaColumns(columns != null ? columns.size() : 1024);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            contaService.exportAll(null, null, fresh::upsert);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingChanges.forEach(change -> change.accept(fresh));
+            pendingChanges = null;
+            columns = fresh;
+            loadedWatermark = watermark;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long elapsed = sample.stop(meterRegistry.timer("contasapagar.analytics.load"));
+        long bytes = fresh.footprintBytes();
+        LOGGER.log(Level.INFO, "#4f9c2d6e - Loaded {0} bills into the analytics copy in {1} ms, {2} MB ({3} MB per million bills)",
+                new Object[]{fresh.size(), elapsed / 1_000_000, bytes >> 20, fresh.size() > 0 ? (bytes * 1_000_000 / fresh.size()) >> 20 : 0});
+        return fresh.size();
+    }
+
+    @TransactionalEventListener
+    public void onContaChanged(ContaChangedEvent event) {
+        if (event.getConta() != null)
+            apply(copy -> copy.upsert(event.getConta()));
+        else
+            apply(copy -> copy.remove(event.getId()));
+    }
+
+    @TransactionalEventListener
+    public void onContasPaid(ContasPaidEvent event) {
+        apply(copy -> copy.markPaid(event.getIds(), event.getPaymentDate()));
+    }
+
+    /**
+     * Bulk deletes commit chunk by chunk outside any caller transaction, so the event is published with none active.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContasDeleted(ContasDeletedEvent event) {
+        apply(copy -> event.getIds().forEach(copy::remove));
+    }
+
+    private void apply(Consumer<ContaColumns> change) {
+        if (!enabled)
+            return;
+        lock.writeLock().lock();
+        try {
+            if (columns != null)
+                change.accept(columns);
+            if (pendingChanges != null)
+                pendingChanges.add(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private double read(ToLongFunction<ContaColumns> metric) {
+        lock.readLock().lock();
+        try {
+            return columns != null ? metric.applyAsLong(columns) : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.srbruninho.contasapagar.domain.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.srbruninho.contasapagar.domain.model.BulkCreateItem;
+import com.srbruninho.contasapagar.domain.model.BulkCreateResult;
+import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.repositories.ContaBatchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Creates bills from a JSON array of {@link Conta} or from an NDJSON stream (one object per line).
+ * <p>
+ * The body is read one element at a time and the outcome of each element is handed on as soon as its batch is
+ * written, so memory use depends on the batch size and not on the size of the payload. Every element is checked
+ * against the Bean Validation constraints of {@link Conta}; valid ones are written in batches of at most
+ * {@code contasapagar.bulk.batch-size}, each batch in its own transaction. Ids, versions and situations sent by
+ * the client are ignored.
+ * <p>
+ * An element that cannot be bound to a {@link Conta} (a malformed date, a string where a number is expected) is
+ * rejected and reading carries on with the next one. Malformed JSON ends the read: the element being read is
+ * rejected and nothing after it is created. A database error also ends the read: the bills of the failing batch
+ * are rejected, the batches written before it stay in place, and the result tells where the failure happened.
+ */
+@Component
+public class ContaBulkCreator {
+
+    private static final Logger LOGGER = Logger.getLogger(ContaBulkCreator.class.getName());
+
+    static final int DEFAULT_BATCH_SIZE = 1000;
+
+    static final String NOT_WRITTEN = "Database error, bill not created";
+
+    @Autowired
+    private ContaBatchRepository contaBatchRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${contasapagar.bulk.batch-size:" + DEFAULT_BATCH_SIZE + "}")
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Creates every valid element of {@code inputStream}, a JSON array or a sequence of JSON objects.
+     *
+     * @param sink receives one item per element read, in the order of the body, with the id of the created bill or
+     *             the reasons it was rejected; items are handed on once the batch they belong to is written
+     * @return how many elements were created and rejected, and where a database error stopped the read
+     */
+    @CacheEvict(cacheNames = ContaService.CONTA_CACHE, allEntries = true)
+    public BulkCreateResult createAll(InputStream inputStream, Consumer<BulkCreateItem> sink) throws IOException {
+        long startedAt = System.nanoTime();
+        Batch batch = new Batch(batchSize, sink);
+        Integer failedAt = null;
+
+        try (MappingIterator<Conta> elements = objectMapper.readerFor(Conta.class).readValues(inputStream)) {
+            while (true) {
+                // Rejected elements take a slot too, so the items held back never exceed the batch size.
+                if (batch.isFull() && (failedAt = flush(batch)) != null)
+                    break;
+
+                int index = batch.nextIndex();
+                Conta conta;
+                try {
+                    if (!elements.hasNextValue())
+                        break;
+                    conta = elements.nextValue();
+                } catch (JsonMappingException e) {
+                    // The iterator skips the rest of the element, so the next one can still be read.
+                    batch.reject(index, List.of(bindingError(e)));
+                    continue;
+                } catch (JsonProcessingException e) {
+                    batch.reject(index, List.of("Malformed JSON at line " + e.getLocation().getLineNr()
+                            + ", column " + e.getLocation().getColumnNr() + ": " + e.getOriginalMessage()));
+                    break;
+                }
+
+                List<String> errors = validate(conta);
+                if (errors.isEmpty())
+                    batch.add(prepare(conta));
+                else
+                    batch.reject(index, errors);
+            }
+        }
+        if (failedAt == null)
+            failedAt = flush(batch);
+
+        BulkCreateResult result = new BulkCreateResult(batch.created, batch.rejected, failedAt);
+        countRows("created", result.getCreated());
+        countRows("rejected", result.getRejected());
+        LOGGER.log(Level.INFO, "#e3a4176b - Bulk created {0} bills, rejected {1}, in {2} ms",
+                new Object[]{result.getCreated(), result.getRejected(), (System.nanoTime() - startedAt) / 1_000_000});
+        return result;
+    }
+
+    private List<String> validate(Conta conta) {
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<Conta> violation : validator.validate(conta))
+            errors.add(violation.getMessage());
+        if (conta.getValor() != null && conta.getValor().setScale(2, RoundingMode.HALF_UP).precision() > ContaCsvImporter.MAX_AMOUNT_PRECISION)
+            errors.add("Amount exceeds " + ContaCsvImporter.MAX_AMOUNT_PRECISION + " digits");
+        errors.sort(null);
+        return errors;
+    }
+
+    private static Conta prepare(Conta conta) {
+        conta.setId(null);
+        conta.setVersion(null);
+        conta.defineSituacao();
+        return conta;
+    }
+
+    /**
+     * Inserts the bills of the batch and hands on the items it holds, now that the bills have ids. When the insert
+     * fails, its bills are rejected instead.
+     *
+     * @return the index of the first bill of the batch if the insert failed, null otherwise
+     */
+    private Integer flush(Batch batch) {
+        Integer failedAt = null;
+        if (!batch.contas.isEmpty()) {
+            try {
+                contaBatchRepository.insertAll(batch.contas);
+                LOGGER.log(Level.FINE, "#7b2e90c4 - Flushed batch of {0} bills", batch.contas.size());
+            } catch (DataAccessException e) {
+                failedAt = batch.items.indexOf(null) + batch.firstIndex;
+                LOGGER.log(Level.SEVERE, "#5d09c2e7 - Bulk create stopped at element " + failedAt, e);
+            }
+        }
+        batch.emit(failedAt == null);
+        return failedAt;
+    }
+
+    private void countRows(String outcome, long rows) {
+        if (rows > 0)
+            meterRegistry.counter("contasapagar.bulk.rows", "outcome", outcome).increment(rows);
+    }
+
+    private static String bindingError(JsonMappingException e) {
+        String field = e.getPath().stream()
+                .map(JsonMappingException.Reference::getFieldName)
+                .filter(name -> name != null)
+                .reduce((first, second) -> second)
+                .orElse(null);
+        return field != null ? "Invalid value for " + field : "Element is not a JSON object";
+    }
+
+    /**
+     * Items of the elements read since the last flush, in the order of the body, and the valid bills among them
+     * waiting to be inserted. The item of a valid bill stays null until the bill is inserted.
+     */
+    private static final class Batch {
+
+        private final int capacity;
+        private final Consumer<BulkCreateItem> sink;
+        private final List<BulkCreateItem> items;
+        private List<Conta> contas;
+        private int firstIndex;
+        private long created;
+        private long rejected;
+
+        Batch(int capacity, Consumer<BulkCreateItem> sink) {
+            this.capacity = capacity;
+            this.sink = sink;
+            this.items = new ArrayList<>(capacity);
+            this.contas = new ArrayList<>(capacity);
+        }
+
+        int nextIndex() {
+            return firstIndex + items.size();
+        }
+
+        boolean isFull() {
+            return items.size() == capacity;
+        }
+
+        void add(Conta conta) {
+            items.add(null);
+            contas.add(conta);
+        }
+
+        void reject(int index, List<String> errors) {
+            items.add(BulkCreateItem.rejected(index, errors));
+        }
+
+        /**
+         * Hands on every item held, with the ids of the bills if they were inserted or a rejection if not.
+         */
+        void emit(boolean inserted) {
+            int bill = 0;
+            for (int i = 0; i < items.size(); i++) {
+                BulkCreateItem item = items.get(i);
+                if (item == null) {
+                    int index = firstIndex + i;
+                    item = inserted ? BulkCreateItem.created(index, contas.get(bill++).getId())
+                            : BulkCreateItem.rejected(index, List.of(NOT_WRITTEN));
+                }
+                if (item.isCreated())
+                    created++;
+                else
+                    rejected++;
+                sink.accept(item);
+            }
+            firstIndex += items.size();
+            items.clear();
+            // A new list rather than clear(), so the one handed to the repository is never reused.
+            contas = new ArrayList<>(capacity);
+        }
+    }
+}
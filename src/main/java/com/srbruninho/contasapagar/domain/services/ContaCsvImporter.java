@@ -0,0 +1,307 @@
+package com.srbruninho.contasapagar.domain.services;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.model.ImportProgress;
+import com.srbruninho.contasapagar.domain.model.ImportRejection;
+import com.srbruninho.contasapagar.domain.repositories.ContaBatchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Streams a CSV file in the 'Descrição,Valor,Vencimento,Pagamento' layout into the database.
+ * <p>
+ * The import runs as a three-stage pipeline: a reader thread groups raw records into chunks, the
+ * {@code csvParseExecutor} pool parses and validates chunks in parallel, and the calling thread
+ * writes the valid rows of each chunk in file order. At most {@link #maxChunksInFlight()} chunks exist
+ * at a time, so memory use depends on the chunk size only and not on the size of the file.
+ * Invalid rows are never persisted; they are reported with their line number and reason.
+ * <p>
+ * Rows are counted in {@code contasapagar.import.rows} (tagged {@code outcome=parsed|rejected|persisted}) and
+ * every chunk write is timed in {@code contasapagar.import.batch}.
+ */
+@Component
+public class ContaCsvImporter {
+
+    private static final Logger LOGGER = Logger.getLogger(ContaCsvImporter.class.getName());
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    static final int MAX_AMOUNT_PRECISION = 10;
+
+    private static final ParsedChunk END_OF_FILE = new ParsedChunk(List.of(), List.of());
+
+    private static final AtomicInteger READER_SEQUENCE = new AtomicInteger();
+
+    static final int DEFAULT_BATCH_SIZE = 1000;
+
+    @Autowired
+    private ContaBatchRepository contaBatchRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("csvParseExecutor")
+    private AsyncTaskExecutor csvParseExecutor;
+
+    @Value("${contasapagar.import.batch-size:" + DEFAULT_BATCH_SIZE + "}")
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    @Value("${contasapagar.import.parse-parallelism:0}")
+    private int parseParallelism;
+
+    /**
+     * Imports every row of the given stream and returns the number of persisted rows.
+     */
+    @CacheEvict(cacheNames = ContaService.CONTA_CACHE, allEntries = true)
+    public long importCsv(InputStream inputStream) throws IOException, CsvValidationException {
+        return importCsv(inputStream, new ImportProgress());
+    }
+
+    /**
+     * Same as {@link #importCsv(InputStream)}, reporting row counts to {@code progress} as the file is consumed.
+     */
+    @CacheEvict(cacheNames = ContaService.CONTA_CACHE, allEntries = true)
+    public long importCsv(InputStream inputStream, ImportProgress progress) throws IOException, CsvValidationException {
+        return importCsv(inputStream, progress, rejection ->
+                LOGGER.log(Level.WARNING, "#c12cb043 - Line {0} rejected: {1}", new Object[]{rejection.getLine(), rejection.getReason()}));
+    }
+
+    /**
+     * Same as {@link #importCsv(InputStream, ImportProgress)}, handing every rejected row to {@code rejections}.
+     * The consumer is only called from the calling thread, in file order.
+     */
+    @CacheEvict(cacheNames = ContaService.CONTA_CACHE, allEntries = true)
+    public long importCsv(InputStream inputStream, ImportProgress progress, Consumer<ImportRejection> rejections) throws IOException, CsvValidationException {
+        long startedAt = System.nanoTime();
+        long persisted = 0;
+
+        BlockingQueue<Future<ParsedChunk>> pending = new ArrayBlockingQueue<>(maxChunksInFlight());
+        AtomicReference<Exception> readerFailure = new AtomicReference<>();
+        Thread reader = new Thread(() -> read(inputStream, pending, progress, readerFailure),
+                "csv-reader-" + READER_SEQUENCE.incrementAndGet());
+        reader.start();
+
+        try {
+            while (true) {
+                ParsedChunk chunk = pending.take().get();
+                if (chunk == END_OF_FILE)
+                    break;
+
+                chunk.rejections().forEach(rejections);
+                chunk.rejections().forEach(rejection -> progress.rowRejected());
+                countRows("parsed", chunk.contas().size() + chunk.rejections().size());
+                countRows("rejected", chunk.rejections().size());
+                persisted += flush(chunk.contas(), progress);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("CSV import interrupted");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to parse CSV chunk", e.getCause());
+        } finally {
+            reader.interrupt();
+            pending.forEach(future -> future.cancel(true));
+            joinQuietly(reader);
+        }
+
+        Exception failure = readerFailure.get();
+        if (failure instanceof IOException ioException)
+            throw ioException;
+        if (failure instanceof CsvValidationException csvValidationException)
+            throw csvValidationException;
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+        LOGGER.log(Level.INFO, "#96b85d24 - Imported {0} rows in {1} ms ({2} rows/s)",
+                new Object[]{persisted, elapsedMillis, persisted * 1000 / elapsedMillis});
+        return persisted;
+    }
+
+    private void read(InputStream inputStream, BlockingQueue<Future<ParsedChunk>> pending, ImportProgress progress, AtomicReference<Exception> failure) {
+        try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+             CSVReader csvReader = new CSVReader(bufferedReader)) {
+
+            RawChunk chunk = new RawChunk(batchSize);
+            long line = csvReader.getLinesRead() + 1;
+            String[] nextRecord;
+            while ((nextRecord = csvReader.readNext()) != null) {
+                if (!isBlank(nextRecord)) {
+                    progress.rowRead();
+                    chunk.add(line, nextRecord);
+                    if (chunk.size() == batchSize) {
+                        submit(chunk, pending);
+                        chunk = new RawChunk(batchSize);
+                    }
+                }
+                line = csvReader.getLinesRead() + 1;
+            }
+            if (chunk.size() > 0)
+                submit(chunk, pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (IOException | CsvValidationException | RuntimeException e) {
+            failure.set(e);
+        }
+
+        try {
+            pending.put(CompletableFuture.completedFuture(END_OF_FILE));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submit(RawChunk chunk, BlockingQueue<Future<ParsedChunk>> pending) throws InterruptedException {
+        pending.put(csvParseExecutor.submit(() -> parse(chunk)));
+    }
+
+    private long flush(List<Conta> chunk, ImportProgress progress) {
+        if (chunk.isEmpty())
+            return 0;
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        contaBatchRepository.insertAll(chunk);
+        sample.stop(Timer.builder("contasapagar.import.batch")
+                .description("Time to write one chunk of imported rows")
+                .register(meterRegistry));
+        progress.rowsInserted(chunk.size());
+        countRows("persisted", chunk.size());
+        LOGGER.log(Level.FINE, "#5d1f0e7a - Flushed chunk of {0} rows", chunk.size());
+        return chunk.size();
+    }
+
+    private void countRows(String outcome, long rows) {
+        if (rows > 0)
+            meterRegistry.counter("contasapagar.import.rows", "outcome", outcome).increment(rows);
+    }
+
+    private int maxChunksInFlight() {
+        int parallelism = parseParallelism > 0 ? parseParallelism : Runtime.getRuntime().availableProcessors();
+        return parallelism * 2;
+    }
+
+    static ParsedChunk parse(RawChunk chunk) {
+        List<Conta> contas = new ArrayList<>(chunk.size());
+        List<ImportRejection> rejections = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            try {
+                contas.add(toConta(chunk.records.get(i)));
+            } catch (IllegalArgumentException e) {
+                rejections.add(new ImportRejection(chunk.lines[i], e.getMessage()));
+            }
+        }
+        return new ParsedChunk(contas, rejections);
+    }
+
+    static Conta toConta(String[] nextRecord) {
+        if (nextRecord.length < 3)
+            throw new IllegalArgumentException("Expected at least 3 columns but found " + nextRecord.length);
+
+        String description = nextRecord[0].trim();
+        if (description.isEmpty())
+            throw new IllegalArgumentException("Description is empty");
+
+        BigDecimal amount = parseAmount(nextRecord[1]);
+        LocalDate dueDate = parseDate(nextRecord[2], "due date");
+        LocalDate paidDate = nextRecord.length > 3 && !nextRecord[3].isBlank() ? parseDate(nextRecord[3], "payment date") : null;
+
+        Conta conta = Conta.builder()
+                .dataVencimento(dueDate)
+                .dataPagamento(paidDate)
+                .descricao(description)
+                .valor(amount)
+                .build();
+
+        conta.defineSituacao();
+        return conta;
+    }
+
+    private static BigDecimal parseAmount(String value) {
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount '" + value + "'");
+        }
+        if (amount.signum() <= 0)
+            throw new IllegalArgumentException("Amount must be greater than zero");
+        if (amount.setScale(2, RoundingMode.HALF_UP).precision() > MAX_AMOUNT_PRECISION)
+            throw new IllegalArgumentException("Amount '" + value + "' exceeds " + MAX_AMOUNT_PRECISION + " digits");
+        return amount;
+    }
+
+    private static LocalDate parseDate(String value, String field) {
+        try {
+            return LocalDate.parse(value.trim(), DATE_FORMATTER);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + field + " '" + value + "', expected yyyy-MM-dd");
+        }
+    }
+
+    private static boolean isBlank(String[] record) {
+        return record.length == 1 && record[0].isBlank();
+    }
+
+    private static void joinQuietly(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static final class RawChunk {
+
+        private final long[] lines;
+        private final List<String[]> records;
+
+        RawChunk(int capacity) {
+            this.lines = new long[capacity];
+            this.records = new ArrayList<>(capacity);
+        }
+
+        void add(long line, String[] record) {
+            lines[records.size()] = line;
+            records.add(record);
+        }
+
+        int size() {
+            return records.size();
+        }
+    }
+
+    record ParsedChunk(List<Conta> contas, List<ImportRejection> rejections) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.srbruninho.contasapagar.domain.services;
+
+import com.srbruninho.contasapagar.domain.repositories.ContaBatchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Maintains the yearly partitions of {@code conta}: creates them ahead of time, so new bills never land in the
+ * default partition, and optionally archives years past the retention period. Archiving takes the paid bills of
+ * an archived year out of {@code conta_monthly_paid_total}, so the totals only count bills still in {@code conta}.
+ */
+@Service
+public class ContaPartitionService {
+
+    private static final Logger LOGGER = Logger.getLogger(ContaPartitionService.class.getName());
+
+    @Autowired
+    private ContaBatchRepository contaBatchRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${contasapagar.partitions.years-ahead:1}")
+    private int yearsAhead;
+
+    /** Full years kept before the current one; 0 disables archiving. */
+    @Value("${contasapagar.partitions.retention-years:0}")
+    private int retentionYears;
+
+    /**
+     * @return the tables archived by this run
+     */
+    @Scheduled(cron = "${contasapagar.partitions.cron:0 15 3 * * *}")
+    @CacheEvict(cacheNames = ContaService.CONTA_CACHE, allEntries = true)
+    public List<String> maintain() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        LocalDate today = LocalDate.now();
+        int created = contaBatchRepository.ensurePartitions(today.plusYears(yearsAhead));
+        if (created > 0)
+            LOGGER.log(Level.INFO, "#2b7f40d3 - Created {0} conta partitions", created);
+
+        List<String> archived = List.of();
+        if (retentionYears > 0) {
+            archived = contaBatchRepository.archivePartitions(today.minusYears(retentionYears).withDayOfYear(1));
+            if (!archived.isEmpty())
+                LOGGER.log(Level.INFO, "#c81e5a97 - Archived conta partitions {0}", archived);
+        }
+        sample.stop(meterRegistry.timer("contasapagar.partition.maintenance"));
+        return archived;
+    }
+}
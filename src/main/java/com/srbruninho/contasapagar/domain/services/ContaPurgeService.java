@@ -0,0 +1,64 @@
+package com.srbruninho.contasapagar.domain.services;
+
+import com.srbruninho.contasapagar.domain.repositories.ContaBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.OptionalLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Physically removes soft-deleted bills ({@code contasapagar.delete.soft}) once they have been deleted for
+ * {@code contasapagar.delete.purge-delay}, in small batches each committed on its own, so the purge never holds
+ * row locks for long. Soft-deleted rows are already invisible to every read, so nothing is evicted here.
+ */
+@Service
+public class ContaPurgeService {
+
+    private static final Logger LOGGER = Logger.getLogger(ContaPurgeService.class.getName());
+
+    /** Postgres advisory lock key held while purging, so only one node purges at a time. */
+    static final long PURGE_LOCK_KEY = 0x7075726765L;
+
+    @Autowired
+    private ContaBatchRepository contaBatchRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${contasapagar.delete.purge-batch-size:1000}")
+    private int batchSize;
+
+    @Value("${contasapagar.delete.purge-delay:PT1H}")
+    private Duration purgeDelay;
+
+    /**
+     * @return the number of bills removed, or -1 when another node was already purging
+     */
+    @Scheduled(cron = "${contasapagar.delete.purge-cron:0 30 * * * *}")
+    public long purge() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        OptionalLong purged = contaBatchRepository.purgeDeleted(Instant.now().minus(purgeDelay), batchSize, PURGE_LOCK_KEY);
+        String outcome = purged.isPresent() ? "purged" : "skipped";
+        sample.stop(meterRegistry.timer("contasapagar.delete.purge", "outcome", outcome));
+
+        if (purged.isEmpty()) {
+            LOGGER.log(Level.FINE, "#c81f3a07 - Purge skipped, another node holds the lock");
+            return -1;
+        }
+        Counter.builder("contasapagar.delete.purge.rows")
+                .description("Soft-deleted bills physically removed")
+                .register(meterRegistry)
+                .increment(purged.getAsLong());
+        LOGGER.log(Level.INFO, "#3b96e2d4 - Purge removed {0} soft-deleted bills", purged.getAsLong());
+        return purged.getAsLong();
+    }
+}
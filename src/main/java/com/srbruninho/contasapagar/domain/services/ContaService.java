@@ -1,112 +1,426 @@
 package com.srbruninho.contasapagar.domain.services;
 
-import com.opencsv.CSVReader;
 import com.opencsv.exceptions.CsvValidationException;
+import com.srbruninho.contasapagar.api.dto.ContaDTO;
+import com.srbruninho.contasapagar.domain.model.BulkCreateItem;
+import com.srbruninho.contasapagar.domain.model.BulkCreateResult;
+import com.srbruninho.contasapagar.domain.model.BulkDeleteResult;
+import com.srbruninho.contasapagar.domain.model.BulkPaymentResult;
 import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.model.ContaChangedEvent;
+import com.srbruninho.contasapagar.domain.model.ContaDeleteFilter;
+import com.srbruninho.contasapagar.domain.model.ContaKeyset;
+import com.srbruninho.contasapagar.domain.model.ContaPatch;
+import com.srbruninho.contasapagar.domain.model.ContaSummary;
+import com.srbruninho.contasapagar.domain.model.ContasDeletedEvent;
+import com.srbruninho.contasapagar.domain.model.ContasPaidEvent;
+import com.srbruninho.contasapagar.domain.model.DescriptionMatch;
+import com.srbruninho.contasapagar.domain.model.PaymentOutcome;
+import com.srbruninho.contasapagar.domain.repositories.ContaBatchRepository;
+import com.srbruninho.contasapagar.domain.repositories.ContaMonthlyPaidTotalRepository;
 import com.srbruninho.contasapagar.domain.repositories.ContaRepository;
 import com.srbruninho.contasapagar.domain.repositories.projection.TotalValuePaidPerPeriodProjection;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 @Service
+@Timed(value = "contasapagar.service", description = "ContaService method latency")
 public class ContaService {
 
     @Autowired
     private ContaRepository contaRepository;
 
+    @Autowired
+    private ContaMonthlyPaidTotalRepository contaMonthlyPaidTotalRepository;
+
+    @Autowired
+    private MonthlyPaidTotalService monthlyPaidTotalService;
+
+    @Autowired
+    private ContaCsvImporter contaCsvImporter;
+
+    @Autowired
+    private ContaBulkCreator contaBulkCreator;
+
+    @Autowired
+    private ContaBatchRepository contaBatchRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /** Cache of {@link #findDTOById} results, configured by {@code spring.cache.*}. */
+    public static final String CONTA_CACHE = "contas";
+
+    /** Cache of {@link #getCachedSummary} results, expiring after {@code contasapagar.summary.cache-ttl}. */
+    public static final String SUMMARY_CACHE = "contaSummary";
+
     private static final Logger LOGGER = Logger.getLogger(ContaService.class.getName());
 
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    static final int DEFAULT_DELETE_BATCH_SIZE = 5000;
+
+    /** Most bills a bulk payment pays in one request, whether listed by id or matched by due date. */
+    public static final int MAX_BULK_PAYMENTS = 10_000;
+
+    private static final String TOO_MANY_PAYMENTS = "More than " + MAX_BULK_PAYMENTS + " unpaid bills are due in that range, pay it in smaller ranges!";
 
+    @Value("${contasapagar.delete.soft:false}")
+    private boolean softDelete;
+
+    @Value("${contasapagar.delete.batch-size:" + DEFAULT_DELETE_BATCH_SIZE + "}")
+    private int deleteBatchSize = DEFAULT_DELETE_BATCH_SIZE;
+
+    /*
+     * Writes evict the bill both before and after the call: before, so a cached instance mutated by a failed
+     * write is never served again; after (outside the transaction, see CacheConfig), so a concurrent read that
+     * reloaded the old row before the commit is dropped as well.
+     *
+     * The bill is flushed before the monthly totals are touched, so every writer locks conta, then the change
+     * watermark (bumped by trigger), then conta_monthly_paid_total, always in that order. A stale version fails
+     * the flush with an ObjectOptimisticLockingFailureException.
+     *
+     * Every write publishes a ContaChangedEvent (ContasPaidEvent for bulk payments), delivered to transactional
+     * listeners such as ContaAnalyticsService once it commits.
+     */
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CONTA_CACHE, key = "#conta.id", condition = "#conta.id != null", beforeInvocation = true),
+            @CacheEvict(cacheNames = CONTA_CACHE, key = "#conta.id", condition = "#conta.id != null")
+    })
     public Conta save(Conta conta) {
+        Conta previous = paidSnapshot(conta.getId());
         conta.defineSituacao();
-        return contaRepository.save(conta);
+        Conta saved = contaRepository.save(conta);
+        contaRepository.flush();
+        monthlyPaidTotalService.recordChange(previous.getDataPagamento(), previous.getValor(), saved.getDataPagamento(), saved.getValor());
+        eventPublisher.publishEvent(ContaChangedEvent.saved(saved));
+        return saved;
     }
 
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CONTA_CACHE, key = "#conta.id", condition = "#conta.id != null", beforeInvocation = true),
+            @CacheEvict(cacheNames = CONTA_CACHE, key = "#conta.id", condition = "#conta.id != null")
+    })
     public Conta updateSituacao(Conta conta, boolean isPaid) {
+        Conta previous = paidSnapshot(conta.getId());
         if (isPaid) {
             conta.confirmPayment();
         } else {
             conta.defineSituacao();
         }
-        return contaRepository.save(conta);
+        Conta saved = contaRepository.save(conta);
+        contaRepository.flush();
+        monthlyPaidTotalService.recordChange(previous.getDataPagamento(), previous.getValor(), saved.getDataPagamento(), saved.getValor());
+        eventPublisher.publishEvent(ContaChangedEvent.saved(saved));
+        return saved;
+    }
+
+    /**
+     * Applies a partial update under the bill's row lock. Only the fields that differ are changed, so with dynamic
+     * updates the single UPDATE touches only those columns.
+     *
+     * @return the patched bill, or empty if the id does not exist
+     * @throws ObjectOptimisticLockingFailureException when the patch names a version that is no longer current
+     */
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CONTA_CACHE, key = "#id", beforeInvocation = true),
+            @CacheEvict(cacheNames = CONTA_CACHE, key = "#id")
+    })
+    public Optional<Conta> patch(Long id, ContaPatch patch) {
+        Optional<Conta> stored = contaRepository.findByIdForUpdate(id);
+        if (stored.isEmpty())
+            return Optional.empty();
+
+        Conta conta = stored.get();
+        if (patch.getVersion() != null && !patch.getVersion().equals(conta.getVersion()))
+            throw new ObjectOptimisticLockingFailureException(Conta.class, id);
+
+        LocalDate previousPayment = conta.getDataPagamento();
+        BigDecimal previousValue = conta.getValor();
+        patch.applyTo(conta);
+        contaRepository.flush();
+        monthlyPaidTotalService.recordChange(previousPayment, previousValue, conta.getDataPagamento(), conta.getValor());
+        eventPublisher.publishEvent(ContaChangedEvent.saved(conta));
+        return Optional.of(conta);
     }
+
     public Optional<Conta> findById(Long id) {
         return contaRepository.findById(id);
     }
 
-    public Page<Conta> findAll(Pageable pageable) {
-        return contaRepository.findAll(pageable);
+    /**
+     * Read-only view of a bill, projected straight into {@link ContaDTO}. Served from the {@value #CONTA_CACHE}
+     * cache when enabled. Unknown ids are not cached, so rows inserted later (including by CSV imports) are found
+     * immediately.
+     */
+    @Cacheable(cacheNames = CONTA_CACHE, key = "#id", unless = "#result == null")
+    @Transactional(readOnly = true)
+    public Optional<ContaDTO> findDTOById(Long id) {
+        return contaRepository.findDTOById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ContaDTO> findAllDTOs(Pageable pageable) {
+        return contaRepository.findAllDTOs(pageable);
+    }
+
+    /**
+     * Table-level change watermark: any write to {@code conta} advances it, so an unchanged value means listings
+     * and aggregates would return the same data. Read it before querying the data it guards.
+     */
+    public long getChangeWatermark() {
+        return contaRepository.findChangeWatermark();
+    }
+
+    /**
+     * Dashboard summary as of {@code today}, computed with a single scan of {@code conta}.
+     */
+    @Transactional(readOnly = true)
+    public ContaSummary getSummary(LocalDate today) {
+        return contaBatchRepository.summarize(today);
+    }
+
+    /**
+     * Same as {@link #getSummary}, served from the {@value #SUMMARY_CACHE} cache. Writes do not evict it, so it may
+     * lag behind them by up to the cache TTL; dashboards polling it cost one scan per TTL instead of one per request.
+     */
+    @Cacheable(cacheNames = SUMMARY_CACHE, key = "#today")
+    @Transactional(readOnly = true)
+    public ContaSummary getCachedSummary(LocalDate today) {
+        return contaBatchRepository.summarize(today);
+    }
+
+    /**
+     * Streams every bill due in {@code [from, to]} (open-ended when a bound is null) to {@code sink}, one row at
+     * a time from a database cursor, so memory use does not grow with the number of rows.
+     *
+     * @return the number of rows exported
+     */
+    @Transactional(readOnly = true)
+    public long exportAll(LocalDate from, LocalDate to, Consumer<Conta> sink) {
+        return contaBatchRepository.streamAll(from, to, sink);
     }
 
+    /**
+     * Deletes the bill with one DELETE (one UPDATE stamping deleted_at with {@code contasapagar.delete.soft}),
+     * instead of loading the entity first. Unknown ids are ignored.
+     */
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CONTA_CACHE, key = "#id", beforeInvocation = true),
+            @CacheEvict(cacheNames = CONTA_CACHE, key = "#id")
+    })
     public void deleteById(Long id) {
-        contaRepository.deleteById(id);
+        Optional<Conta> deleted = contaBatchRepository.deleteById(id, softDelete);
+        if (deleted.isEmpty())
+            return;
+        monthlyPaidTotalService.recordChange(deleted.get().getDataPagamento(), deleted.get().getValor(), null, null);
+        eventPublisher.publishEvent(ContaChangedEvent.deleted(id));
+    }
+
+    /**
+     * Deletes every bill matching {@code filter} with set-based statements of {@code contasapagar.delete.batch-size}
+     * rows, each committed on its own, so no entity is loaded and row locks are only held for one chunk. Keeps going
+     * until a chunk comes back empty: a short chunk does not mean nothing is left, since rows changed concurrently can
+     * drop out of the locking query. A failure leaves the chunks committed before it deleted.
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CONTA_CACHE, allEntries = true, beforeInvocation = true),
+            @CacheEvict(cacheNames = CONTA_CACHE, allEntries = true)
+    })
+    public BulkDeleteResult deleteAll(ContaDeleteFilter filter) {
+        long total = 0;
+        List<Long> deleted;
+        do {
+            deleted = contaBatchRepository.deleteChunk(filter, deleteBatchSize, softDelete);
+            // The chunk is already committed, so listeners run right away rather than after a commit.
+            if (!deleted.isEmpty())
+                eventPublisher.publishEvent(new ContasDeletedEvent(Set.copyOf(deleted)));
+            total += deleted.size();
+        } while (!deleted.isEmpty());
+
+        LOGGER.log(Level.INFO, "#0a6d3f58 - Bulk {0} {1} bills due between {2} and {3}",
+                new Object[]{softDelete ? "soft-deleted" : "deleted", total, filter.getStartDate(), filter.getEndDate()});
+        return new BulkDeleteResult(total, softDelete);
+    }
+
+    /**
+     * Creates the bills of a JSON array or NDJSON stream in batches, reading one element at a time. See
+     * {@link ContaBulkCreator} for how invalid elements and database errors are reported.
+     */
+    public BulkCreateResult createAll(InputStream inputStream, Consumer<BulkCreateItem> sink) throws IOException {
+        return contaBulkCreator.createAll(inputStream, sink);
+    }
+
+    /**
+     * Pays the given bills today with one set-based UPDATE, instead of a load and full save per bill.
+     * Bills already paid are left untouched; ids that do not exist are reported as such.
+     */
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CONTA_CACHE, allEntries = true, beforeInvocation = true),
+            @CacheEvict(cacheNames = CONTA_CACHE, allEntries = true)
+    })
+    public BulkPaymentResult payAll(Collection<Long> ids) {
+        LocalDate paymentDate = LocalDate.now();
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        Map<Long, BigDecimal> paid = contaBatchRepository.markPaid(requested, paymentDate);
+        recordPayments(paymentDate, paid);
+
+        List<Long> notPaid = requested.stream().filter(id -> !paid.containsKey(id)).toList();
+        Set<Long> existing = contaBatchRepository.findExistingIds(notPaid);
+
+        Map<Long, PaymentOutcome> outcomes = new LinkedHashMap<>();
+        for (Long id : requested) {
+            if (paid.containsKey(id))
+                outcomes.put(id, PaymentOutcome.PAID);
+            else
+                outcomes.put(id, existing.contains(id) ? PaymentOutcome.ALREADY_PAID : PaymentOutcome.NOT_FOUND);
+        }
+        return new BulkPaymentResult(paymentDate, outcomes);
+    }
+
+    /**
+     * Pays today every unpaid bill due in {@code [startDate, endDate]}, optionally only those with the given description.
+     * Like the by-id mode, it pays at most {@link #MAX_BULK_PAYMENTS} bills, so one request never holds the locks of,
+     * or reports, an unbounded number of rows: a wider range is rejected and must be paid in smaller ones.
+     */
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CONTA_CACHE, allEntries = true, beforeInvocation = true),
+            @CacheEvict(cacheNames = CONTA_CACHE, allEntries = true)
+    })
+    public BulkPaymentResult payAllDueBetween(LocalDate startDate, LocalDate endDate, String description) {
+        if (contaBatchRepository.countUnpaidDueBetween(startDate, endDate, description, MAX_BULK_PAYMENTS + 1) > MAX_BULK_PAYMENTS)
+            throw new IllegalArgumentException(TOO_MANY_PAYMENTS);
+
+        LocalDate paymentDate = LocalDate.now();
+        Map<Long, BigDecimal> paid = contaBatchRepository.markPaidByDueDate(startDate, endDate, description, paymentDate);
+        // Bills created in the range since the count can push it over; throwing rolls the payment back.
+        if (paid.size() > MAX_BULK_PAYMENTS)
+            throw new IllegalArgumentException(TOO_MANY_PAYMENTS);
+        recordPayments(paymentDate, paid);
+
+        Map<Long, PaymentOutcome> outcomes = new LinkedHashMap<>();
+        paid.keySet().forEach(id -> outcomes.put(id, PaymentOutcome.PAID));
+        return new BulkPaymentResult(paymentDate, outcomes);
+    }
+
+    private void recordPayments(LocalDate paymentDate, Map<Long, BigDecimal> paid) {
+        BigDecimal total = paid.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        monthlyPaidTotalService.recordPayments(paymentDate, total, paid.size());
+        if (!paid.isEmpty())
+            eventPublisher.publishEvent(new ContasPaidEvent(Set.copyOf(paid.keySet()), paymentDate));
     }
 
+    /**
+     * Ranges made of whole months are answered from the monthly aggregate; any other range is summed
+     * from {@code conta} with an index-backed range scan, so partial months stay exact.
+     */
     public Page<TotalValuePaidPerPeriodProjection> getTotalValuePaidPerPeriod(LocalDate startDate, LocalDate endDate, Pageable pageable) {
+        if (startDate.getDayOfMonth() == 1 && endDate.equals(endDate.withDayOfMonth(endDate.lengthOfMonth())))
+            return contaMonthlyPaidTotalRepository.findTotalValuePaidPerPeriod(startDate, endDate, pageable);
         return contaRepository.getTotalValuePaidPerPeriod(startDate, endDate, pageable);
     }
 
-    public Page<Conta> getAccountsbyDateAndDescription(LocalDate startDate, LocalDate endDate, String description, Pageable pageable){
-        return contaRepository.findByDataVencimentoBetweenAndDescricaoAndDataPagamentoIsNull(startDate, endDate, description, pageable);
+    @Transactional(readOnly = true)
+    public Page<ContaDTO> getAccountsbyDateAndDescription(LocalDate startDate, LocalDate endDate, String description, Pageable pageable){
+        return contaRepository.findUnpaidByDescription(startDate, endDate, description, pageable);
     }
 
-    public void processCSV(MultipartFile file){
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()));
-             CSVReader csvReader = new CSVReader(reader)) {
-
-            String[] nextRecord;
-            while ((nextRecord = csvReader.readNext()) != null) {
-                Double amount = Double.MIN_NORMAL;
-                LocalDate dueDate = null;
-                LocalDate paidDate = null;
-
-                String description = nextRecord[0];
-
-                try {
-                    amount = Double.parseDouble(nextRecord[1]);
-                } catch (Exception e) {
-                    LOGGER.log(Level.WARNING, "#c12cb043 - " + e.getMessage());
-                }
-
-                try {
-                    dueDate = LocalDate.parse(nextRecord[2], DATE_FORMATTER);
-                } catch (Exception e) {
-                    LOGGER.log(Level.WARNING, "#385e5f21 - " + e.getMessage());
-                }
-
-                try {
-                    paidDate = LocalDate.parse(nextRecord[3], DATE_FORMATTER);
-                } catch (Exception e) {
-                    LOGGER.log(Level.WARNING, "#9460e0a0 - " + e.getMessage());
-                }
-
-                Conta conta = Conta.builder()
-                        .dataVencimento(dueDate)
-                        .dataPagamento(paidDate)
-                        .descricao(description)
-                        .valor(BigDecimal.valueOf(amount))
-                        .build();
-
-                conta.defineSituacao();
-
-                save(conta);
-                LOGGER.log(Level.INFO, "#96b85d24 - Save Succesfully ", conta);
-            }
+    @Transactional(readOnly = true)
+    public Page<ContaDTO> getAccountsbyDateAndDescription(LocalDate startDate, LocalDate endDate, String description, DescriptionMatch match, Pageable pageable){
+        if (match == DescriptionMatch.CONTAINS)
+            return contaRepository.findUnpaidByDescriptionLike(startDate, endDate, containsPattern(description), pageable);
+        return getAccountsbyDateAndDescription(startDate, endDate, description, pageable);
+    }
+
+    /**
+     * Keyset-paginated listing ordered by due date descending. {@code after} is the last row of the previous
+     * page, or null for the first page. No count query is issued.
+     */
+    public Slice<Conta> findAll(ContaKeyset after, int size) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Conta> rows = after == null
+                ? contaRepository.findFirstKeysetPage(limit)
+                : contaRepository.findKeysetPageAfter(after.getDataVencimento(), after.getId(), limit);
+        return toSlice(rows, size);
+    }
+
+    public Slice<Conta> getAccountsbyDateAndDescription(LocalDate startDate, LocalDate endDate, String description, DescriptionMatch match, ContaKeyset after, int size) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Conta> rows;
+        if (match == DescriptionMatch.CONTAINS) {
+            String pattern = containsPattern(description);
+            rows = after == null
+                    ? contaRepository.findFirstUnpaidLikeKeysetPage(startDate, endDate, pattern, limit)
+                    : contaRepository.findUnpaidLikeKeysetPageAfter(startDate, endDate, pattern, after.getDataVencimento(), after.getId(), limit);
+        } else {
+            rows = after == null
+                    ? contaRepository.findFirstUnpaidKeysetPage(startDate, endDate, description, limit)
+                    : contaRepository.findUnpaidKeysetPageAfter(startDate, endDate, description, after.getDataVencimento(), after.getId(), limit);
+        }
+        return toSlice(rows, size);
+    }
+
+    /**
+     * ILIKE pattern matching {@code description} anywhere, with LIKE wildcards in the input escaped.
+     */
+    static String containsPattern(String description) {
+        String escaped = description.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    private static Slice<Conta> toSlice(List<Conta> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, PageRequest.of(0, size), hasNext);
+    }
+
+    /**
+     * Copies the stored payment date and value of a bill before it is changed, so the monthly totals can be adjusted.
+     * The copy is taken eagerly because the caller may hold the same managed instance it is about to modify.
+     */
+    private Conta paidSnapshot(Long id) {
+        Optional<Conta> stored = id != null ? contaRepository.findById(id) : Optional.empty();
+        return Conta.builder()
+                .dataPagamento(stored.map(Conta::getDataPagamento).orElse(null))
+                .valor(stored.map(Conta::getValor).orElse(null))
+                .build();
+    }
 
+    public void processCSV(MultipartFile file){
+        try (InputStream inputStream = file.getInputStream()) {
+            contaCsvImporter.importCsv(inputStream);
         } catch (IOException | CsvValidationException e) {
             LOGGER.log(Level.SEVERE, "#c262d751 - Error reading CSV file", e);
         }
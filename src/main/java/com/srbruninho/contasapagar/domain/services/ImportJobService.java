@@ -0,0 +1,172 @@
+package com.srbruninho.contasapagar.domain.services;
+
+import com.opencsv.CSVWriter;
+import com.srbruninho.contasapagar.domain.model.ImportJob;
+import com.srbruninho.contasapagar.domain.model.ImportJobStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs CSV imports in the background. Uploads are spooled to disk so the request thread is released
+ * right away, and the files are processed by the bounded {@code csvImportExecutor}.
+ */
+@Service
+public class ImportJobService {
+
+    private static final Logger LOGGER = Logger.getLogger(ImportJobService.class.getName());
+
+    @Autowired
+    private ContaCsvImporter contaCsvImporter;
+
+    @Autowired
+    @Qualifier("csvImportExecutor")
+    private TaskExecutor csvImportExecutor;
+
+    @Value("${contasapagar.import.spool-dir:${java.io.tmpdir}/contasapagar-import}")
+    private String spoolDir = System.getProperty("java.io.tmpdir") + "/contasapagar-import";
+
+    @Value("${contasapagar.import.job-retention:PT1H}")
+    private Duration jobRetention = Duration.ofHours(1);
+
+    private static final String[] REJECTION_REPORT_HEADER = {"line", "reason"};
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Spools the upload and queues it for import.
+     *
+     * @throws TaskRejectedException when the import queue is full
+     */
+    public ImportJob submit(MultipartFile file) throws IOException {
+        purgeFinishedJobs();
+
+        Path directory = Files.createDirectories(Paths.get(spoolDir));
+        Path spooled = Files.createTempFile(directory, "import-", ".csv");
+        try {
+            file.transferTo(spooled);
+            String id = UUID.randomUUID().toString();
+            ImportJob job = new ImportJob(id, spooled, directory.resolve(id + "-rejections.csv"), Files.size(spooled));
+            jobs.put(job.getId(), job);
+            try {
+                csvImportExecutor.execute(() -> run(job));
+            } catch (TaskRejectedException e) {
+                jobs.remove(job.getId());
+                throw e;
+            }
+            return job;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+    }
+
+    public Optional<ImportJob> findById(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Rejection report of the job, or empty when the job is unknown or has not started writing it yet.
+     */
+    public Optional<Path> findRejectionReport(String id) {
+        return findById(id)
+                .map(ImportJob::getRejectionReport)
+                .filter(Files::exists);
+    }
+
+    private void run(ImportJob job) {
+        job.setStartedAt(Instant.now());
+        job.setStatus(ImportJobStatus.RUNNING);
+        ImportJobStatus status = ImportJobStatus.COMPLETED;
+        try (InputStream inputStream = new CountingInputStream(Files.newInputStream(job.getFile()), job.getBytesRead());
+             CSVWriter report = new CSVWriter(Files.newBufferedWriter(job.getRejectionReport(), StandardCharsets.UTF_8))) {
+            report.writeNext(REJECTION_REPORT_HEADER, false);
+            contaCsvImporter.importCsv(inputStream, job.getProgress(), rejection -> {
+                report.writeNext(new String[]{String.valueOf(rejection.getLine()), rejection.getReason()});
+                report.flushQuietly();
+            });
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "#a3f1c2d0 - Import job " + job.getId() + " failed", e);
+            job.setErrorMessage(e.getMessage());
+            status = ImportJobStatus.FAILED;
+        } finally {
+            try {
+                Files.deleteIfExists(job.getFile());
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "#0b7e94c5 - Could not delete spooled file " + job.getFile(), e);
+            }
+        }
+        // Published last: once a job reads as finished, its report is closed and finishedAt is set, which
+        // purgeFinishedJobs relies on from other threads.
+        job.setFinishedAt(Instant.now());
+        job.setStatus(status);
+    }
+
+    private void purgeFinishedJobs() {
+        Instant threshold = Instant.now().minus(jobRetention);
+        jobs.values().removeIf(job -> {
+            if (!job.isFinished() || !job.getFinishedAt().isBefore(threshold))
+                return false;
+            try {
+                Files.deleteIfExists(job.getRejectionReport());
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "#0b7e94c5 - Could not delete rejection report " + job.getRejectionReport(), e);
+            }
+            return true;
+        });
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong counter;
+
+        CountingInputStream(InputStream in, AtomicLong counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value != -1)
+                counter.incrementAndGet();
+            return value;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = super.read(b, off, len);
+            if (count > 0)
+                counter.addAndGet(count);
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            counter.addAndGet(skipped);
+            return skipped;
+        }
+    }
+}
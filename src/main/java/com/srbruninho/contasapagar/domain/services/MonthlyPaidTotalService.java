@@ -0,0 +1,78 @@
+package com.srbruninho.contasapagar.domain.services;
+
+import com.srbruninho.contasapagar.domain.repositories.ContaMonthlyPaidTotalRepository;
+import com.srbruninho.contasapagar.domain.repositories.ContaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps {@code conta_monthly_paid_total} in step with the paid amounts of {@code conta}.
+ */
+@Service
+public class MonthlyPaidTotalService {
+
+    private static final Logger LOGGER = Logger.getLogger(MonthlyPaidTotalService.class.getName());
+
+    private static final LocalDate MIN_MONTH = LocalDate.of(1900, 1, 1);
+    private static final LocalDate MAX_MONTH = LocalDate.of(9999, 12, 1);
+
+    @Autowired
+    private ContaMonthlyPaidTotalRepository contaMonthlyPaidTotalRepository;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    /**
+     * Moves a bill's contribution from its previous payment state to the new one. A null date means unpaid.
+     * Must run in the transaction that writes the bill.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(LocalDate oldPaymentDate, BigDecimal oldValue, LocalDate newPaymentDate, BigDecimal newValue) {
+        if (oldPaymentDate != null && newPaymentDate != null
+                && oldPaymentDate.withDayOfMonth(1).equals(newPaymentDate.withDayOfMonth(1))
+                && Objects.equals(oldValue, newValue))
+            return;
+
+        if (oldPaymentDate != null)
+            contaMonthlyPaidTotalRepository.addPaidAmount(oldPaymentDate, oldValue.negate(), -1);
+        if (newPaymentDate != null)
+            contaMonthlyPaidTotalRepository.addPaidAmount(newPaymentDate, newValue, 1);
+    }
+
+    /**
+     * Adds {@code count} bills paid on {@code paymentDate} with a combined value of {@code total}, as done by bulk
+     * payments. Must run in the transaction that writes the bills.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPayments(LocalDate paymentDate, BigDecimal total, long count) {
+        if (count > 0)
+            contaMonthlyPaidTotalRepository.addPaidAmount(paymentDate, total, count);
+    }
+
+    /**
+     * Recomputes the months touching {@code [startDate, endDate]} from {@code conta}. Null bounds mean unbounded.
+     * Used for backfills and to repair drift after writes that bypassed the application.
+     */
+    @Transactional
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        LocalDate startMonth = startDate != null ? startDate.withDayOfMonth(1) : MIN_MONTH;
+        LocalDate endMonth = endDate != null ? endDate.withDayOfMonth(1) : MAX_MONTH;
+
+        // Bumped first, like any conta write, so the lock order stays watermark before monthly totals.
+        contaRepository.bumpChangeWatermark();
+        contaMonthlyPaidTotalRepository.lockForRebuild();
+        contaMonthlyPaidTotalRepository.deleteMonths(startMonth, endMonth);
+        int months = contaMonthlyPaidTotalRepository.insertMonthsFromConta(startMonth, endMonth);
+
+        LOGGER.log(Level.INFO, "#4be1a7f3 - Rebuilt {0} monthly paid totals between {1} and {2}", new Object[]{months, startMonth, endMonth});
+        return months;
+    }
+}
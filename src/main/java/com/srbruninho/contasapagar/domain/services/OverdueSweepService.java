@@ -0,0 +1,62 @@
+package com.srbruninho.contasapagar.domain.services;
+
+import com.srbruninho.contasapagar.domain.repositories.ContaBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.OptionalLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the stored {@code situacao} of unpaid bills current. {@link com.srbruninho.contasapagar.domain.model.Conta#defineSituacao()}
+ * only runs when a bill is saved, so PENDENTE bills whose due date has passed are flipped to ATRASADA here,
+ * in chunks and without loading entities.
+ */
+@Service
+public class OverdueSweepService {
+
+    private static final Logger LOGGER = Logger.getLogger(OverdueSweepService.class.getName());
+
+    /** Postgres advisory lock key held while sweeping, so only one node sweeps at a time. */
+    static final long SWEEP_LOCK_KEY = 0x636f6e7461L;
+
+    @Autowired
+    private ContaBatchRepository contaBatchRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${contasapagar.overdue-sweep.batch-size:5000}")
+    private int batchSize;
+
+    /**
+     * @return the number of bills flipped to ATRASADA, or -1 when another node was already sweeping
+     */
+    @Scheduled(cron = "${contasapagar.overdue-sweep.cron:0 5 * * * *}")
+    @CacheEvict(cacheNames = ContaService.CONTA_CACHE, allEntries = true)
+    public long sweep() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        OptionalLong transitioned = contaBatchRepository.markOverdue(LocalDate.now(), batchSize, SWEEP_LOCK_KEY);
+        String outcome = transitioned.isPresent() ? "swept" : "skipped";
+        sample.stop(meterRegistry.timer("contasapagar.overdue.sweep", "outcome", outcome));
+
+        if (transitioned.isEmpty()) {
+            LOGGER.log(Level.FINE, "#5d0e9b21 - Overdue sweep skipped, another node holds the lock");
+            return -1;
+        }
+        Counter.builder("contasapagar.overdue.sweep.rows")
+                .description("Bills flipped from PENDENTE to ATRASADA")
+                .register(meterRegistry)
+                .increment(transitioned.getAsLong());
+        LOGGER.log(Level.INFO, "#e7a4c916 - Overdue sweep flipped {0} bills to ATRASADA", transitioned.getAsLong());
+        return transitioned.getAsLong();
+    }
+}
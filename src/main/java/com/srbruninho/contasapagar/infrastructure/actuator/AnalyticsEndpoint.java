@@ -0,0 +1,32 @@
+package com.srbruninho.contasapagar.infrastructure.actuator;
+
+import com.srbruninho.contasapagar.domain.services.ContaAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * State and memory footprint of the in-memory analytics copy: {@code GET /actuator/analytics}. A
+ * {@code POST /actuator/analytics} reloads it from the database.
+ */
+@Component
+@Endpoint(id = "analytics")
+public class AnalyticsEndpoint {
+
+    @Autowired
+    private ContaAnalyticsService contaAnalyticsService;
+
+    @ReadOperation
+    public Map<String, Object> describe() {
+        return contaAnalyticsService.describe();
+    }
+
+    @WriteOperation
+    public Map<String, Object> reload() {
+        return Map.of("reloadedRows", contaAnalyticsService.reload());
+    }
+}
@@ -0,0 +1,31 @@
+package com.srbruninho.contasapagar.infrastructure.actuator;
+
+import com.srbruninho.contasapagar.domain.services.MonthlyPaidTotalService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Rebuild/repair command for the monthly paid totals: {@code POST /actuator/monthlypaidtotals}
+ * with an optional JSON body {@code {"startDate": "2024-01-01", "endDate": "2024-12-31"}}.
+ */
+@Component
+@Endpoint(id = "monthlypaidtotals")
+public class MonthlyPaidTotalsEndpoint {
+
+    @Autowired
+    private MonthlyPaidTotalService monthlyPaidTotalService;
+
+    @WriteOperation
+    public Map<String, Object> rebuild(@Nullable String startDate, @Nullable String endDate) {
+        int months = monthlyPaidTotalService.rebuild(
+                startDate != null ? LocalDate.parse(startDate) : null,
+                endDate != null ? LocalDate.parse(endDate) : null);
+        return Map.of("rebuiltMonths", months);
+    }
+}
@@ -0,0 +1,29 @@
+package com.srbruninho.contasapagar.infrastructure.configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.srbruninho.contasapagar.domain.services.ContaService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Enables the cache abstraction; the cache itself is configured through {@code spring.cache.*}. The caching
+ * advice is ordered outside the transactional one, so evictions that run after a write happen after its commit.
+ * The summary cache gets its own short TTL instead of the shared Caffeine spec.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> summaryCacheCustomizer(@Value("${contasapagar.summary.cache-ttl:PT30S}") Duration ttl) {
+        return cacheManager -> cacheManager.registerCustomCache(ContaService.SUMMARY_CACHE,
+                Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(16).recordStats().build());
+    }
+}
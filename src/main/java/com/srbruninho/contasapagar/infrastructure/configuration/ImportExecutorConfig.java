@@ -0,0 +1,49 @@
+package com.srbruninho.contasapagar.infrastructure.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executors used by CSV imports. The job executor is kept small and bounded so imports never take more
+ * than {@code pool-size} database connections and Tomcat workers stay free for regular API traffic;
+ * uploads beyond {@code queue-capacity} are rejected instead of piling up. The parse executor is
+ * CPU-bound and sized to the available cores unless {@code parse-parallelism} is set.
+ * <p>
+ * With {@code spring.threads.virtual.enabled} on Java 21, import jobs run on virtual threads (still bounded by the
+ * same pool and queue). Parsing stays on platform threads, since it is CPU-bound.
+ */
+@Configuration
+public class ImportExecutorConfig {
+
+    @Bean(name = "csvImportExecutor")
+    public ThreadPoolTaskExecutor csvImportExecutor(@Value("${contasapagar.import.executor.pool-size:2}") int poolSize,
+                                                    @Value("${contasapagar.import.executor.queue-capacity:10}") int queueCapacity,
+                                                    Environment environment) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("csv-import-");
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        if (Threading.VIRTUAL.isActive(environment))
+            executor.setThreadFactory(new VirtualThreadTaskExecutor("csv-import-").getVirtualThreadFactory());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    @Bean(name = "csvParseExecutor")
+    public ThreadPoolTaskExecutor csvParseExecutor(@Value("${contasapagar.import.parse-parallelism:0}") int parallelism) {
+        int poolSize = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("csv-parse-");
+        return executor;
+    }
+}
@@ -0,0 +1,12 @@
+package com.srbruninho.contasapagar.infrastructure.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled jobs such as the overdue sweep. Individual jobs are turned off by setting their cron to {@code -}.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
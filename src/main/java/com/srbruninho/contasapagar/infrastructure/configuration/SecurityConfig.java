@@ -1,16 +1,34 @@
 package com.srbruninho.contasapagar.infrastructure.configuration;
 
+import com.srbruninho.contasapagar.infrastructure.security.BearerTokenAuthenticationFilter;
+import com.srbruninho.contasapagar.infrastructure.security.CachingAuthenticationProvider;
+import com.srbruninho.contasapagar.infrastructure.security.TokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import static org.springframework.security.config.Customizer.withDefaults;
 
@@ -18,18 +36,59 @@ import static org.springframework.security.config.Customizer.withDefaults;
 @Configuration
 public class SecurityConfig {
 
+    private static final Logger LOGGER = Logger.getLogger(SecurityConfig.class.getName());
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
 
+    /**
+     * Password logins (Basic and form) go through BCrypt once, then hit the verified-credential cache until it expires.
+     */
+    @Bean
+    public AuthenticationManager authenticationManager(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+                                                       @Value("${contasapagar.security.basic-cache.maximum-size:1000}") long maximumSize,
+                                                       @Value("${contasapagar.security.basic-cache.ttl:PT5M}") Duration ttl) {
+        DaoAuthenticationProvider passwordCheck = new DaoAuthenticationProvider(passwordEncoder);
+        passwordCheck.setUserDetailsService(userDetailsService);
+        CachingAuthenticationProvider provider = new CachingAuthenticationProvider(passwordCheck, maximumSize, ttl);
+        CaffeineCacheMetrics.monitor(meterRegistry, provider.getCache(), "basic-credentials");
+        return new ProviderManager(provider);
+    }
+
+    /**
+     * Every instance must sign with the same key, or a token issued by one is rejected by the others and every restart
+     * invalidates all tokens. A missing secret therefore fails startup, unless a generated key is explicitly allowed,
+     * as the dev profile does.
+     */
+    @Bean
+    public TokenService tokenService(@Value("${contasapagar.security.token.secret:}") String secret,
+                                     @Value("${contasapagar.security.token.ttl:PT15M}") Duration ttl,
+                                     @Value("${contasapagar.security.token.allow-generated-key:false}") boolean allowGeneratedKey) {
+        byte[] key;
+        if (secret.isBlank()) {
+            if (!allowGeneratedKey)
+                throw new IllegalStateException("contasapagar.security.token.secret is not set: set it to a Base64 key shared by every instance, " +
+                        "or set contasapagar.security.token.allow-generated-key=true (dev profile) to generate one");
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            LOGGER.log(Level.WARNING, "#8a41f07c - contasapagar.security.token.secret is not set, bearer tokens are only valid on this instance until it restarts");
+        } else {
+            key = Base64.getDecoder().decode(secret);
+        }
+        return new TokenService(key, ttl, Clock.systemUTC());
+    }
+
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, AuthenticationManager authenticationManager, TokenService tokenService) throws Exception {
         http.csrf(AbstractHttpConfigurer::disable)
+                .authenticationManager(authenticationManager)
                 .authorizeHttpRequests((authz) -> authz
                         .requestMatchers("/contasapagar/**").permitAll()
                         .anyRequest().authenticated()
                 )
+                .addFilterBefore(new BearerTokenAuthenticationFilter(tokenService), BasicAuthenticationFilter.class)
                 .formLogin(formLogin -> formLogin.defaultSuccessUrl("/api/contas"))
                 .httpBasic(withDefaults());
         return http.build();
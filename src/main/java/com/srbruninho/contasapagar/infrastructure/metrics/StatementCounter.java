@@ -0,0 +1,33 @@
+package com.srbruninho.contasapagar.infrastructure.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between {@link #start()} and {@link #stop()}.
+ * Statements issued through {@code JdbcTemplate} do not pass through Hibernate and are not counted.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = new ThreadLocal<>();
+
+    public void start() {
+        COUNT.set(new long[1]);
+    }
+
+    /**
+     * @return the statements counted since {@link #start()}, or 0 when counting was not started on this thread
+     */
+    public long stop() {
+        long[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        long[] count = COUNT.get();
+        if (count != null)
+            count[0]++;
+        return sql;
+    }
+}
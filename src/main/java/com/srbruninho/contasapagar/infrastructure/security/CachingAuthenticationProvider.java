@@ -0,0 +1,88 @@
+package com.srbruninho.contasapagar.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Remembers successful username/password logins for a short time, so Basic clients sending their credentials on
+ * every call pay the password hash check once per {@code ttl} instead of once per request. Failures are never
+ * cached. Entries are keyed by an HMAC of the credentials under a key generated at startup, so the cache holds
+ * no password and nothing that can be checked against one offline.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final AuthenticationProvider delegate;
+
+    private final Cache<String, Authentication> verified;
+
+    private final SecretKey key;
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, long maximumSize, Duration ttl) {
+        this.delegate = delegate;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        try {
+            this.key = KeyGenerator.getInstance(ALGORITHM).generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Cache<String, Authentication> getCache() {
+        return verified;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication.getCredentials() instanceof String password))
+            return delegate.authenticate(authentication);
+
+        String cacheKey = cacheKey(authentication.getName(), password);
+        Authentication cached = verified.getIfPresent(cacheKey);
+        if (cached == null) {
+            Authentication result = delegate.authenticate(authentication);
+            if (result == null || !result.isAuthenticated())
+                return result;
+            cached = result;
+            verified.put(cacheKey, cached);
+        }
+        // A fresh token per request, so request details are not shared between requests.
+        UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(cached.getPrincipal(), null, cached.getAuthorities());
+        result.setDetails(authentication.getDetails());
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    private String cacheKey(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
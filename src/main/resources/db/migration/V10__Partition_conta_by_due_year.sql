@@ -0,0 +1,179 @@
+-- V10__Partition_conta_by_due_year.sql
+-- Turns conta into a table range-partitioned by data_vencimento, one partition per year (conta_y2024 holds
+-- bills due in 2024), plus conta_default for dates no yearly partition covers yet. Due-date filters only touch
+-- the years they ask for, and old years can be detached and archived instead of deleted row by row.
+--
+-- The primary key must contain the partition key, so it becomes (id, data_vencimento) and no longer keeps ids
+-- unique on its own; V13 enforces that through the conta_id table. Lookups by id probe the primary key index of
+-- every partition.
+
+ALTER TABLE conta RENAME TO conta_unpartitioned;
+ALTER TABLE conta_unpartitioned RENAME CONSTRAINT conta_pkey TO conta_unpartitioned_pkey;
+DROP TRIGGER conta_change_watermark_insert ON conta_unpartitioned;
+DROP TRIGGER conta_change_watermark_update ON conta_unpartitioned;
+DROP TRIGGER conta_change_watermark_delete ON conta_unpartitioned;
+DROP TRIGGER conta_change_watermark_truncate ON conta_unpartitioned;
+DROP INDEX idx_conta_paid_data_pagamento;
+DROP INDEX idx_conta_data_vencimento_id;
+DROP INDEX idx_conta_unpaid_descricao_vencimento;
+DROP INDEX IF EXISTS idx_conta_unpaid_descricao_trgm;
+DROP INDEX idx_conta_pending_data_vencimento;
+
+CREATE TABLE conta (
+    id BIGINT NOT NULL,
+    data_vencimento DATE NOT NULL,
+    data_pagamento DATE,
+    valor DECIMAL(10, 2) NOT NULL,
+    descricao TEXT NOT NULL,
+    situacao VARCHAR(20) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id, data_vencimento)
+) PARTITION BY RANGE (data_vencimento);
+
+-- Same definitions as V4 to V8, now partitioned indexes cascading to every partition.
+CREATE INDEX idx_conta_paid_data_pagamento ON conta (data_pagamento) INCLUDE (valor) WHERE data_pagamento IS NOT NULL;
+CREATE INDEX idx_conta_data_vencimento_id ON conta (data_vencimento, id);
+CREATE INDEX idx_conta_unpaid_descricao_vencimento ON conta (descricao, data_vencimento, id) WHERE data_pagamento IS NULL;
+CREATE INDEX idx_conta_pending_data_vencimento ON conta (data_vencimento) WHERE situacao = 'PENDENTE' AND data_pagamento IS NULL;
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm') THEN
+        CREATE INDEX idx_conta_unpaid_descricao_trgm ON conta USING gin (descricao gin_trgm_ops) WHERE data_pagamento IS NULL;
+    END IF;
+END
+$$;
+
+-- Creates one partition as a plain table, builds its indexes under predictable names (<parent index>_<suffix>)
+-- and attaches it; ATTACH adopts matching indexes instead of building its own. A yearly partition takes over
+-- the rows of that year parked in conta_default. Returns false when the partition already exists.
+CREATE FUNCTION create_conta_partition(p_year INTEGER) RETURNS BOOLEAN
+LANGUAGE plpgsql AS $$
+DECLARE
+    v_suffix TEXT := CASE WHEN p_year IS NULL THEN 'default' ELSE 'y' || p_year END;
+    v_partition TEXT := 'conta_' || v_suffix;
+    v_from DATE := make_date(p_year, 1, 1);
+    v_to DATE := make_date(p_year + 1, 1, 1);
+    v_index RECORD;
+BEGIN
+    IF to_regclass(v_partition) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE conta INCLUDING DEFAULTS)', v_partition);
+    IF p_year IS NOT NULL THEN
+        -- Lets ATTACH skip the validation scan, and carves the year out of the default partition.
+        EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I CHECK (data_vencimento >= %L AND data_vencimento < %L)',
+                       v_partition, v_partition || '_range', v_from, v_to);
+        IF to_regclass('conta_default') IS NOT NULL THEN
+            EXECUTE format('WITH moved AS (DELETE FROM conta_default WHERE data_vencimento >= %L AND data_vencimento < %L RETURNING *) ' ||
+                           'INSERT INTO %I SELECT * FROM moved', v_from, v_to, v_partition);
+        END IF;
+    END IF;
+
+    FOR v_index IN
+        SELECT c.relname, pg_get_indexdef(i.indexrelid) AS definition
+        FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid
+        WHERE i.indrelid = 'conta'::regclass AND NOT i.indisprimary
+    LOOP
+        EXECUTE regexp_replace(v_index.definition, '^CREATE (UNIQUE )?INDEX \S+ ON ONLY \S+',
+                               'CREATE \1INDEX ' || quote_ident(v_index.relname || '_' || v_suffix) || ' ON ' || quote_ident(v_partition));
+    END LOOP;
+
+    IF p_year IS NULL THEN
+        EXECUTE format('ALTER TABLE conta ATTACH PARTITION %I DEFAULT', v_partition);
+    ELSE
+        EXECUTE format('ALTER TABLE conta ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', v_partition, v_from, v_to);
+        EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', v_partition, v_partition || '_range');
+    END IF;
+    RETURN TRUE;
+END
+$$;
+
+-- Makes sure every year up to p_through has its partition, and every year with rows in conta_default gets one.
+-- Called by the application's partition maintenance job. Returns the number of partitions created.
+CREATE FUNCTION ensure_conta_partitions(p_through DATE) RETURNS INTEGER
+LANGUAGE plpgsql AS $$
+DECLARE
+    v_year INTEGER;
+    v_created INTEGER := 0;
+BEGIN
+    -- Self-conflicting, so concurrent maintenance runs queue up; reads and writes on conta are not blocked.
+    LOCK TABLE conta IN SHARE UPDATE EXCLUSIVE MODE;
+    FOR v_year IN
+        SELECT y FROM generate_series(extract(YEAR FROM current_date)::INTEGER, extract(YEAR FROM p_through)::INTEGER) AS y
+        UNION
+        SELECT DISTINCT extract(YEAR FROM data_vencimento)::INTEGER FROM conta_default
+        ORDER BY 1
+    LOOP
+        IF create_conta_partition(v_year) THEN
+            v_created := v_created + 1;
+        END IF;
+    END LOOP;
+    RETURN v_created;
+END
+$$;
+
+-- Detaches the yearly partitions entirely due before p_before into the conta_archive schema, where they stay
+-- queryable and can be dumped or dropped. Their rows disappear from conta without a DELETE, so the change
+-- watermark is bumped here. Returns the archived table names.
+CREATE FUNCTION archive_conta_partitions(p_before DATE) RETURNS SETOF TEXT
+LANGUAGE plpgsql AS $$
+DECLARE
+    v_partition RECORD;
+BEGIN
+    LOCK TABLE conta IN SHARE UPDATE EXCLUSIVE MODE;
+    CREATE SCHEMA IF NOT EXISTS conta_archive;
+    FOR v_partition IN
+        SELECT c.relname
+        FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'conta'::regclass AND c.relname ~ '^conta_y[0-9]{4}$'
+          AND make_date(substring(c.relname FROM 8)::INTEGER + 1, 1, 1) <= p_before
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE conta DETACH PARTITION %I', v_partition.relname);
+        EXECUTE format('ALTER TABLE %I SET SCHEMA conta_archive', v_partition.relname);
+        UPDATE conta_change_watermark SET version = version + 1 WHERE id = 1;
+        RETURN NEXT v_partition.relname;
+    END LOOP;
+END
+$$;
+
+-- Partitions for every year already in the table, the current and the next one, then the catch-all.
+SELECT create_conta_partition(y)
+FROM generate_series(
+        LEAST((SELECT extract(YEAR FROM MIN(data_vencimento))::INTEGER FROM conta_unpartitioned), extract(YEAR FROM current_date)::INTEGER),
+        extract(YEAR FROM current_date)::INTEGER + 1) AS y;
+SELECT create_conta_partition(NULL);
+
+INSERT INTO conta (id, data_vencimento, data_pagamento, valor, descricao, situacao, version)
+SELECT id, data_vencimento, data_pagamento, valor, descricao, situacao, version FROM conta_unpartitioned;
+DROP TABLE conta_unpartitioned;
+
+-- Statement triggers on the partitioned parent, with transition tables, see rows of every partition. A
+-- cross-partition UPDATE crashes the backend on Postgres 14 when both the UPDATE and the DELETE trigger capture
+-- transition tables, so DELETE bumps unconditionally; deletes that match nothing are rare.
+CREATE OR REPLACE FUNCTION bump_conta_change_watermark() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP IN ('TRUNCATE', 'DELETE') THEN
+        UPDATE conta_change_watermark SET version = version + 1 WHERE id = 1;
+    ELSIF EXISTS (SELECT 1 FROM changed_rows) THEN
+        UPDATE conta_change_watermark SET version = version + 1 WHERE id = 1;
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER conta_change_watermark_insert AFTER INSERT ON conta
+    REFERENCING NEW TABLE AS changed_rows FOR EACH STATEMENT EXECUTE FUNCTION bump_conta_change_watermark();
+
+CREATE TRIGGER conta_change_watermark_update AFTER UPDATE ON conta
+    REFERENCING NEW TABLE AS changed_rows FOR EACH STATEMENT EXECUTE FUNCTION bump_conta_change_watermark();
+
+CREATE TRIGGER conta_change_watermark_delete AFTER DELETE ON conta
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_conta_change_watermark();
+
+CREATE TRIGGER conta_change_watermark_truncate AFTER TRUNCATE ON conta
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_conta_change_watermark();
+
+ANALYZE conta;
@@ -0,0 +1,13 @@
+-- V11__Add_conta_soft_delete.sql
+-- Soft delete: with contasapagar.delete.soft=true, deleting a bill only stamps deleted_at, and ContaPurgeService
+-- removes stamped rows later in small batches. Every read filters on deleted_at IS NULL. Adding a nullable column
+-- without a default does not rewrite the table.
+ALTER TABLE conta ADD COLUMN deleted_at TIMESTAMP WITH TIME ZONE;
+
+-- Lets the purge find stamped rows without scanning conta; empty while nothing is soft-deleted.
+CREATE INDEX idx_conta_deleted_at ON conta (deleted_at) WHERE deleted_at IS NOT NULL;
+
+-- The paid totals query now also filters on deleted_at IS NULL. Putting that in the predicate of the index keeps
+-- the sum answerable from the index alone, as in V4.
+DROP INDEX idx_conta_paid_data_pagamento;
+CREATE INDEX idx_conta_paid_data_pagamento ON conta (data_pagamento) INCLUDE (valor) WHERE data_pagamento IS NOT NULL AND deleted_at IS NULL;
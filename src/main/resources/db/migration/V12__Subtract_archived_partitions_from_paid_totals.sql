@@ -0,0 +1,33 @@
+-- V12__Subtract_archived_partitions_from_paid_totals.sql
+-- Archiving a year detaches its partition, so its paid bills leave conta without a DELETE. The monthly paid
+-- totals still counted them, and whole-month ranges (answered from conta_monthly_paid_total) disagreed with
+-- partial-month ranges (answered from conta). The function now takes the partition's paid bills out of the totals,
+-- per payment month, in the same transaction as the DETACH. Soft-deleted bills already left the totals (V11).
+CREATE OR REPLACE FUNCTION archive_conta_partitions(p_before DATE) RETURNS SETOF TEXT
+LANGUAGE plpgsql AS $$
+DECLARE
+    v_partition RECORD;
+BEGIN
+    LOCK TABLE conta IN SHARE UPDATE EXCLUSIVE MODE;
+    -- Taken before reading the partition, as MonthlyPaidTotalService.rebuild does, so no concurrent payment is lost.
+    LOCK TABLE conta_monthly_paid_total IN EXCLUSIVE MODE;
+    CREATE SCHEMA IF NOT EXISTS conta_archive;
+    FOR v_partition IN
+        SELECT c.relname
+        FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'conta'::regclass AND c.relname ~ '^conta_y[0-9]{4}$'
+          AND make_date(substring(c.relname FROM 8)::INTEGER + 1, 1, 1) <= p_before
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('UPDATE conta_monthly_paid_total AS t SET total_value = t.total_value - archived.total_value, ' ||
+                       'bill_count = t.bill_count - archived.bill_count ' ||
+                       'FROM (SELECT CAST(date_trunc(''month'', data_pagamento) AS DATE) AS period, SUM(valor) AS total_value, COUNT(*) AS bill_count ' ||
+                       'FROM %I WHERE data_pagamento IS NOT NULL AND deleted_at IS NULL GROUP BY 1) AS archived ' ||
+                       'WHERE t.period = archived.period', v_partition.relname);
+        EXECUTE format('ALTER TABLE conta DETACH PARTITION %I', v_partition.relname);
+        EXECUTE format('ALTER TABLE %I SET SCHEMA conta_archive', v_partition.relname);
+        UPDATE conta_change_watermark SET version = version + 1 WHERE id = 1;
+        RETURN NEXT v_partition.relname;
+    END LOOP;
+END
+$$;
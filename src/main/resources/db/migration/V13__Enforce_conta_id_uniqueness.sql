@@ -0,0 +1,124 @@
+-- V13__Enforce_conta_id_uniqueness.sql
+-- Since V10 the primary key of conta is (id, data_vencimento), because unique constraints on a partitioned table
+-- must include the partition key. Entity updates and the batch deletes match on id alone, so a duplicate id would
+-- hit several bills. conta_id is a plain table holding every id in conta under a real primary key, kept in step by
+-- row triggers; inserting an id that is already in use fails with a unique violation.
+CREATE TABLE conta_id (
+    id BIGINT PRIMARY KEY
+);
+
+INSERT INTO conta_id SELECT id FROM conta;
+
+-- AFTER triggers, because a cross-partition UPDATE runs as a DELETE from the old partition followed by an INSERT
+-- into the new one: the DELETE event releases the id before the INSERT event claims it again, in that order.
+CREATE FUNCTION sync_conta_id() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO conta_id (id) VALUES (NEW.id);
+    ELSIF TG_OP = 'DELETE' THEN
+        DELETE FROM conta_id WHERE id = OLD.id;
+    ELSE
+        DELETE FROM conta_id WHERE id = OLD.id;
+        INSERT INTO conta_id (id) VALUES (NEW.id);
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER conta_id_insert AFTER INSERT ON conta
+    FOR EACH ROW EXECUTE FUNCTION sync_conta_id();
+
+CREATE TRIGGER conta_id_update AFTER UPDATE OF id ON conta
+    FOR EACH ROW WHEN (OLD.id IS DISTINCT FROM NEW.id) EXECUTE FUNCTION sync_conta_id();
+
+CREATE TRIGGER conta_id_delete AFTER DELETE ON conta
+    FOR EACH ROW EXECUTE FUNCTION sync_conta_id();
+
+CREATE FUNCTION truncate_conta_id() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    TRUNCATE conta_id;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER conta_id_truncate AFTER TRUNCATE ON conta
+    FOR EACH STATEMENT EXECUTE FUNCTION truncate_conta_id();
+
+-- Same as V10, except that the ids of the rows moved out of conta_default are claimed again: the DELETE released
+-- them, and the new partition has no triggers until it is attached.
+CREATE OR REPLACE FUNCTION create_conta_partition(p_year INTEGER) RETURNS BOOLEAN
+LANGUAGE plpgsql AS $$
+DECLARE
+    v_suffix TEXT := CASE WHEN p_year IS NULL THEN 'default' ELSE 'y' || p_year END;
+    v_partition TEXT := 'conta_' || v_suffix;
+    v_from DATE := make_date(p_year, 1, 1);
+    v_to DATE := make_date(p_year + 1, 1, 1);
+    v_index RECORD;
+BEGIN
+    IF to_regclass(v_partition) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE conta INCLUDING DEFAULTS)', v_partition);
+    IF p_year IS NOT NULL THEN
+        -- Lets ATTACH skip the validation scan, and carves the year out of the default partition.
+        EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I CHECK (data_vencimento >= %L AND data_vencimento < %L)',
+                       v_partition, v_partition || '_range', v_from, v_to);
+        IF to_regclass('conta_default') IS NOT NULL THEN
+            EXECUTE format('WITH moved AS (DELETE FROM conta_default WHERE data_vencimento >= %L AND data_vencimento < %L RETURNING *) ' ||
+                           'INSERT INTO %I SELECT * FROM moved', v_from, v_to, v_partition);
+            EXECUTE format('INSERT INTO conta_id (id) SELECT id FROM %I', v_partition);
+        END IF;
+    END IF;
+
+    FOR v_index IN
+        SELECT c.relname, pg_get_indexdef(i.indexrelid) AS definition
+        FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid
+        WHERE i.indrelid = 'conta'::regclass AND NOT i.indisprimary
+    LOOP
+        EXECUTE regexp_replace(v_index.definition, '^CREATE (UNIQUE )?INDEX \S+ ON ONLY \S+',
+                               'CREATE \1INDEX ' || quote_ident(v_index.relname || '_' || v_suffix) || ' ON ' || quote_ident(v_partition));
+    END LOOP;
+
+    IF p_year IS NULL THEN
+        EXECUTE format('ALTER TABLE conta ATTACH PARTITION %I DEFAULT', v_partition);
+    ELSE
+        EXECUTE format('ALTER TABLE conta ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', v_partition, v_from, v_to);
+        EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', v_partition, v_partition || '_range');
+    END IF;
+    RETURN TRUE;
+END
+$$;
+
+-- Same as V12, except that the ids of an archived partition are released: its rows leave conta without a DELETE.
+CREATE OR REPLACE FUNCTION archive_conta_partitions(p_before DATE) RETURNS SETOF TEXT
+LANGUAGE plpgsql AS $$
+DECLARE
+    v_partition RECORD;
+BEGIN
+    LOCK TABLE conta IN SHARE UPDATE EXCLUSIVE MODE;
+    -- Taken before reading the partition, as MonthlyPaidTotalService.rebuild does, so no concurrent payment is lost.
+    LOCK TABLE conta_monthly_paid_total IN EXCLUSIVE MODE;
+    CREATE SCHEMA IF NOT EXISTS conta_archive;
+    FOR v_partition IN
+        SELECT c.relname
+        FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'conta'::regclass AND c.relname ~ '^conta_y[0-9]{4}$'
+          AND make_date(substring(c.relname FROM 8)::INTEGER + 1, 1, 1) <= p_before
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('UPDATE conta_monthly_paid_total AS t SET total_value = t.total_value - archived.total_value, ' ||
+                       'bill_count = t.bill_count - archived.bill_count ' ||
+                       'FROM (SELECT CAST(date_trunc(''month'', data_pagamento) AS DATE) AS period, SUM(valor) AS total_value, COUNT(*) AS bill_count ' ||
+                       'FROM %I WHERE data_pagamento IS NOT NULL AND deleted_at IS NULL GROUP BY 1) AS archived ' ||
+                       'WHERE t.period = archived.period', v_partition.relname);
+        EXECUTE format('DELETE FROM conta_id WHERE id IN (SELECT id FROM %I)', v_partition.relname);
+        EXECUTE format('ALTER TABLE conta DETACH PARTITION %I', v_partition.relname);
+        EXECUTE format('ALTER TABLE %I SET SCHEMA conta_archive', v_partition.relname);
+        UPDATE conta_change_watermark SET version = version + 1 WHERE id = 1;
+        RETURN NEXT v_partition.relname;
+    END LOOP;
+END
+$$;
@@ -0,0 +1,10 @@
+-- V2__Create_conta_sequence.sql
+-- Replaces the SERIAL/IDENTITY id with a pooled sequence so Hibernate can batch inserts.
+-- INCREMENT BY must match Conta.ID_ALLOCATION_SIZE.
+ALTER TABLE conta ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE conta ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE conta ALTER COLUMN id TYPE BIGINT;
+DROP SEQUENCE IF EXISTS conta_id_seq;
+
+CREATE SEQUENCE conta_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('conta_seq', COALESCE((SELECT MAX(id) FROM conta), 0) + 50);
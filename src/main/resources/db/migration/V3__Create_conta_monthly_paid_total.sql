@@ -0,0 +1,13 @@
+-- V3__Create_conta_monthly_paid_total.sql
+-- Paid totals per month (period = first day of the month), maintained incrementally by the application.
+CREATE TABLE conta_monthly_paid_total (
+    period DATE PRIMARY KEY,
+    total_value DECIMAL(16, 2) NOT NULL,
+    bill_count BIGINT NOT NULL
+);
+
+INSERT INTO conta_monthly_paid_total (period, total_value, bill_count)
+SELECT CAST(date_trunc('month', data_pagamento) AS date), SUM(valor), COUNT(*)
+FROM conta
+WHERE data_pagamento IS NOT NULL
+GROUP BY CAST(date_trunc('month', data_pagamento) AS date);
@@ -0,0 +1,4 @@
+-- V4__Create_conta_paid_date_index.sql
+-- Serves the paid totals range query (data_pagamento BETWEEN ...) for paid rows only; valor is included
+-- so the sum can be answered from the index.
+CREATE INDEX idx_conta_paid_data_pagamento ON conta (data_pagamento) INCLUDE (valor) WHERE data_pagamento IS NOT NULL;
@@ -0,0 +1,3 @@
+-- V5__Create_conta_due_date_id_index.sql
+-- Keyset pagination of the listing walks (data_vencimento, id) in descending order.
+CREATE INDEX idx_conta_data_vencimento_id ON conta (data_vencimento, id);
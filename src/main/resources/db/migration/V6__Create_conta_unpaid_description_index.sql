@@ -0,0 +1,4 @@
+-- V6__Create_conta_unpaid_description_index.sql
+-- Serves the unpaid-by-description filter: exact descricao match, due date range, ordered by (data_vencimento, id)
+-- for both offset and keyset pagination. Only unpaid rows are indexed.
+CREATE INDEX idx_conta_unpaid_descricao_vencimento ON conta (descricao, data_vencimento, id) WHERE data_pagamento IS NULL;
@@ -0,0 +1,17 @@
+-- V7__Create_conta_unpaid_description_trgm_index.sql
+-- Optional trigram index for the case-insensitive "contains" description search (ILIKE '%...%') on unpaid rows.
+-- Skipped with a notice when pg_trgm is not installed on the server or the role may not create it; the search
+-- still works, only without the index.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_available_extensions WHERE name = 'pg_trgm') THEN
+        CREATE EXTENSION IF NOT EXISTS pg_trgm;
+        CREATE INDEX idx_conta_unpaid_descricao_trgm ON conta USING gin (descricao gin_trgm_ops) WHERE data_pagamento IS NULL;
+    ELSE
+        RAISE NOTICE 'pg_trgm is not available, skipping idx_conta_unpaid_descricao_trgm';
+    END IF;
+EXCEPTION
+    WHEN insufficient_privilege THEN
+        RAISE NOTICE 'Not allowed to create pg_trgm, skipping idx_conta_unpaid_descricao_trgm';
+END
+$$;
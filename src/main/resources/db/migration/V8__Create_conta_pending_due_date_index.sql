@@ -0,0 +1,3 @@
+-- V8__Create_conta_pending_due_date_index.sql
+-- Lets the overdue sweeper find PENDENTE bills past their due date without scanning paid or overdue rows.
+CREATE INDEX idx_conta_pending_data_vencimento ON conta (data_vencimento) WHERE situacao = 'PENDENTE' AND data_pagamento IS NULL;
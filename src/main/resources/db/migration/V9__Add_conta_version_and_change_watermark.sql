@@ -0,0 +1,37 @@
+-- V9__Add_conta_version_and_change_watermark.sql
+-- Row version for optimistic locking and per-bill ETags. Every writer bumps it, including set-based JDBC updates.
+ALTER TABLE conta ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Table-level change watermark for listing and aggregate ETags: one row, bumped once by every statement that
+-- actually changes conta. The bump is transactional, so a reader that reads the watermark before its data can
+-- never pair a new watermark with old rows.
+CREATE TABLE conta_change_watermark (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    version BIGINT NOT NULL
+);
+
+INSERT INTO conta_change_watermark (id, version) VALUES (1, 0);
+
+CREATE FUNCTION bump_conta_change_watermark() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'TRUNCATE' THEN
+        UPDATE conta_change_watermark SET version = version + 1 WHERE id = 1;
+    ELSIF EXISTS (SELECT 1 FROM changed_rows) THEN
+        UPDATE conta_change_watermark SET version = version + 1 WHERE id = 1;
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER conta_change_watermark_insert AFTER INSERT ON conta
+    REFERENCING NEW TABLE AS changed_rows FOR EACH STATEMENT EXECUTE FUNCTION bump_conta_change_watermark();
+
+CREATE TRIGGER conta_change_watermark_update AFTER UPDATE ON conta
+    REFERENCING NEW TABLE AS changed_rows FOR EACH STATEMENT EXECUTE FUNCTION bump_conta_change_watermark();
+
+CREATE TRIGGER conta_change_watermark_delete AFTER DELETE ON conta
+    REFERENCING OLD TABLE AS changed_rows FOR EACH STATEMENT EXECUTE FUNCTION bump_conta_change_watermark();
+
+CREATE TRIGGER conta_change_watermark_truncate AFTER TRUNCATE ON conta
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_conta_change_watermark();
@@ -0,0 +1,23 @@
+package com.srbruninho.contasapagar;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES;
+
+/**
+ * JPA slice test against an embedded PostgreSQL with the Flyway migrations applied, for queries and
+ * plans that depend on Postgres itself. Hibernate only validates the schema built by the migrations.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureEmbeddedDatabase(type = POSTGRES, provider = ZONKY)
+public @interface EmbeddedPostgresTest {
+}
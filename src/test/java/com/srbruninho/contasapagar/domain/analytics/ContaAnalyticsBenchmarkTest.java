@@ -0,0 +1,82 @@
+package com.srbruninho.contasapagar.domain.analytics;
+
+import com.srbruninho.contasapagar.EmbeddedPostgresTest;
+import com.srbruninho.contasapagar.domain.model.ContaAggregate;
+import com.srbruninho.contasapagar.domain.model.ContaAggregateGroup;
+import com.srbruninho.contasapagar.domain.repositories.ContaBatchRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Latency of the aggregates answered by a GROUP BY over conta against the same aggregates over the in-memory
+ * {@link ContaColumns} copy, plus the heap that copy needs per million bills. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@EmbeddedPostgresTest
+@Import(ContaBatchRepository.class)
+class ContaAnalyticsBenchmarkTest {
+
+    private static final int SEEDED_ROWS = 1_000_000;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int ITERATIONS = 20;
+
+    @Autowired
+    private ContaBatchRepository contaBatchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void benchmarkDatabaseVersusInMemoryAggregates() {
+        jdbcTemplate.queryForList("SELECT create_conta_partition(y) FROM generate_series(2015, 2024) AS y");
+        jdbcTemplate.update("INSERT INTO conta (id, data_vencimento, data_pagamento, valor, descricao, situacao)\n" +
+                "SELECT i, DATE '2015-01-01' + (i % 3650),\n" +
+                "       CASE WHEN i % 10 < 7 THEN DATE '2015-01-01' + (i % 3650) END,\n" +
+                "       10 + (i % 100), 'Fornecedor ' || (i % 5000),\n" +
+                "       CASE WHEN i % 10 < 7 THEN 'PAGA' ELSE 'PENDENTE' END\n" +
+                "FROM generate_series(1, ?) AS i", SEEDED_ROWS);
+        jdbcTemplate.execute("ANALYZE conta");
+
+        long loadStart = System.nanoTime();
+        ContaColumns columns = new ContaColumns();
+        contaBatchRepository.streamAll(null, null, columns::upsert);
+        double loadMillis = (System.nanoTime() - loadStart) / 1e6;
+        long bytesPerMillionRows = columns.footprintBytes() * 1_000_000 / columns.size();
+        System.out.printf("In-memory copy of %,d bills: loaded in %.0f ms, %.1f MB per million bills%n",
+                columns.size(), loadMillis, bytesPerMillionRows / (1024.0 * 1024.0));
+
+        LocalDate from = LocalDate.of(2018, 1, 1);
+        LocalDate to = LocalDate.of(2019, 12, 31);
+        for (ContaAggregateGroup group : List.of(ContaAggregateGroup.DUE_MONTH, ContaAggregateGroup.SITUACAO, ContaAggregateGroup.DESCRIPTION)) {
+            List<ContaAggregate> expected = contaBatchRepository.aggregate(group, from, to);
+            assertEquals(expected, columns.aggregate(group, from, to, ForkJoinPool.commonPool()), group.name());
+
+            double database = measure(() -> contaBatchRepository.aggregate(group, from, to));
+            double inMemory = measure(() -> columns.aggregate(group, from, to, ForkJoinPool.commonPool()));
+            System.out.printf("Aggregate by %s over 2 of 10 years: database = %.2f ms, in memory = %.3f ms%n", group, database, inMemory);
+            assertTrue(inMemory < database, group.name());
+        }
+    }
+
+    /**
+     * Average wall-clock time in milliseconds, driver round trip included, after a few warm-up runs.
+     */
+    private static double measure(Supplier<List<ContaAggregate>> aggregate) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++)
+            aggregate.get();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++)
+            aggregate.get();
+        return (System.nanoTime() - start) / 1e6 / ITERATIONS;
+    }
+}
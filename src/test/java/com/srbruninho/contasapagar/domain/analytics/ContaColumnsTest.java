@@ -0,0 +1,178 @@
+package com.srbruninho.contasapagar.domain.analytics;
+
+import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.model.ContaAggregate;
+import com.srbruninho.contasapagar.domain.model.ContaAggregateGroup;
+import com.srbruninho.contasapagar.domain.model.Situacao;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContaColumnsTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @Test
+    public void testAggregate_ByEveryGroup_ShouldCountAndSumPerKey() {
+        // Arrange
+        ContaColumns columns = new ContaColumns();
+        columns.upsert(conta(1L, "2024-01-10", "2024-01-09", "10.00", "Luz", Situacao.PAGA));
+        columns.upsert(conta(2L, "2024-01-20", null, "20.50", "Água", Situacao.ATRASADA));
+        columns.upsert(conta(3L, "2024-03-05", "2024-02-28", "5.25", "Luz", Situacao.PAGA));
+
+        // Act
+        List<ContaAggregate> byDueMonth = columns.aggregate(ContaAggregateGroup.DUE_MONTH, null, null, pool);
+        List<ContaAggregate> byPaymentMonth = columns.aggregate(ContaAggregateGroup.PAYMENT_MONTH, null, null, pool);
+        List<ContaAggregate> bySituacao = columns.aggregate(ContaAggregateGroup.SITUACAO, null, null, pool);
+        List<ContaAggregate> byDescription = columns.aggregate(ContaAggregateGroup.DESCRIPTION, null, null, pool);
+
+        // Assert
+        assertEquals(List.of(aggregate("2024-01", 2, "30.50"), aggregate("2024-03", 1, "5.25")), byDueMonth);
+        assertEquals(List.of(aggregate("2024-01", 1, "10.00"), aggregate("2024-02", 1, "5.25")), byPaymentMonth);
+        assertEquals(List.of(aggregate("ATRASADA", 1, "20.50"), aggregate("PAGA", 2, "15.25")), bySituacao);
+        assertEquals(List.of(aggregate("Luz", 2, "15.25"), aggregate("Água", 1, "20.50")), byDescription);
+    }
+
+    @Test
+    public void testAggregate_WithDueDateRange_ShouldOnlyCountBillsDueInside() {
+        // Arrange
+        ContaColumns columns = new ContaColumns();
+        columns.upsert(conta(1L, "2024-01-31", null, "10.00", "Luz", Situacao.PENDENTE));
+        columns.upsert(conta(2L, "2024-02-01", null, "20.00", "Luz", Situacao.PENDENTE));
+        columns.upsert(conta(3L, "2024-02-29", null, "30.00", "Luz", Situacao.PENDENTE));
+        columns.upsert(conta(4L, "2024-03-01", null, "40.00", "Luz", Situacao.PENDENTE));
+
+        // Act
+        List<ContaAggregate> aggregates = columns.aggregate(ContaAggregateGroup.DUE_MONTH,
+                LocalDate.parse("2024-02-01"), LocalDate.parse("2024-02-29"), pool);
+        List<ContaAggregate> outside = columns.aggregate(ContaAggregateGroup.DESCRIPTION,
+                LocalDate.parse("2025-01-01"), null, pool);
+
+        // Assert
+        assertEquals(List.of(aggregate("2024-02", 2, "50.00")), aggregates);
+        assertTrue(outside.isEmpty());
+    }
+
+    @Test
+    public void testUpsert_WhenStoredVersionIsNewer_ShouldKeepStoredRow() {
+        // Arrange
+        ContaColumns columns = new ContaColumns();
+        Conta current = conta(1L, "2024-01-10", null, "10.00", "Luz", Situacao.PENDENTE);
+        current.setVersion(3L);
+        Conta stale = conta(1L, "2024-01-10", null, "99.00", "Luz", Situacao.PENDENTE);
+        stale.setVersion(2L);
+        columns.upsert(current);
+
+        // Act
+        boolean applied = columns.upsert(stale);
+
+        // Assert
+        assertFalse(applied);
+        assertEquals(1, columns.size());
+        assertEquals(List.of(aggregate("Luz", 1, "10.00")), columns.aggregate(ContaAggregateGroup.DESCRIPTION, null, null, pool));
+    }
+
+    @Test
+    public void testRemove_ShouldMoveLastRowIntoTheGap() {
+        // Arrange
+        ContaColumns columns = new ContaColumns();
+        columns.upsert(conta(1L, "2024-01-10", null, "10.00", "Luz", Situacao.PENDENTE));
+        columns.upsert(conta(2L, "2024-01-10", null, "20.00", "Água", Situacao.PENDENTE));
+        columns.upsert(conta(3L, "2024-01-10", null, "30.00", "Gás", Situacao.PENDENTE));
+
+        // Act
+        boolean removed = columns.remove(1L);
+        boolean removedAgain = columns.remove(1L);
+        columns.upsert(conta(3L, "2024-01-10", null, "35.00", "Gás", Situacao.PENDENTE));
+
+        // Assert
+        assertTrue(removed);
+        assertFalse(removedAgain);
+        assertEquals(2, columns.size());
+        assertEquals(List.of(aggregate("Gás", 1, "35.00"), aggregate("Água", 1, "20.00")),
+                columns.aggregate(ContaAggregateGroup.DESCRIPTION, null, null, pool));
+    }
+
+    @Test
+    public void testMarkPaid_ShouldPayOnlyUnpaidBillsOnce() {
+        // Arrange
+        ContaColumns columns = new ContaColumns();
+        columns.upsert(conta(1L, "2024-01-10", null, "10.00", "Luz", Situacao.ATRASADA));
+        columns.upsert(conta(2L, "2024-01-10", "2024-01-05", "20.00", "Luz", Situacao.PAGA));
+        LocalDate paymentDate = LocalDate.parse("2024-02-15");
+
+        // Act
+        int paid = columns.markPaid(Set.of(1L, 2L, 9L), paymentDate);
+        int paidAgain = columns.markPaid(Set.of(1L), paymentDate);
+
+        // Assert
+        assertEquals(1, paid);
+        assertEquals(0, paidAgain);
+        assertEquals(List.of(aggregate("PAGA", 2, "30.00")), columns.aggregate(ContaAggregateGroup.SITUACAO, null, null, pool));
+        assertEquals(List.of(aggregate("2024-01", 1, "20.00"), aggregate("2024-02", 1, "10.00")),
+                columns.aggregate(ContaAggregateGroup.PAYMENT_MONTH, null, null, pool));
+    }
+
+    @Test
+    public void testAggregate_WhenSplitAcrossTasks_ShouldMatchSequentialSums() {
+        // Arrange
+        ContaColumns columns = new ContaColumns(16);
+        Random random = new Random(42);
+        Map<String, long[]> expected = new TreeMap<>();
+        List<Long> removed = new ArrayList<>();
+        for (long id = 1; id <= 10 * ContaColumns.MIN_ROWS_PER_TASK; id++) {
+            LocalDate due = LocalDate.parse("2015-01-01").plusDays(random.nextInt(3650));
+            long cents = 100 + random.nextInt(100_000);
+            columns.upsert(conta(id, due.toString(), null, BigDecimal.valueOf(cents, 2).toPlainString(), "D" + random.nextInt(50), Situacao.PENDENTE));
+            if (id % 7 == 0) {
+                removed.add(id);
+            } else {
+                long[] totals = expected.computeIfAbsent(due.toString().substring(0, 7), key -> new long[2]);
+                totals[0]++;
+                totals[1] += cents;
+            }
+        }
+        removed.forEach(columns::remove);
+
+        // Act
+        List<ContaAggregate> aggregates = columns.aggregate(ContaAggregateGroup.DUE_MONTH, null, null, pool);
+
+        // Assert
+        List<ContaAggregate> sequential = new ArrayList<>();
+        expected.forEach((month, totals) -> sequential.add(new ContaAggregate(month, totals[0], BigDecimal.valueOf(totals[1], 2))));
+        assertEquals(sequential, aggregates);
+        assertTrue(columns.footprintBytes() > 0);
+    }
+
+    @Test
+    public void testEpochMonth_ShouldMatchLocalDate() {
+        for (LocalDate day = LocalDate.parse("1899-12-01"); day.isBefore(LocalDate.parse("2101-03-01")); day = day.plusDays(1))
+            assertEquals(day.getYear() * 12 + day.getMonthValue() - 1, ContaColumns.epochMonth((int) day.toEpochDay()), day.toString());
+    }
+
+    private static Conta conta(Long id, String dataVencimento, String dataPagamento, String valor, String descricao, Situacao situacao) {
+        return Conta.builder()
+                .id(id)
+                .dataVencimento(LocalDate.parse(dataVencimento))
+                .dataPagamento(dataPagamento != null ? LocalDate.parse(dataPagamento) : null)
+                .valor(new BigDecimal(valor))
+                .descricao(descricao)
+                .situacao(situacao)
+                .version(0L)
+                .build();
+    }
+
+    private static ContaAggregate aggregate(String key, long count, String total) {
+        return new ContaAggregate(key, count, new BigDecimal(total));
+    }
+}
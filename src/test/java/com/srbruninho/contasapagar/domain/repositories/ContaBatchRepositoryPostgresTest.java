@@ -0,0 +1,277 @@
+package com.srbruninho.contasapagar.domain.repositories;
+
+import com.srbruninho.contasapagar.EmbeddedPostgresTest;
+import com.srbruninho.contasapagar.domain.analytics.ContaColumns;
+import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.model.ContaAggregate;
+import com.srbruninho.contasapagar.domain.model.ContaAggregateGroup;
+import com.srbruninho.contasapagar.domain.model.ContaDeleteFilter;
+import com.srbruninho.contasapagar.domain.model.ContaSummary;
+import com.srbruninho.contasapagar.domain.model.Situacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EmbeddedPostgresTest
+@Import(ContaBatchRepository.class)
+class ContaBatchRepositoryPostgresTest {
+
+    private static final long LOCK_KEY = 42L;
+
+    private static final LocalDate PAYMENT_DATE = LocalDate.of(2024, 6, 15);
+
+    @Autowired
+    private ContaBatchRepository contaBatchRepository;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.update("INSERT INTO conta (id, data_vencimento, data_pagamento, valor, descricao, situacao) VALUES\n" +
+                "(1, DATE '2024-06-10', NULL, 20.00, 'Luz', 'ATRASADA'),\n" +
+                "(2, DATE '2024-06-20', DATE '2024-06-01', 30.00, 'Agua', 'PAGA'),\n" +
+                "(3, DATE '2024-06-25', NULL, 40.00, 'Luz', 'PENDENTE'),\n" +
+                "(4, DATE '2024-07-05', NULL, 50.00, 'Gas', 'PENDENTE')");
+    }
+
+    @Test
+    public void testMarkPaid_ShouldOnlyPayUnpaidBills() {
+        // Act
+        Map<Long, BigDecimal> paid = contaBatchRepository.markPaid(List.of(1L, 2L, 99L), PAYMENT_DATE);
+
+        // Assert
+        assertEquals(Map.of(1L, new BigDecimal("20.00")), paid);
+        assertEquals("PAGA", jdbcTemplate.queryForObject("SELECT situacao FROM conta WHERE id = 1", String.class));
+        assertEquals(LocalDate.of(2024, 6, 1), jdbcTemplate.queryForObject("SELECT data_pagamento FROM conta WHERE id = 2", LocalDate.class));
+        assertEquals(Set.of(2L), contaBatchRepository.findExistingIds(List.of(2L, 99L)));
+    }
+
+    @Test
+    public void testInsertAll_WhenBillCarriesAnId_ShouldTakeANewOneFromTheSequence() {
+        // Arrange
+        // Bill 1 is due in 2024-06; the same id due in another month would land beside it, as the key is (id, data_vencimento).
+        Conta conta = Conta.builder().id(1L).dataVencimento(LocalDate.of(2024, 8, 1)).valor(new BigDecimal("10.00"))
+                .descricao("Luz").situacao(Situacao.PENDENTE).build();
+
+        // Act
+        contaBatchRepository.insertAll(new ArrayList<>(List.of(conta)));
+
+        // Assert
+        assertNotEquals(1L, conta.getId());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM conta WHERE id = 1", Long.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM conta WHERE id = ?", Long.class, conta.getId()));
+    }
+
+    @Test
+    public void testMarkPaidByDueDate_ShouldPayUnpaidBillsInRange() {
+        // Act
+        Map<Long, BigDecimal> paid = contaBatchRepository.markPaidByDueDate(LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 30), "Luz", PAYMENT_DATE);
+
+        // Assert
+        assertEquals(Set.of(1L, 3L), paid.keySet());
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT count(*) FROM conta WHERE data_pagamento = DATE '2024-06-15'", Integer.class));
+        assertNull(jdbcTemplate.queryForObject("SELECT data_pagamento FROM conta WHERE id = 4", LocalDate.class));
+    }
+
+    @Test
+    public void testCountUnpaidDueBetween_ShouldStopAtLimit() {
+        // Act & Assert
+        assertEquals(2, contaBatchRepository.countUnpaidDueBetween(LocalDate.of(2024, 6, 1), LocalDate.of(2024, 7, 31), null, 2));
+        assertEquals(3, contaBatchRepository.countUnpaidDueBetween(LocalDate.of(2024, 6, 1), LocalDate.of(2024, 7, 31), null, 10));
+        assertEquals(2, contaBatchRepository.countUnpaidDueBetween(LocalDate.of(2024, 6, 1), LocalDate.of(2024, 7, 31), "Luz", 10));
+    }
+
+    @Test
+    public void testAggregate_ShouldGroupInDatabaseLikeTheInMemoryColumns() {
+        // Arrange
+        ContaColumns columns = new ContaColumns();
+        contaBatchRepository.streamAll(null, null, columns::upsert);
+
+        for (ContaAggregateGroup group : ContaAggregateGroup.values()) {
+            // Act
+            List<ContaAggregate> all = contaBatchRepository.aggregate(group, null, null);
+            List<ContaAggregate> june = contaBatchRepository.aggregate(group, LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 30));
+
+            // Assert
+            assertEquals(columns.aggregate(group, null, null, ForkJoinPool.commonPool()), all, group.name());
+            assertEquals(columns.aggregate(group, LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 30), ForkJoinPool.commonPool()), june, group.name());
+        }
+        assertEquals(List.of(new ContaAggregate("Agua", 1, new BigDecimal("30.00")), new ContaAggregate("Luz", 2, new BigDecimal("60.00"))),
+                contaBatchRepository.aggregate(ContaAggregateGroup.DESCRIPTION, LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 30)));
+    }
+
+    @Test
+    public void testSummarize_ShouldTotalPerSituacaoAndAgingBucketInOnePass() {
+        // Act
+        ContaSummary summary = contaBatchRepository.summarize(LocalDate.of(2024, 9, 9));
+
+        // Assert
+        assertEquals(List.of(new ContaAggregate("PENDENTE", 2, new BigDecimal("90.00")),
+                new ContaAggregate("PAGA", 1, new BigDecimal("30.00")),
+                new ContaAggregate("ATRASADA", 1, new BigDecimal("20.00"))), summary.getBySituacao());
+        // Bill 1 is 91 days overdue, bills 3 and 4 are 76 and 66 days overdue.
+        assertEquals(List.of(new ContaAggregate("1-30", 0, new BigDecimal("0.00")),
+                new ContaAggregate("31-60", 0, new BigDecimal("0.00")),
+                new ContaAggregate("61-90", 2, new BigDecimal("90.00")),
+                new ContaAggregate("90+", 1, new BigDecimal("20.00"))), summary.getOverdueAging());
+        // A day earlier bill 1 is exactly 90 days overdue, the last day of 61-90.
+        List<ContaAggregate> dayBefore = contaBatchRepository.summarize(LocalDate.of(2024, 9, 8)).getOverdueAging();
+        assertEquals(new ContaAggregate("61-90", 3, new BigDecimal("110.00")), dayBefore.get(2));
+        assertEquals(new ContaAggregate("90+", 0, new BigDecimal("0.00")), dayBefore.get(3));
+    }
+
+    @Test
+    public void testMarkOverdue_ShouldFlipPendingBillsPastDueInChunks() {
+        // Act
+        OptionalLong transitioned = contaBatchRepository.markOverdue(LocalDate.of(2024, 6, 26), 1, LOCK_KEY);
+
+        // Assert
+        assertEquals(OptionalLong.of(1), transitioned);
+        assertEquals("ATRASADA", jdbcTemplate.queryForObject("SELECT situacao FROM conta WHERE id = 3", String.class));
+        assertEquals("PENDENTE", jdbcTemplate.queryForObject("SELECT situacao FROM conta WHERE id = 4", String.class));
+        assertEquals("PAGA", jdbcTemplate.queryForObject("SELECT situacao FROM conta WHERE id = 2", String.class));
+    }
+
+    @Test
+    public void testMarkOverdue_ShouldKeepGoingUntilNoPendingBillIsLeft() {
+        // Act
+        OptionalLong transitioned = contaBatchRepository.markOverdue(LocalDate.of(2024, 7, 10), 1, LOCK_KEY);
+
+        // Assert
+        assertEquals(OptionalLong.of(2), transitioned);
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM conta WHERE situacao = 'PENDENTE'", Integer.class));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void testMarkOverdue_WhenBillIsLockedByAnotherSession_ShouldSkipItAndSweepTheRest() throws Exception {
+        // Arrange: without a test transaction the rows of setUp are committed, so they are removed at the end.
+        try (Connection otherSession = dataSource.getConnection()) {
+            otherSession.setAutoCommit(false);
+            otherSession.createStatement().execute("SELECT id FROM conta WHERE id = 3 FOR UPDATE");
+
+            // Act
+            OptionalLong transitioned = contaBatchRepository.markOverdue(LocalDate.of(2024, 7, 10), 1, LOCK_KEY);
+
+            // Assert
+            assertEquals(OptionalLong.of(1), transitioned);
+            assertEquals("PENDENTE", jdbcTemplate.queryForObject("SELECT situacao FROM conta WHERE id = 3", String.class));
+            assertEquals("ATRASADA", jdbcTemplate.queryForObject("SELECT situacao FROM conta WHERE id = 4", String.class));
+            otherSession.rollback();
+        } finally {
+            jdbcTemplate.update("DELETE FROM conta");
+        }
+    }
+
+    @Test
+    public void testMarkOverdue_WhenLockHeldByAnotherSession_ShouldSkip() throws Exception {
+        // Arrange
+        try (Connection otherSession = dataSource.getConnection()) {
+            otherSession.createStatement().execute("SELECT pg_advisory_lock(" + LOCK_KEY + ")");
+
+            // Act
+            OptionalLong transitioned = contaBatchRepository.markOverdue(LocalDate.of(2024, 6, 26), 100, LOCK_KEY);
+
+            // Assert
+            assertTrue(transitioned.isEmpty());
+            assertEquals("PENDENTE", jdbcTemplate.queryForObject("SELECT situacao FROM conta WHERE id = 3", String.class));
+            otherSession.createStatement().execute("SELECT pg_advisory_unlock(" + LOCK_KEY + ")");
+        }
+    }
+
+    @Test
+    public void testDeleteChunk_ShouldDeleteMatchingBillsUpToLimitAndSubtractPaidTotals() {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO conta_monthly_paid_total (period, total_value, bill_count) VALUES (DATE '2024-06-01', 30.00, 1)");
+        ContaDeleteFilter filter = new ContaDeleteFilter(LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 30), null, null);
+
+        // Act
+        List<Long> first = contaBatchRepository.deleteChunk(filter, 2, false);
+        List<Long> second = contaBatchRepository.deleteChunk(filter, 2, false);
+
+        // Assert
+        assertEquals(2, first.size());
+        assertEquals(1, second.size());
+        assertEquals(Set.of(1L, 2L), Set.copyOf(first));
+        assertEquals(List.of(3L), second);
+        assertEquals(List.of(4L), jdbcTemplate.queryForList("SELECT id FROM conta", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT bill_count FROM conta_monthly_paid_total WHERE period = DATE '2024-06-01'", Long.class));
+    }
+
+    @Test
+    public void testDeleteChunk_WhenSoft_ShouldHideBillsUntilPurged() {
+        // Arrange
+        ContaDeleteFilter filter = new ContaDeleteFilter(LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 30), Situacao.PENDENTE, "Luz");
+
+        // Act
+        List<Long> deleted = contaBatchRepository.deleteChunk(filter, 100, true);
+
+        // Assert
+        assertEquals(List.of(3L), deleted);
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT count(*) FROM conta", Integer.class));
+        assertTrue(contaRepository.findById(3L).isEmpty());
+        assertTrue(contaRepository.findById(1L).isPresent());
+        assertEquals(Set.of(1L, 2L), contaBatchRepository.findExistingIds(List.of(1L, 2L, 3L)));
+        assertTrue(contaBatchRepository.deleteById(3L, true).isEmpty());
+
+        assertEquals(OptionalLong.of(0), contaBatchRepository.purgeDeleted(Instant.now().minus(Duration.ofHours(1)), 100, LOCK_KEY));
+        assertEquals(OptionalLong.of(1), contaBatchRepository.purgeDeleted(Instant.now().plus(Duration.ofMinutes(1)), 100, LOCK_KEY));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM conta WHERE id = 3", Integer.class));
+    }
+
+    @Test
+    public void testDeleteById_ShouldReturnDeletedBillOnce() {
+        // Act
+        Optional<Conta> deleted = contaBatchRepository.deleteById(2L, false);
+
+        // Assert
+        assertEquals(LocalDate.of(2024, 6, 1), deleted.orElseThrow().getDataPagamento());
+        assertEquals(new BigDecimal("30.00"), deleted.get().getValor());
+        assertTrue(contaBatchRepository.deleteById(2L, false).isEmpty());
+    }
+
+    @Test
+    public void testStreamAll_ShouldStreamRangeInDueDateOrder() {
+        // Arrange
+        List<Conta> streamed = new ArrayList<>();
+
+        // Act
+        long count = contaBatchRepository.streamAll(LocalDate.of(2024, 6, 15), null, streamed::add);
+
+        // Assert
+        assertEquals(3, count);
+        assertEquals(List.of(2L, 3L, 4L), streamed.stream().map(Conta::getId).toList());
+        Conta paid = streamed.get(0);
+        assertEquals(LocalDate.of(2024, 6, 1), paid.getDataPagamento());
+        assertEquals(new BigDecimal("30.00"), paid.getValor());
+        assertEquals(Situacao.PAGA, paid.getSituacao());
+        assertNull(streamed.get(1).getDataPagamento());
+    }
+}
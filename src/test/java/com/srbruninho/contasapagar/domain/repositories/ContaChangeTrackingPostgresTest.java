@@ -0,0 +1,131 @@
+package com.srbruninho.contasapagar.domain.repositories;
+
+import com.srbruninho.contasapagar.EmbeddedPostgresTest;
+import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.model.ContaPatch;
+import com.srbruninho.contasapagar.domain.model.Situacao;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EmbeddedPostgresTest
+@Import(ContaBatchRepository.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.srbruninho.contasapagar.domain.repositories.ContaChangeTrackingPostgresTest$RecordingStatementInspector")
+class ContaChangeTrackingPostgresTest {
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private ContaBatchRepository contaBatchRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testChangeWatermark_ShouldAdvanceOnlyWhenRowsChange() {
+        // Arrange
+        long initial = contaRepository.findChangeWatermark();
+
+        // Act
+        contaBatchRepository.insertAll(List.of(conta(null)));
+        long afterInsert = contaRepository.findChangeWatermark();
+        jdbcTemplate.update("UPDATE conta SET descricao = 'Agua' WHERE id = -1");
+        long afterNoOpUpdate = contaRepository.findChangeWatermark();
+        jdbcTemplate.update("DELETE FROM conta");
+        long afterDelete = contaRepository.findChangeWatermark();
+
+        // Assert
+        assertEquals(initial + 1, afterInsert);
+        assertEquals(afterInsert, afterNoOpUpdate);
+        assertEquals(afterInsert + 1, afterDelete);
+    }
+
+    @Test
+    public void testSave_ShouldIncrementVersion() {
+        // Arrange
+        Conta conta = contaRepository.saveAndFlush(conta(null));
+        assertEquals(0L, conta.getVersion());
+
+        // Act
+        conta.setDescricao("Agua");
+        Conta saved = contaRepository.saveAndFlush(conta);
+
+        // Assert
+        assertEquals(1L, saved.getVersion());
+        assertEquals(1L, jdbcTemplate.queryForObject("SELECT version FROM conta WHERE id = ?", Long.class, saved.getId()));
+    }
+
+    @Test
+    public void testSave_WhenVersionIsStale_ShouldFailWithOptimisticLock() {
+        // Arrange
+        Conta stored = contaRepository.saveAndFlush(conta(null));
+        entityManager.clear();
+        contaBatchRepository.markPaid(List.of(stored.getId()), LocalDate.of(2024, 6, 15));
+        Conta edit = conta(stored.getId());
+        edit.setVersion(stored.getVersion());
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> contaRepository.saveAndFlush(edit));
+        assertEquals(1L, jdbcTemplate.queryForObject("SELECT version FROM conta WHERE id = ?", Long.class, stored.getId()));
+    }
+
+    @Test
+    public void testPatch_ShouldLockRowAndUpdateOnlyChangedColumns() {
+        // Arrange
+        Long id = contaRepository.saveAndFlush(conta(null)).getId();
+        entityManager.clear();
+        RecordingStatementInspector.STATEMENTS.clear();
+
+        // Act
+        Conta locked = contaRepository.findByIdForUpdate(id).orElseThrow();
+        ContaPatch.builder().descricao("Agua").valor(new BigDecimal("25")).build().applyTo(locked);
+        contaRepository.flush();
+
+        // Assert
+        List<String> statements = List.copyOf(RecordingStatementInspector.STATEMENTS);
+        assertEquals(2, statements.size(), statements.toString());
+        assertTrue(statements.get(0).endsWith("for no key update") || statements.get(0).endsWith("for update"), statements.get(0));
+        String update = statements.get(1);
+        assertTrue(update.startsWith("update conta set descricao=?,version=? where"), update);
+        assertEquals(1L, locked.getVersion());
+    }
+
+    private static Conta conta(Long id) {
+        return Conta.builder()
+                .id(id)
+                .dataVencimento(LocalDate.of(2024, 6, 30))
+                .valor(new BigDecimal("25.00"))
+                .descricao("Luz")
+                .situacao(Situacao.PENDENTE)
+                .build();
+    }
+
+    /** Records the SQL Hibernate prepares, to assert on the shape of dynamic updates. */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
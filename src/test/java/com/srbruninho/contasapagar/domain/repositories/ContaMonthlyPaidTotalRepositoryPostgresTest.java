@@ -0,0 +1,60 @@
+package com.srbruninho.contasapagar.domain.repositories;
+
+import com.srbruninho.contasapagar.EmbeddedPostgresTest;
+import com.srbruninho.contasapagar.domain.repositories.projection.TotalValuePaidPerPeriodProjection;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EmbeddedPostgresTest
+class ContaMonthlyPaidTotalRepositoryPostgresTest {
+
+    @Autowired
+    private ContaMonthlyPaidTotalRepository contaMonthlyPaidTotalRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testAddPaidAmount_ShouldAccumulatePerMonth() {
+        // Act
+        contaMonthlyPaidTotalRepository.addPaidAmount(LocalDate.of(2024, 5, 3), new BigDecimal("10.00"), 1);
+        contaMonthlyPaidTotalRepository.addPaidAmount(LocalDate.of(2024, 5, 28), new BigDecimal("5.50"), 1);
+        contaMonthlyPaidTotalRepository.addPaidAmount(LocalDate.of(2024, 4, 30), new BigDecimal("7.00"), 1);
+        contaMonthlyPaidTotalRepository.addPaidAmount(LocalDate.of(2024, 4, 1), new BigDecimal("-7.00"), -1);
+
+        // Assert
+        List<TotalValuePaidPerPeriodProjection> totals = contaMonthlyPaidTotalRepository
+                .findTotalValuePaidPerPeriod(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), PageRequest.of(0, 10))
+                .getContent();
+        assertEquals(1, totals.size());
+        assertEquals(LocalDate.of(2024, 5, 1), totals.get(0).getPeriod());
+        assertEquals(new BigDecimal("15.50"), totals.get(0).getTotalValue());
+    }
+
+    @Test
+    public void testRebuild_ShouldRecomputeMonthsFromConta() {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO conta (id, data_vencimento, data_pagamento, valor, descricao, situacao) VALUES\n" +
+                "(1, DATE '2024-03-10', DATE '2024-03-09', 20.00, 'Luz', 'PAGA'),\n" +
+                "(2, DATE '2024-03-20', DATE '2024-03-21', 30.00, 'Agua', 'PAGA'),\n" +
+                "(3, DATE '2024-04-10', NULL, 40.00, 'Gas', 'PENDENTE')");
+        contaMonthlyPaidTotalRepository.addPaidAmount(LocalDate.of(2024, 3, 1), new BigDecimal("999.00"), 9);
+
+        // Act
+        contaMonthlyPaidTotalRepository.lockForRebuild();
+        contaMonthlyPaidTotalRepository.deleteMonths(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 1));
+        int months = contaMonthlyPaidTotalRepository.insertMonthsFromConta(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 1));
+
+        // Assert
+        assertEquals(1, months);
+        assertEquals(new BigDecimal("50.00"), contaMonthlyPaidTotalRepository.findById(LocalDate.of(2024, 3, 1)).orElseThrow().getTotalValue());
+    }
+}
@@ -0,0 +1,98 @@
+package com.srbruninho.contasapagar.domain.repositories;
+
+import com.srbruninho.contasapagar.EmbeddedPostgresTest;
+import com.srbruninho.contasapagar.domain.model.Conta;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Latency of OFFSET pagination (with its count query) against keyset pagination at increasing page depths.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@EmbeddedPostgresTest
+class ContaPaginationBenchmarkTest {
+
+    private static final int SEEDED_ROWS = 200_000;
+    private static final int PAGE_SIZE = 10;
+    private static final int[] PAGE_DEPTHS = {1, 1_000, 10_000};
+    private static final int ITERATIONS = 20;
+
+    // Keyset latency should stay flat with depth; the slack absorbs timer noise on sub-millisecond queries.
+    private static final double MAX_KEYSET_SLOWDOWN = 5;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void benchmarkOffsetVersusKeyset() {
+        jdbcTemplate.update("INSERT INTO conta (id, data_vencimento, data_pagamento, valor, descricao, situacao)\n" +
+                "SELECT i, DATE '2015-01-01' + (i % 3650), NULL, 10 + (i % 100), 'Conta ' || (i % 500), 'PENDENTE'\n" +
+                "FROM generate_series(1, ?) AS i", SEEDED_ROWS);
+        jdbcTemplate.execute("ANALYZE conta");
+
+        Sort sort = Sort.by("dataVencimento").descending().and(Sort.by("id").descending());
+        Pageable limit = PageRequest.of(0, PAGE_SIZE);
+        double firstKeysetMillis = 0;
+        double deepestOffsetMillis = 0;
+        double deepestKeysetMillis = 0;
+
+        for (int depth : PAGE_DEPTHS) {
+            int page = depth - 1;
+            List<Conta> previous = contaRepository.findAll(PageRequest.of(Math.max(0, page - 1), PAGE_SIZE, sort)).getContent();
+            Conta last = previous.get(previous.size() - 1);
+
+            Supplier<List<Conta>> offsetPage = () -> contaRepository.findAll(PageRequest.of(page, PAGE_SIZE, sort)).getContent();
+            Supplier<List<Conta>> keysetPage = () -> page == 0
+                    ? contaRepository.findFirstKeysetPage(limit)
+                    : contaRepository.findKeysetPageAfter(last.getDataVencimento(), last.getId(), limit);
+            assertEquals(ids(offsetPage.get()), ids(keysetPage.get()));
+
+            double offsetMillis = measure(offsetPage);
+            double keysetMillis = measure(keysetPage);
+
+            System.out.printf("Page %,d (%d rows/page, %,d rows): offset = %.2f ms, keyset = %.2f ms%n",
+                    depth, PAGE_SIZE, SEEDED_ROWS, offsetMillis, keysetMillis);
+            if (page == 0)
+                firstKeysetMillis = keysetMillis;
+            deepestOffsetMillis = offsetMillis;
+            deepestKeysetMillis = keysetMillis;
+        }
+
+        assertTrue(deepestKeysetMillis < deepestOffsetMillis,
+                String.format("keyset %.2f ms is not faster than offset %.2f ms at the deepest page", deepestKeysetMillis, deepestOffsetMillis));
+        assertTrue(deepestKeysetMillis < firstKeysetMillis * MAX_KEYSET_SLOWDOWN,
+                String.format("keyset took %.2f ms at the deepest page against %.2f ms at the first", deepestKeysetMillis, firstKeysetMillis));
+    }
+
+    private static List<Long> ids(List<Conta> contas) {
+        return contas.stream().map(Conta::getId).toList();
+    }
+
+    private double measure(Supplier<List<Conta>> query) {
+        query.get();
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertEquals(PAGE_SIZE, query.get().size());
+            entityManager.clear();
+        }
+        return (System.nanoTime() - startedAt) / 1e6 / ITERATIONS;
+    }
+}
@@ -0,0 +1,181 @@
+package com.srbruninho.contasapagar.domain.repositories;
+
+import com.srbruninho.contasapagar.EmbeddedPostgresTest;
+import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.model.ContaDeleteFilter;
+import com.srbruninho.contasapagar.domain.model.Situacao;
+import com.srbruninho.contasapagar.domain.repositories.projection.TotalValuePaidPerPeriodProjection;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EmbeddedPostgresTest
+@Import(ContaBatchRepository.class)
+class ContaPartitioningPostgresTest {
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private ContaBatchRepository contaBatchRepository;
+
+    @Autowired
+    private ContaMonthlyPaidTotalRepository contaMonthlyPaidTotalRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testEnsurePartitions_ShouldCarveParkedYearsOutOfDefaultPartition() {
+        // Arrange
+        contaBatchRepository.insertAll(List.of(conta(LocalDate.of(2019, 3, 10)), conta(LocalDate.of(2020, 7, 1)), conta(LocalDate.of(2020, 12, 31))));
+        assertEquals(3, partitionRows("conta_default"));
+
+        // Act
+        int created = contaBatchRepository.ensurePartitions(LocalDate.now().plusYears(1));
+
+        // Assert
+        assertEquals(2, created);
+        assertEquals(0, partitionRows("conta_default"));
+        assertEquals(1, partitionRows("conta_y2019"));
+        assertEquals(2, partitionRows("conta_y2020"));
+        assertTrue(indexes("conta_y2020").contains("idx_conta_data_vencimento_id_y2020"));
+        assertEquals(0, contaBatchRepository.ensurePartitions(LocalDate.now().plusYears(1)));
+        assertEquals(3, claimedIds());
+    }
+
+    @Test
+    public void testDueDateFilter_ShouldPruneOtherYears() {
+        // Arrange
+        contaBatchRepository.ensurePartitions(LocalDate.now().plusYears(1));
+        jdbcTemplate.queryForList("SELECT create_conta_partition(y) FROM generate_series(2019, 2021) AS y");
+
+        // Act
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM conta WHERE descricao = 'Luz' AND data_pagamento IS NULL\n" +
+                        "AND data_vencimento BETWEEN DATE '2020-03-01' AND DATE '2020-05-31' ORDER BY data_vencimento DESC, id DESC LIMIT 10",
+                String.class));
+
+        // Assert
+        assertTrue(plan.contains("conta_y2020"), plan);
+        assertFalse(plan.contains("conta_y2019") || plan.contains("conta_y2021") || plan.contains("conta_default"), plan);
+    }
+
+    @Test
+    public void testSave_WhenDueDateMovesToAnotherYear_ShouldMoveRowAndKeepIdLookups() {
+        // Arrange
+        jdbcTemplate.queryForList("SELECT create_conta_partition(y) FROM generate_series(2023, 2024) AS y");
+        Conta conta = contaRepository.saveAndFlush(conta(LocalDate.of(2023, 12, 20)));
+        long watermark = contaRepository.findChangeWatermark();
+
+        // Act
+        conta.setDataVencimento(LocalDate.of(2024, 1, 5));
+        contaRepository.saveAndFlush(conta);
+        entityManager.clear();
+
+        // Assert
+        assertEquals(0, partitionRows("conta_y2023"));
+        assertEquals(1, partitionRows("conta_y2024"));
+        assertEquals(LocalDate.of(2024, 1, 5), contaRepository.findById(conta.getId()).orElseThrow().getDataVencimento());
+        assertEquals(watermark + 1, contaRepository.findChangeWatermark());
+        assertEquals(List.of(conta.getId()), jdbcTemplate.queryForList("SELECT id FROM conta_id", Long.class));
+    }
+
+    @Test
+    public void testInsert_WhenIdIsInUseInAnotherPartition_ShouldFail() {
+        // Arrange
+        jdbcTemplate.queryForList("SELECT create_conta_partition(y) FROM generate_series(2023, 2024) AS y");
+        jdbcTemplate.update("INSERT INTO conta (id, data_vencimento, valor, descricao, situacao) VALUES (1, DATE '2023-05-10', 10.00, 'Luz', 'PENDENTE')");
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO conta (id, data_vencimento, valor, descricao, situacao) VALUES (1, DATE '2024-05-10', 10.00, 'Agua', 'PENDENTE')"));
+    }
+
+    @Test
+    public void testArchivePartitions_ShouldDetachOldYearsIntoArchiveSchema() {
+        // Arrange
+        jdbcTemplate.queryForList("SELECT create_conta_partition(y) FROM generate_series(2019, 2021) AS y");
+        contaBatchRepository.insertAll(List.of(conta(LocalDate.of(2019, 3, 10)), conta(LocalDate.of(2020, 7, 1)), conta(LocalDate.of(2021, 1, 15))));
+        long watermark = contaRepository.findChangeWatermark();
+
+        // Act
+        List<String> archived = contaBatchRepository.archivePartitions(LocalDate.of(2021, 1, 1));
+
+        // Assert
+        assertEquals(List.of("conta_y2019", "conta_y2020"), archived);
+        assertEquals(1, contaRepository.count());
+        assertEquals(1, contaRepository.findKeysetPageAfter(LocalDate.of(2022, 1, 1), 0L, PageRequest.of(0, 10)).size());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM conta_archive.conta_y2020", Long.class));
+        assertEquals(watermark + 2, contaRepository.findChangeWatermark());
+        assertEquals(1, claimedIds());
+    }
+
+    @Test
+    public void testArchivePartitions_ShouldTakeArchivedPaidBillsOutOfMonthlyTotals() {
+        // Arrange
+        jdbcTemplate.queryForList("SELECT create_conta_partition(y) FROM generate_series(2020, 2021) AS y");
+        contaBatchRepository.insertAll(List.of(
+                paid(LocalDate.of(2020, 12, 20), LocalDate.of(2021, 1, 5)),
+                paid(LocalDate.of(2020, 6, 10), LocalDate.of(2021, 1, 6)),
+                paid(LocalDate.of(2021, 1, 10), LocalDate.of(2021, 1, 20))));
+        // Soft-deleted bills already left the totals and must not be taken out twice.
+        contaBatchRepository.deleteChunk(new ContaDeleteFilter(LocalDate.of(2020, 6, 1), LocalDate.of(2020, 6, 30), null, null), 10, true);
+
+        // Act
+        contaBatchRepository.archivePartitions(LocalDate.of(2021, 1, 1));
+
+        // Assert
+        PageRequest page = PageRequest.of(0, 10);
+        List<TotalValuePaidPerPeriodProjection> wholeMonth = contaMonthlyPaidTotalRepository
+                .findTotalValuePaidPerPeriod(LocalDate.of(2021, 1, 1), LocalDate.of(2021, 1, 31), page).getContent();
+        List<TotalValuePaidPerPeriodProjection> partialMonth = contaRepository
+                .getTotalValuePaidPerPeriod(LocalDate.of(2021, 1, 1), LocalDate.of(2021, 1, 30), page).getContent();
+        assertEquals(1, wholeMonth.size());
+        assertEquals(1, partialMonth.size());
+        assertEquals(0, new BigDecimal("25.00").compareTo(wholeMonth.get(0).getTotalValue()));
+        assertEquals(0, wholeMonth.get(0).getTotalValue().compareTo(partialMonth.get(0).getTotalValue()));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT bill_count FROM conta_monthly_paid_total WHERE period = DATE '2021-01-01'", Long.class));
+    }
+
+    private long claimedIds() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM conta_id", Long.class);
+    }
+
+    private long partitionRows(String partition) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + partition, Long.class);
+    }
+
+    private List<String> indexes(String table) {
+        return jdbcTemplate.queryForList("SELECT indexname FROM pg_indexes WHERE tablename = ?", String.class, table);
+    }
+
+    private static Conta paid(LocalDate dataVencimento, LocalDate dataPagamento) {
+        Conta conta = conta(dataVencimento);
+        conta.setDataPagamento(dataPagamento);
+        conta.setSituacao(Situacao.PAGA);
+        return conta;
+    }
+
+    private static Conta conta(LocalDate dataVencimento) {
+        return Conta.builder()
+                .dataVencimento(dataVencimento)
+                .valor(new BigDecimal("25.00"))
+                .descricao("Luz")
+                .situacao(Situacao.PENDENTE)
+                .build();
+    }
+}
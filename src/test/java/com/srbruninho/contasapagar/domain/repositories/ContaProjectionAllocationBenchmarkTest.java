@@ -0,0 +1,118 @@
+package com.srbruninho.contasapagar.domain.repositories;
+
+import com.srbruninho.contasapagar.EmbeddedPostgresTest;
+import com.srbruninho.contasapagar.api.converter.ContaConverter;
+import com.srbruninho.contasapagar.api.dto.ContaDTO;
+import com.srbruninho.contasapagar.domain.model.Conta;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bytes allocated per read request when loading managed entities and converting them with {@link ContaConverter},
+ * against selecting straight into {@link ContaDTO}. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@EmbeddedPostgresTest
+class ContaProjectionAllocationBenchmarkTest {
+
+    private static final int SEEDED_ROWS = 100_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 500;
+
+    private static final LocalDate START_DATE = LocalDate.of(2015, 1, 1);
+    private static final LocalDate END_DATE = LocalDate.of(2024, 12, 31);
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void benchmarkEntityVersusProjection() {
+        jdbcTemplate.update("INSERT INTO conta (id, data_vencimento, data_pagamento, valor, descricao, situacao)\n" +
+                "SELECT i, DATE '2015-01-01' + (i % 3650), NULL, 10 + (i % 100), 'Conta ' || (i % 50), 'PENDENTE'\n" +
+                "FROM generate_series(1, ?) AS i", SEEDED_ROWS);
+        jdbcTemplate.execute("ANALYZE conta");
+
+        Pageable pageable = PageRequest.of(0, PAGE_SIZE, Sort.by("dataVencimento").descending());
+
+        long entityPage = measure(() -> contaRepository.findAll(pageable).map(ContaConverter::toDTO));
+        long dtoPage = measure(() -> contaRepository.findAllDTOs(pageable));
+        report("getAll", PAGE_SIZE, entityPage, dtoPage);
+
+        long entityUnpaid = measure(() -> findUnpaidEntities("Conta 7", pageable).map(ContaConverter::toDTO));
+        long dtoUnpaid = measure(() -> contaRepository.findUnpaidByDescription(START_DATE, END_DATE, "Conta 7", pageable));
+        report("getPendingBills", PAGE_SIZE, entityUnpaid, dtoUnpaid);
+
+        long entityById = measure(() -> contaRepository.findById(42L).map(ContaConverter::toDTO));
+        long dtoById = measure(() -> contaRepository.findDTOById(42L));
+        report("getById", 1, entityById, dtoById);
+
+        assertTrue(dtoPage < entityPage, "projection should allocate less than entities for a page");
+    }
+
+    /** The entity query getPendingBills ran before it selected into {@link ContaDTO}. */
+    private Page<Conta> findUnpaidEntities(String description, Pageable pageable) {
+        List<Conta> content = entityManager.getEntityManager()
+                .createQuery("SELECT c FROM Conta c WHERE c.descricao = :description AND c.dataPagamento IS NULL\n" +
+                        "AND c.dataVencimento BETWEEN :startDate AND :endDate ORDER BY c.dataVencimento DESC", Conta.class)
+                .setParameter("description", description)
+                .setParameter("startDate", START_DATE)
+                .setParameter("endDate", END_DATE)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        long total = entityManager.getEntityManager()
+                .createQuery("SELECT count(c) FROM Conta c WHERE c.descricao = :description AND c.dataPagamento IS NULL\n" +
+                        "AND c.dataVencimento BETWEEN :startDate AND :endDate", Long.class)
+                .setParameter("description", description)
+                .setParameter("startDate", START_DATE)
+                .setParameter("endDate", END_DATE)
+                .getSingleResult();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private long measure(Supplier<?> request) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP; i++) {
+            assertNotNull(request.get());
+            entityManager.clear();
+        }
+        long total = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            Object result = request.get();
+            entityManager.clear();
+            total += threads.getThreadAllocatedBytes(threadId) - before;
+            if (result instanceof Page<?> page)
+                assertEquals(PAGE_SIZE, page.getNumberOfElements());
+        }
+        return total / ITERATIONS;
+    }
+
+    private static void report(String endpoint, int rows, long entityBytes, long dtoBytes) {
+        System.out.printf("%s (%d rows): entity + converter = %,d B/request, DTO projection = %,d B/request (%+.0f%%)%n",
+                endpoint, rows, entityBytes, dtoBytes, 100.0 * (dtoBytes - entityBytes) / entityBytes);
+    }
+}
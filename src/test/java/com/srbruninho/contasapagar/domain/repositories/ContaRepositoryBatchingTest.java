@@ -0,0 +1,84 @@
+package com.srbruninho.contasapagar.domain.repositories;
+
+import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.model.Situacao;
+import org.hibernate.BaseSessionEventListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session.events.auto=com.srbruninho.contasapagar.domain.repositories.ContaRepositoryBatchingTest$JdbcStatementCounter"
+})
+class ContaRepositoryBatchingTest {
+
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    public void setUp() {
+        JdbcStatementCounter.reset();
+    }
+
+    @Test
+    public void testSaveAll_ShouldSendInsertsAsJdbcBatches() {
+        // Arrange
+        int rows = 1000;
+        List<Conta> contas = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            contas.add(Conta.builder()
+                    .descricao("Conta " + i)
+                    .valor(BigDecimal.TEN)
+                    .dataVencimento(LocalDate.now())
+                    .situacao(Situacao.PENDENTE)
+                    .build());
+        }
+
+        // Act
+        contaRepository.saveAll(contas);
+        entityManager.flush();
+
+        // Assert
+        assertEquals(rows / BATCH_SIZE, JdbcStatementCounter.BATCHES.get());
+        assertTrue(JdbcStatementCounter.STATEMENTS.get() <= rows / Conta.ID_ALLOCATION_SIZE + 1,
+                "Only sequence calls should run as single statements, got " + JdbcStatementCounter.STATEMENTS.get());
+    }
+
+    public static class JdbcStatementCounter extends BaseSessionEventListener {
+
+        static final AtomicInteger BATCHES = new AtomicInteger();
+        static final AtomicInteger STATEMENTS = new AtomicInteger();
+
+        static void reset() {
+            BATCHES.set(0);
+            STATEMENTS.set(0);
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            BATCHES.incrementAndGet();
+        }
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            STATEMENTS.incrementAndGet();
+        }
+    }
+}
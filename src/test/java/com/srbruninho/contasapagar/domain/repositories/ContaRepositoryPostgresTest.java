@@ -0,0 +1,205 @@
+package com.srbruninho.contasapagar.domain.repositories;
+
+import com.srbruninho.contasapagar.EmbeddedPostgresTest;
+import com.srbruninho.contasapagar.api.dto.ContaDTO;
+import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.repositories.projection.TotalValuePaidPerPeriodProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EmbeddedPostgresTest
+class ContaRepositoryPostgresTest {
+
+    private static final int SEEDED_ROWS = 300_000;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        // Ten years of bills due from 2015 on, roughly 70% of them paid a few days before the due date, each year
+        // in its own partition.
+        jdbcTemplate.queryForList("SELECT create_conta_partition(y) FROM generate_series(2015, 2024) AS y");
+        jdbcTemplate.update("INSERT INTO conta (id, data_vencimento, data_pagamento, valor, descricao, situacao)\n" +
+                "SELECT i, DATE '2015-01-01' + (i % 3650),\n" +
+                "       CASE WHEN i % 10 < 7 THEN DATE '2015-01-01' + (i % 3650) - (i % 5) END,\n" +
+                "       10 + (i % 100), 'Conta ' || (i % 500),\n" +
+                "       CASE WHEN i % 10 < 7 THEN 'PAGA' ELSE 'PENDENTE' END\n" +
+                "FROM generate_series(1, ?) AS i", SEEDED_ROWS);
+        jdbcTemplate.execute("ANALYZE conta");
+    }
+
+    @Test
+    public void testGetTotalValuePaidPerPeriod_ShouldSumPaymentsInsideRangeInChronologicalOrder() {
+        // Arrange
+        LocalDate startDate = LocalDate.of(2023, 11, 15);
+        LocalDate endDate = LocalDate.of(2024, 2, 10);
+        Map<LocalDate, BigDecimal> expected = jdbcTemplate.queryForList(
+                        "SELECT date_trunc('month', data_pagamento)::date AS period, SUM(valor) AS total FROM conta\n" +
+                                "WHERE data_pagamento >= ? AND data_pagamento <= ? GROUP BY 1", startDate, endDate).stream()
+                .collect(Collectors.toMap(row -> ((java.sql.Date) row.get("period")).toLocalDate(), row -> (BigDecimal) row.get("total")));
+
+        // Act
+        Page<TotalValuePaidPerPeriodProjection> result = contaRepository.getTotalValuePaidPerPeriod(startDate, endDate, PageRequest.of(0, 10));
+
+        // Assert
+        List<LocalDate> periods = result.getContent().stream().map(TotalValuePaidPerPeriodProjection::getPeriod).toList();
+        assertEquals(List.of(LocalDate.of(2023, 11, 1), LocalDate.of(2023, 12, 1), LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1)), periods);
+        assertEquals(4, result.getTotalElements());
+        result.getContent().forEach(total -> assertEquals(0, expected.get(total.getPeriod()).compareTo(total.getTotalValue())));
+    }
+
+    @Test
+    public void testGetTotalValuePaidPerPeriod_ShouldUsePartialPaidDateIndex() {
+        // Act
+        String plan = String.join("\n", new NamedParameterJdbcTemplate(jdbcTemplate).queryForList(
+                "EXPLAIN " + ContaRepository.TOTAL_VALUE_PAID_PER_PERIOD_QUERY,
+                Map.of("startDate", LocalDate.of(2024, 1, 1), "endDate", LocalDate.of(2024, 3, 31)),
+                String.class));
+
+        // Assert
+        assertTrue(plan.contains("idx_conta_paid_data_pagamento"), plan);
+        assertFalse(seqScansSeededPartition(plan), plan);
+    }
+
+    @Test
+    public void testKeysetPages_ShouldWalkTheSameOrderAsOffsetPagination() {
+        // Arrange
+        Pageable limit = PageRequest.of(0, 25);
+        List<Long> offsetIds = contaRepository.findAll(PageRequest.of(0, 100, Sort.by("dataVencimento").descending().and(Sort.by("id").descending())))
+                .map(Conta::getId).getContent();
+
+        // Act
+        List<Long> keysetIds = new ArrayList<>();
+        List<Conta> page = contaRepository.findFirstKeysetPage(limit);
+        while (keysetIds.size() < 100) {
+            page.forEach(conta -> keysetIds.add(conta.getId()));
+            Conta last = page.get(page.size() - 1);
+            page = contaRepository.findKeysetPageAfter(last.getDataVencimento(), last.getId(), limit);
+        }
+
+        // Assert
+        assertEquals(offsetIds, keysetIds);
+    }
+
+    @Test
+    public void testKeysetPage_ShouldSeekIntoDueDateIndexWithoutSorting() {
+        // Act
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM conta WHERE data_vencimento <= DATE '2018-06-01' AND (data_vencimento, id) < (DATE '2018-06-01', 100)\n" +
+                        "ORDER BY data_vencimento DESC, id DESC LIMIT 11",
+                String.class));
+
+        // Assert
+        assertTrue(plan.contains("Index Scan Backward using idx_conta_data_vencimento_id"), plan);
+        // Partitions are merged in index order (Merge Append); there is no Sort node.
+        assertFalse(plan.contains("Sort  ("), plan);
+        assertFalse(plan.contains("conta_y2019"), plan);
+    }
+
+    @Test
+    public void testFindAllDTOs_ShouldMatchEntityPage() {
+        // Arrange
+        Pageable pageable = PageRequest.of(3, 50, Sort.by("dataVencimento").descending().and(Sort.by("id").descending()));
+        List<Conta> entities = contaRepository.findAll(pageable).getContent();
+
+        // Act
+        Page<ContaDTO> result = contaRepository.findAllDTOs(pageable);
+
+        // Assert
+        assertEquals(SEEDED_ROWS, result.getTotalElements());
+        assertEquals(entities.stream().map(Conta::getId).toList(), result.getContent().stream().map(ContaDTO::getId).toList());
+        assertEquals(entities.get(0).getValor(), result.getContent().get(0).getValor());
+        assertEquals(entities.get(0).getSituacao(), result.getContent().get(0).getSituacao());
+    }
+
+    @Test
+    public void testFindDTOById_ShouldProjectAllColumns() {
+        // Act
+        ContaDTO result = contaRepository.findDTOById(6L).orElseThrow();
+
+        // Assert
+        assertEquals(6L, result.getId());
+        assertEquals(LocalDate.of(2015, 1, 7), result.getDataVencimento());
+        assertEquals(LocalDate.of(2015, 1, 6), result.getDataPagamento());
+        assertEquals(0, new BigDecimal("16").compareTo(result.getValor()));
+        assertEquals("Conta 6", result.getDescricao());
+        assertTrue(contaRepository.findDTOById(-1L).isEmpty());
+    }
+
+    @Test
+    public void testFindUnpaidByDescription_ShouldReturnOnlyUnpaidBillsWithExactDescription() {
+        // Act
+        Page<ContaDTO> result = contaRepository.findUnpaidByDescription(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31), "Conta 47", PageRequest.of(0, 500));
+
+        // Assert
+        assertFalse(result.isEmpty());
+        result.forEach(conta -> {
+            assertEquals("Conta 47", conta.getDescricao());
+            assertNull(conta.getDataPagamento());
+        });
+    }
+
+    @Test
+    public void testFindUnpaidByDescriptionLike_ShouldMatchCaseInsensitiveSubstring() {
+        // Act
+        Page<ContaDTO> result = contaRepository.findUnpaidByDescriptionLike(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31), "%ONTA 42%", PageRequest.of(0, 500));
+
+        // Assert
+        assertFalse(result.isEmpty());
+        result.forEach(conta -> {
+            assertTrue(conta.getDescricao().startsWith("Conta 42"), conta.getDescricao());
+            assertNull(conta.getDataPagamento());
+        });
+    }
+
+    @Test
+    public void testUnpaidExactDescriptionFilter_ShouldUseCompositePartialIndex() {
+        // Act
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM conta WHERE descricao = 'Conta 42' AND data_pagamento IS NULL\n" +
+                        "AND data_vencimento BETWEEN DATE '2020-01-01' AND DATE '2020-12-31' ORDER BY data_vencimento DESC, id DESC LIMIT 10",
+                String.class));
+
+        // Assert
+        assertTrue(plan.contains("idx_conta_unpaid_descricao_vencimento"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+        assertFalse(plan.contains("conta_y2019") || plan.contains("conta_y2021") || plan.contains("conta_default"), plan);
+    }
+
+    @Test
+    public void testUnpaidContainsDescriptionFilter_ShouldHaveTrigramIndexOnEveryPartition() {
+        // A yearly partition of the seeded size is small enough that the planner rather scans its unpaid rows; the
+        // trigram index pays off once partitions grow, so it must exist on each of them.
+        // Act
+        List<String> indexes = jdbcTemplate.queryForList("SELECT indexname FROM pg_indexes WHERE indexname LIKE 'idx_conta_unpaid_descricao_trgm_y%'", String.class);
+
+        // Assert
+        for (int year = 2015; year <= 2024; year++)
+            assertTrue(indexes.contains("idx_conta_unpaid_descricao_trgm_y" + year), indexes.toString());
+    }
+
+    /** Empty partitions are always scanned sequentially, at no cost; only partitions holding seeded rows matter. */
+    private static boolean seqScansSeededPartition(String plan) {
+        return plan.matches("(?s).*Seq Scan on conta_y20(1[5-9]|2[0-4]).*");
+    }
+}
@@ -0,0 +1,103 @@
+package com.srbruninho.contasapagar.domain.repositories;
+
+import com.srbruninho.contasapagar.EmbeddedPostgresTest;
+import com.srbruninho.contasapagar.domain.model.AgingBucket;
+import com.srbruninho.contasapagar.domain.model.ContaAggregate;
+import com.srbruninho.contasapagar.domain.model.ContaSummary;
+import com.srbruninho.contasapagar.domain.model.Situacao;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Latency of the single-pass dashboard summary against the one-query-per-figure approach it replaces (one query
+ * per situacao and per aging bucket), and against a short-TTL cache in front of it. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@EmbeddedPostgresTest
+@Import(ContaBatchRepository.class)
+class ContaSummaryBenchmarkTest {
+
+    private static final int SEEDED_ROWS = 3_000_000;
+    private static final int ITERATIONS = 10;
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 30);
+
+    @Autowired
+    private ContaBatchRepository contaBatchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void benchmarkSinglePassVersusQueryPerFigure() {
+        jdbcTemplate.queryForList("SELECT create_conta_partition(y) FROM generate_series(2015, 2024) AS y");
+        jdbcTemplate.update("INSERT INTO conta (id, data_vencimento, data_pagamento, valor, descricao, situacao)\n" +
+                "SELECT i, DATE '2015-01-01' + (i % 3650),\n" +
+                "       CASE WHEN i % 10 < 7 THEN DATE '2015-01-01' + (i % 3650) END,\n" +
+                "       10 + (i % 100), 'Fornecedor ' || (i % 5000),\n" +
+                "       CASE WHEN i % 10 < 7 THEN 'PAGA' WHEN i % 10 < 9 THEN 'ATRASADA' ELSE 'PENDENTE' END\n" +
+                "FROM generate_series(1, ?) AS i", SEEDED_ROWS);
+        jdbcTemplate.execute("ANALYZE conta");
+
+        ContaSummary summary = contaBatchRepository.summarize(TODAY);
+        assertEquals(summary, queryPerFigure());
+        assertEquals(SEEDED_ROWS, summary.getBySituacao().stream().mapToLong(ContaAggregate::getCount).sum());
+
+        double singlePass = measure(() -> contaBatchRepository.summarize(TODAY));
+        double perFigure = measure(this::queryPerFigure);
+        Cache<LocalDate, ContaSummary> cache = Caffeine.newBuilder().expireAfterWrite(Duration.ofSeconds(30)).build();
+        double cached = measure(() -> cache.get(TODAY, contaBatchRepository::summarize));
+
+        System.out.printf("Dashboard summary on %,d rows: single pass = %.1f ms, %d queries = %.1f ms, cached = %.3f ms%n",
+                SEEDED_ROWS, singlePass, Situacao.values().length + AgingBucket.values().length, perFigure, cached);
+        assertTrue(singlePass < perFigure);
+    }
+
+    /**
+     * What the dashboard used to add up client side: one count/sum query per situacao and per aging bucket.
+     */
+    private ContaSummary queryPerFigure() {
+        List<ContaAggregate> bySituacao = new ArrayList<>();
+        for (Situacao situacao : Situacao.values())
+            bySituacao.add(aggregate(situacao.name(), "situacao = ?", situacao.name()));
+        List<ContaAggregate> overdueAging = new ArrayList<>();
+        for (AgingBucket bucket : AgingBucket.values()) {
+            Date newest = Date.valueOf(TODAY.minusDays(bucket.getMinDaysOverdue()));
+            overdueAging.add(bucket.getMaxDaysOverdue() != null
+                    ? aggregate(bucket.getLabel(), "data_pagamento IS NULL AND data_vencimento BETWEEN ? AND ?", Date.valueOf(TODAY.minusDays(bucket.getMaxDaysOverdue())), newest)
+                    : aggregate(bucket.getLabel(), "data_pagamento IS NULL AND data_vencimento <= ?", newest));
+        }
+        return new ContaSummary(TODAY, bySituacao, overdueAging);
+    }
+
+    private ContaAggregate aggregate(String key, String condition, Object... parameters) {
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT count(*) AS count, coalesce(sum(valor), 0.00) AS total FROM conta WHERE " + condition, parameters);
+        return new ContaAggregate(key, ((Number) row.get("count")).longValue(), (BigDecimal) row.get("total"));
+    }
+
+    /**
+     * Average wall-clock time in milliseconds, driver round trips included.
+     */
+    private static double measure(Runnable summary) {
+        summary.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++)
+            summary.run();
+        return (System.nanoTime() - start) / 1e6 / ITERATIONS;
+    }
+}
@@ -0,0 +1,74 @@
+package com.srbruninho.contasapagar.domain.repositories;
+
+import com.srbruninho.contasapagar.EmbeddedPostgresTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Server-side latency of the unpaid-by-description filter (exact and contains) with the V6/V7 indexes, against the same
+ * queries with index scans disabled. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@EmbeddedPostgresTest
+class ContaUnpaidFilterBenchmarkTest {
+
+    private static final int SEEDED_ROWS = 1_000_000;
+    private static final int ITERATIONS = 20;
+
+    // Same SQL the repository issues for page 0 of the exact and contains filters
+    private static final String EXACT_QUERY = "SELECT * FROM conta WHERE data_vencimento BETWEEN DATE '2018-01-01' AND DATE '2019-12-31' " +
+            "AND descricao = 'Fornecedor 4247' AND data_pagamento IS NULL ORDER BY data_vencimento DESC LIMIT 10";
+    private static final String CONTAINS_QUERY = "SELECT * FROM conta WHERE data_vencimento BETWEEN DATE '2018-01-01' AND DATE '2019-12-31' " +
+            "AND descricao ILIKE '%necedor 4247%' AND data_pagamento IS NULL ORDER BY data_vencimento DESC LIMIT 10";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void benchmarkIndexedVersusSequentialScan() {
+        jdbcTemplate.queryForList("SELECT create_conta_partition(y) FROM generate_series(2015, 2024) AS y");
+        jdbcTemplate.update("INSERT INTO conta (id, data_vencimento, data_pagamento, valor, descricao, situacao)\n" +
+                "SELECT i, DATE '2015-01-01' + (i % 3650),\n" +
+                "       CASE WHEN i % 10 < 7 THEN DATE '2015-01-01' + (i % 3650) END,\n" +
+                "       10 + (i % 100), 'Fornecedor ' || (i % 5000),\n" +
+                "       CASE WHEN i % 10 < 7 THEN 'PAGA' ELSE 'PENDENTE' END\n" +
+                "FROM generate_series(1, ?) AS i", SEEDED_ROWS);
+        jdbcTemplate.execute("ANALYZE conta");
+
+        double exactIndexed = measure(EXACT_QUERY, "idx_conta_unpaid_descricao_vencimento");
+        double containsIndexed = measure(CONTAINS_QUERY, "idx_conta_unpaid_descricao_trgm");
+
+        jdbcTemplate.execute("SET LOCAL enable_indexscan = off");
+        jdbcTemplate.execute("SET LOCAL enable_bitmapscan = off");
+        jdbcTemplate.execute("SET LOCAL enable_indexonlyscan = off");
+        double exactSequential = measure(EXACT_QUERY, "Seq Scan");
+        double containsSequential = measure(CONTAINS_QUERY, "Seq Scan");
+
+        System.out.printf("Unpaid filter on %,d rows (server execution time): exact = %.2f ms (seq scan %.2f ms), contains = %.2f ms (seq scan %.2f ms)%n",
+                SEEDED_ROWS, exactIndexed, exactSequential, containsIndexed, containsSequential);
+        assertTrue(exactIndexed < exactSequential);
+        assertTrue(containsIndexed < containsSequential);
+    }
+
+    /**
+     * Average server-side execution time reported by EXPLAIN ANALYZE, so the comparison is not drowned out by
+     * driver and Hibernate overhead. Also checks that the plan uses the expected access path.
+     */
+    private double measure(String query, String expectedPlanNode) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN ANALYZE " + query, String.class));
+        assertTrue(plan.contains(expectedPlanNode), plan);
+        double total = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            List<String> lines = jdbcTemplate.queryForList("EXPLAIN ANALYZE " + query, String.class);
+            String executionTime = lines.get(lines.size() - 1);
+            total += Double.parseDouble(executionTime.replaceAll("[^0-9.]", ""));
+        }
+        return total / ITERATIONS;
+    }
+}
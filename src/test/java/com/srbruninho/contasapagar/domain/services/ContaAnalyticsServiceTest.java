@@ -0,0 +1,172 @@
+package com.srbruninho.contasapagar.domain.services;
+
+import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.model.ContaAggregate;
+import com.srbruninho.contasapagar.domain.model.ContaAggregateGroup;
+import com.srbruninho.contasapagar.domain.model.ContaChangedEvent;
+import com.srbruninho.contasapagar.domain.model.ContasDeletedEvent;
+import com.srbruninho.contasapagar.domain.model.ContasPaidEvent;
+import com.srbruninho.contasapagar.domain.model.Situacao;
+import com.srbruninho.contasapagar.domain.repositories.ContaBatchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class ContaAnalyticsServiceTest {
+
+    @Mock
+    private ContaService contaService;
+
+    @Mock
+    private ContaBatchRepository contaBatchRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private ContaAnalyticsService contaAnalyticsService;
+
+    public ContaAnalyticsServiceTest() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(contaAnalyticsService, "enabled", true);
+    }
+
+    @Test
+    public void testAggregate_BeforeFirstLoad_ShouldQueryDatabase() {
+        // Arrange
+        List<ContaAggregate> fromDatabase = List.of(new ContaAggregate("PAGA", 1, new BigDecimal("10.00")));
+        when(contaBatchRepository.aggregate(ContaAggregateGroup.SITUACAO, null, null)).thenReturn(fromDatabase);
+
+        // Act
+        List<ContaAggregate> aggregates = contaAnalyticsService.aggregate(ContaAggregateGroup.SITUACAO, null, null);
+
+        // Assert
+        assertEquals(fromDatabase, aggregates);
+        assertEquals(1, meterRegistry.get("contasapagar.analytics.aggregate").tag("source", "database").timer().count());
+    }
+
+    @Test
+    public void testRefresh_ShouldLoadOnceAndAnswerFromMemory() {
+        // Arrange
+        stubExport(conta(1L, "10.00", Situacao.PAGA), conta(2L, "20.00", Situacao.PENDENTE));
+        when(contaService.getChangeWatermark()).thenReturn(5L);
+
+        // Act
+        boolean loaded = contaAnalyticsService.refresh();
+        boolean reloaded = contaAnalyticsService.refresh();
+        List<ContaAggregate> aggregates = contaAnalyticsService.aggregate(ContaAggregateGroup.SITUACAO, null, null);
+
+        // Assert
+        assertTrue(loaded);
+        assertFalse(reloaded);
+        verify(contaService, times(1)).exportAll(isNull(), isNull(), any());
+        verifyNoInteractions(contaBatchRepository);
+        assertEquals(List.of(new ContaAggregate("PAGA", 1, new BigDecimal("10.00")), new ContaAggregate("PENDENTE", 1, new BigDecimal("20.00"))), aggregates);
+        Map<String, Object> description = contaAnalyticsService.describe();
+        assertEquals(true, description.get("loaded"));
+        assertEquals(2, description.get("rows"));
+    }
+
+    @Test
+    public void testEvents_ShouldUpdateLoadedCopy() {
+        // Arrange
+        stubExport(conta(1L, "10.00", Situacao.PENDENTE), conta(2L, "20.00", Situacao.PENDENTE));
+        contaAnalyticsService.reload();
+
+        // Act
+        contaAnalyticsService.onContaChanged(ContaChangedEvent.saved(conta(3L, "30.00", Situacao.PENDENTE)));
+        contaAnalyticsService.onContaChanged(ContaChangedEvent.deleted(2L));
+        contaAnalyticsService.onContasPaid(new ContasPaidEvent(Set.of(1L), LocalDate.now()));
+
+        // Assert
+        assertEquals(List.of(new ContaAggregate("PAGA", 1, new BigDecimal("10.00")), new ContaAggregate("PENDENTE", 1, new BigDecimal("30.00"))),
+                contaAnalyticsService.aggregate(ContaAggregateGroup.SITUACAO, null, null));
+    }
+
+    @Test
+    public void testOnContasDeleted_ShouldRemoveEveryDeletedBill() {
+        // Arrange
+        stubExport(conta(1L, "10.00", Situacao.PENDENTE), conta(2L, "20.00", Situacao.PENDENTE), conta(3L, "30.00", Situacao.PAGA));
+        contaAnalyticsService.reload();
+
+        // Act
+        contaAnalyticsService.onContasDeleted(new ContasDeletedEvent(Set.of(1L, 3L)));
+
+        // Assert
+        assertEquals(List.of(new ContaAggregate("PENDENTE", 1, new BigDecimal("20.00"))),
+                contaAnalyticsService.aggregate(ContaAggregateGroup.SITUACAO, null, null));
+    }
+
+    @Test
+    public void testReload_ShouldReplayChangesCommittedWhileLoading() {
+        // Arrange
+        when(contaService.exportAll(isNull(), isNull(), any())).thenAnswer(invocation -> {
+            Consumer<Conta> sink = invocation.getArgument(2);
+            sink.accept(conta(1L, "10.00", Situacao.PENDENTE));
+            // Committed after the export cursor was opened, so only the event carries it.
+            contaAnalyticsService.onContaChanged(ContaChangedEvent.saved(conta(2L, "20.00", Situacao.PENDENTE)));
+            return 1L;
+        });
+
+        // Act
+        int rows = contaAnalyticsService.reload();
+
+        // Assert
+        assertEquals(2, rows);
+        assertEquals(List.of(new ContaAggregate("PENDENTE", 2, new BigDecimal("30.00"))),
+                contaAnalyticsService.aggregate(ContaAggregateGroup.SITUACAO, null, null));
+    }
+
+    @Test
+    public void testRefresh_WhenDisabled_ShouldNotLoad() {
+        // Arrange
+        ReflectionTestUtils.setField(contaAnalyticsService, "enabled", false);
+
+        // Act
+        boolean loaded = contaAnalyticsService.refresh();
+        contaAnalyticsService.onContaChanged(ContaChangedEvent.deleted(1L));
+
+        // Assert
+        assertFalse(loaded);
+        verifyNoInteractions(contaService);
+        assertEquals(false, contaAnalyticsService.describe().get("loaded"));
+    }
+
+    private void stubExport(Conta... contas) {
+        when(contaService.exportAll(isNull(), isNull(), any())).thenAnswer(invocation -> {
+            Consumer<Conta> sink = invocation.getArgument(2);
+            for (Conta conta : contas)
+                sink.accept(conta);
+            return (long) contas.length;
+        });
+    }
+
+    private static Conta conta(Long id, String valor, Situacao situacao) {
+        return Conta.builder()
+                .id(id)
+                .dataVencimento(LocalDate.now())
+                .dataPagamento(situacao == Situacao.PAGA ? LocalDate.now() : null)
+                .valor(new BigDecimal(valor))
+                .descricao("Conta " + id)
+                .situacao(situacao)
+                .version(0L)
+                .build();
+    }
+}
@@ -0,0 +1,192 @@
+package com.srbruninho.contasapagar.domain.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.srbruninho.contasapagar.domain.model.BulkCreateItem;
+import com.srbruninho.contasapagar.domain.model.BulkCreateResult;
+import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.model.Situacao;
+import com.srbruninho.contasapagar.domain.repositories.ContaBatchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ContaBulkCreatorTest {
+
+    @Mock
+    private ContaBatchRepository contaBatchRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private ContaBulkCreator contaBulkCreator;
+
+    private final AtomicLong nextId = new AtomicLong(100);
+
+    private final List<BulkCreateItem> items = new ArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    public ContaBulkCreatorTest() {
+        MockitoAnnotations.openMocks(this);
+        doAnswer(invocation -> {
+            ((List<Conta>) invocation.getArgument(0)).forEach(conta -> conta.setId(nextId.getAndIncrement()));
+            return null;
+        }).when(contaBatchRepository).insertAll(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCreateAll_WhenJsonArray_ShouldCreateValidElementsAndReportInvalidOnesInOrder() throws Exception {
+        // Arrange
+        String body = "[" +
+                "{\"descricao\": \"Luz\", \"valor\": 10.50, \"dataVencimento\": \"2099-01-10\", \"id\": 7, \"situacao\": \"PAGA\"}," +
+                "{\"descricao\": \"Água\", \"dataVencimento\": \"2099-01-10\", \"valor\": -1}," +
+                "null," +
+                "{\"descricao\": \"Gás\", \"valor\": 20, \"dataVencimento\": \"2020-01-10\", \"dataPagamento\": \"2020-01-09\"}" +
+                "]";
+
+        // Act
+        BulkCreateResult result = create(body);
+
+        // Assert
+        ArgumentCaptor<List<Conta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(contaBatchRepository, times(1)).insertAll(captor.capture());
+        List<Conta> inserted = captor.getValue();
+        assertEquals(2, inserted.size());
+        assertEquals(Situacao.PENDENTE, inserted.get(0).getSituacao());
+        assertEquals(Situacao.PAGA, inserted.get(1).getSituacao());
+        assertEquals(List.of(
+                BulkCreateItem.created(0, 100L),
+                BulkCreateItem.rejected(1, List.of("O valor deve ser maior que zero")),
+                BulkCreateItem.rejected(2, List.of("Element is not a JSON object")),
+                BulkCreateItem.created(3, 101L)), items);
+        assertEquals(2, result.getCreated());
+        assertEquals(1, meterRegistry.get("contasapagar.bulk.rows").tag("outcome", "rejected").counter().count(), 1);
+    }
+
+    @Test
+    public void testCreateAll_WhenNdjsonLongerThanBatchSize_ShouldInsertInBatches() throws Exception {
+        // Arrange
+        int rows = ContaBulkCreator.DEFAULT_BATCH_SIZE * 2 + 1;
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < rows; i++)
+            body.append("{\"descricao\": \"Conta ").append(i).append("\", \"valor\": 10.00, \"dataVencimento\": \"2024-05-01\"}\n");
+
+        // Act
+        BulkCreateResult result = create(body.toString());
+
+        // Assert
+        verify(contaBatchRepository, times(3)).insertAll(anyList());
+        assertEquals(rows, result.getCreated());
+        assertEquals(BulkCreateItem.created(rows - 1, 100L + rows - 1), items.get(rows - 1));
+    }
+
+    @Test
+    public void testCreateAll_WhenElementCannotBeBound_ShouldRejectItAndCarryOn() throws Exception {
+        // Arrange
+        String body = "{\"descricao\": \"Luz\", \"valor\": 10, \"dataVencimento\": \"2024-13-40\"}\n" +
+                "{\"descricao\": \"Água\", \"valor\": \"dez\", \"dataVencimento\": \"2024-05-01\"}\n" +
+                "{\"descricao\": \"Gás\", \"valor\": 10, \"dataVencimento\": \"2024-05-01\"}\n";
+
+        // Act
+        BulkCreateResult result = create(body);
+
+        // Assert
+        assertEquals(List.of(
+                BulkCreateItem.rejected(0, List.of("Invalid value for dataVencimento")),
+                BulkCreateItem.rejected(1, List.of("Invalid value for valor")),
+                BulkCreateItem.created(2, 100L)), items);
+    }
+
+    @Test
+    public void testCreateAll_WhenJsonIsMalformed_ShouldStopButKeepElementsReadBefore() throws Exception {
+        // Arrange
+        String body = "[{\"descricao\": \"Luz\", \"valor\": 10, \"dataVencimento\": \"2024-05-01\"},\n" +
+                "{\"descricao\": \"Água\" \"valor\": 10},\n" +
+                "{\"descricao\": \"Gás\", \"valor\": 10, \"dataVencimento\": \"2024-05-01\"}]";
+
+        // Act
+        BulkCreateResult result = create(body);
+
+        // Assert
+        verify(contaBatchRepository, times(1)).insertAll(anyList());
+        assertEquals(2, items.size());
+        assertEquals(BulkCreateItem.created(0, 100L), items.get(0));
+        assertFalse(items.get(1).isCreated());
+        assertTrue(items.get(1).getErrors().get(0).startsWith("Malformed JSON at line 2"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCreateAll_WhenDatabaseFailsMidStream_ShouldReportCreatedBillsAndWhereItStopped() throws Exception {
+        // Arrange
+        int rows = ContaBulkCreator.DEFAULT_BATCH_SIZE * 3;
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < rows; i++)
+            body.append(i == 1 ? "{\"valor\": 1}" : "{\"descricao\": \"Conta " + i + "\", \"valor\": 10.00, \"dataVencimento\": \"2024-05-01\"}").append('\n');
+        doAnswer(invocation -> {
+            ((List<Conta>) invocation.getArgument(0)).forEach(conta -> conta.setId(nextId.getAndIncrement()));
+            return null;
+        }).doThrow(new DataAccessResourceFailureException("Connection lost"))
+                .when(contaBatchRepository).insertAll(anyList());
+
+        // Act
+        BulkCreateResult result = create(body.toString());
+
+        // Assert
+        int batchSize = ContaBulkCreator.DEFAULT_BATCH_SIZE;
+        verify(contaBatchRepository, times(2)).insertAll(anyList());
+        assertEquals(new BulkCreateResult(batchSize - 1, batchSize + 1, batchSize), result);
+        assertEquals(batchSize * 2, items.size());
+        assertEquals(BulkCreateItem.created(0, 100L), items.get(0));
+        assertFalse(items.get(1).isCreated());
+        assertEquals(BulkCreateItem.created(batchSize - 1, 100L + batchSize - 2), items.get(batchSize - 1));
+        assertEquals(BulkCreateItem.rejected(batchSize, List.of(ContaBulkCreator.NOT_WRITTEN)), items.get(batchSize));
+        assertEquals(BulkCreateItem.rejected(batchSize * 2 - 1, List.of(ContaBulkCreator.NOT_WRITTEN)), items.get(batchSize * 2 - 1));
+    }
+
+    @Test
+    public void testCreateAll_WhenAmountExceedsColumnPrecision_ShouldReject() throws Exception {
+        // Arrange
+        String body = "[{\"descricao\": \"Luz\", \"valor\": 123456789.00, \"dataVencimento\": \"2024-05-01\"}," +
+                "{\"valor\": 1}]";
+
+        // Act
+        BulkCreateResult result = create(body);
+
+        // Assert
+        verifyNoInteractions(contaBatchRepository);
+        assertEquals(List.of(
+                BulkCreateItem.rejected(0, List.of("Amount exceeds 10 digits")),
+                BulkCreateItem.rejected(1, List.of("A data de vencimento não pode ser nula", "A descrição não pode ser nula"))), items);
+    }
+
+    private BulkCreateResult create(String body) throws Exception {
+        return contaBulkCreator.createAll(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), items::add);
+    }
+}
@@ -0,0 +1,92 @@
+package com.srbruninho.contasapagar.domain.services;
+
+import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.repositories.ContaBatchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Compares parse/validate throughput of the import pipeline with one worker and with one worker per core.
+ * The batch repository is mocked, so the numbers exclude database time. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class ContaCsvImporterBenchmarkTest {
+
+    private static final int ROWS = 500_000;
+    private static final int ROUNDS = 3;
+
+    @Test
+    public void benchmarkParseParallelism() throws Exception {
+        byte[] csv = generateCsv();
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        List<Conta> parsedSingleThreaded = new ArrayList<>();
+        List<Conta> parsedMultiThreaded = new ArrayList<>();
+        double singleThreaded = measure(csv, 1, parsedSingleThreaded);
+        double multiThreaded = measure(csv, cores, parsedMultiThreaded);
+
+        System.out.printf("CSV import parse stage, %d rows: 1 worker = %.0f rows/s, %d workers = %.0f rows/s (x%.2f)%n",
+                ROWS, singleThreaded, cores, multiThreaded, multiThreaded / singleThreaded);
+        // Splitting the parse across workers must not change what is written, nor its file order.
+        assertEquals(ROWS, parsedSingleThreaded.size());
+        assertEquals(parsedSingleThreaded, parsedMultiThreaded);
+    }
+
+    /**
+     * Best throughput over {@link #ROUNDS} imports, after a warm-up import whose written bills go to {@code parsed}.
+     */
+    private double measure(byte[] csv, int parallelism, List<Conta> parsed) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        try {
+            ContaCsvImporter importer = new ContaCsvImporter();
+            ContaBatchRepository contaBatchRepository = mock(ContaBatchRepository.class);
+            doAnswer(invocation -> parsed.addAll(invocation.getArgument(0))).when(contaBatchRepository).insertAll(anyList());
+            ReflectionTestUtils.setField(importer, "contaBatchRepository", contaBatchRepository);
+            ReflectionTestUtils.setField(importer, "meterRegistry", new SimpleMeterRegistry());
+            ReflectionTestUtils.setField(importer, "csvParseExecutor", new TaskExecutorAdapter(pool));
+            ReflectionTestUtils.setField(importer, "parseParallelism", parallelism);
+
+            importer.importCsv(new ByteArrayInputStream(csv));
+            doNothing().when(contaBatchRepository).insertAll(anyList());
+
+            double best = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                long startedAt = System.nanoTime();
+                long rows = importer.importCsv(new ByteArrayInputStream(csv));
+                double seconds = (System.nanoTime() - startedAt) / 1e9;
+                assertEquals(ROWS, rows);
+                best = Math.max(best, rows / seconds);
+            }
+            return best;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static byte[] generateCsv() {
+        StringBuilder csv = new StringBuilder(ROWS * 48);
+        for (int i = 0; i < ROWS; i++) {
+            csv.append("\"Conta ").append(i % 1000).append("\",")
+                    .append(10 + i % 9000).append('.').append(i % 100).append(",\"2024-")
+                    .append(String.format("%02d", 1 + i % 12)).append("-15\"");
+            if (i % 3 == 0)
+                csv.append(",\"2024-06-01\"");
+            csv.append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,158 @@
+package com.srbruninho.contasapagar.domain.services;
+
+import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.model.ImportProgress;
+import com.srbruninho.contasapagar.domain.model.ImportRejection;
+import com.srbruninho.contasapagar.domain.model.Situacao;
+import com.srbruninho.contasapagar.domain.repositories.ContaBatchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ContaCsvImporterTest {
+
+    @Mock
+    private ContaBatchRepository contaBatchRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private AsyncTaskExecutor csvParseExecutor = new TaskExecutorAdapter(Executors.newFixedThreadPool(2));
+
+    @InjectMocks
+    private ContaCsvImporter contaCsvImporter;
+
+    public ContaCsvImporterTest() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testImportCsv_WhenSingleRow_ShouldInsertOneBatch() throws Exception {
+        // Arrange
+        String csvContent = "Conta Teste,99.99,2024-05-01,2024-04-30";
+
+        // Act
+        long persisted = contaCsvImporter.importCsv(new ByteArrayInputStream(csvContent.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        ArgumentCaptor<List<Conta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(contaBatchRepository, times(1)).insertAll(captor.capture());
+        Conta conta = captor.getValue().get(0);
+        assertEquals(1, persisted);
+        assertEquals("Conta Teste", conta.getDescricao());
+        assertEquals(BigDecimal.valueOf(99.99), conta.getValor());
+        assertEquals(LocalDate.of(2024, 5, 1), conta.getDataVencimento());
+        assertEquals(Situacao.PAGA, conta.getSituacao());
+    }
+
+    @Test
+    public void testImportCsv_WhenMoreRowsThanBatchSize_ShouldInsertInChunks() throws Exception {
+        // Arrange
+        int rows = ContaCsvImporter.DEFAULT_BATCH_SIZE * 2 + 1;
+        StringBuilder csvContent = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            csvContent.append("Conta ").append(i).append(",10.00,2024-05-01,2024-05-01\n");
+        }
+
+        // Act
+        long persisted = contaCsvImporter.importCsv(new ByteArrayInputStream(csvContent.toString().getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(rows, persisted);
+        verify(contaBatchRepository, times(3)).insertAll(anyList());
+    }
+
+    @Test
+    public void testImportCsv_WhenRowsAreInvalid_ShouldRejectThemWithLineAndReason() throws Exception {
+        // Arrange
+        String csvContent = "Conta Valida,10.00,2024-05-01\n"
+                + "Conta Teste,99.99,invalid-date\n"
+                + "Conta Teste,abc,2024-05-01\n"
+                + "Conta Teste,-1,2024-05-01\n"
+                + ",10.00,2024-05-01\n"
+                + "Conta Teste,10.00,2024-05-01,2024-13-01\n"
+                + "Conta Teste,10.00\n";
+        ImportProgress progress = new ImportProgress();
+        List<ImportRejection> rejections = new ArrayList<>();
+
+        // Act
+        long persisted = contaCsvImporter.importCsv(new ByteArrayInputStream(csvContent.getBytes(StandardCharsets.UTF_8)), progress, rejections::add);
+
+        // Assert
+        assertEquals(1, persisted);
+        assertEquals(7, progress.getRowsRead());
+        assertEquals(6, progress.getRowsRejected());
+        assertEquals(List.of(2L, 3L, 4L, 5L, 6L, 7L), rejections.stream().map(ImportRejection::getLine).toList());
+        assertEquals("Invalid due date 'invalid-date', expected yyyy-MM-dd", rejections.get(0).getReason());
+        assertEquals("Invalid amount 'abc'", rejections.get(1).getReason());
+        assertEquals("Amount must be greater than zero", rejections.get(2).getReason());
+        assertEquals("Description is empty", rejections.get(3).getReason());
+        assertEquals("Invalid payment date '2024-13-01', expected yyyy-MM-dd", rejections.get(4).getReason());
+        assertEquals("Expected at least 3 columns but found 2", rejections.get(5).getReason());
+    }
+
+    @Test
+    public void testImportCsv_ShouldRecordRowCountersAndBatchTimer() throws Exception {
+        // Arrange
+        StringBuilder csvContent = new StringBuilder();
+        for (int i = 0; i < ContaCsvImporter.DEFAULT_BATCH_SIZE + 10; i++) {
+            csvContent.append("Conta ").append(i).append(",10.00,2024-05-01\n");
+        }
+        csvContent.append("Conta Invalida,abc,2024-05-01\n");
+
+        // Act
+        contaCsvImporter.importCsv(new ByteArrayInputStream(csvContent.toString().getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(ContaCsvImporter.DEFAULT_BATCH_SIZE + 11, meterRegistry.get("contasapagar.import.rows").tag("outcome", "parsed").counter().count());
+        assertEquals(1, meterRegistry.get("contasapagar.import.rows").tag("outcome", "rejected").counter().count());
+        assertEquals(ContaCsvImporter.DEFAULT_BATCH_SIZE + 10, meterRegistry.get("contasapagar.import.rows").tag("outcome", "persisted").counter().count());
+        assertEquals(2, meterRegistry.get("contasapagar.import.batch").timer().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testImportCsv_WhenManyChunks_ShouldWriteThemInFileOrder() throws Exception {
+        // Arrange
+        int rows = ContaCsvImporter.DEFAULT_BATCH_SIZE * 8;
+        StringBuilder csvContent = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            csvContent.append("Conta ").append(i).append(",10.00,2024-05-01\n");
+        }
+        List<String> written = new ArrayList<>();
+        doAnswer(invocation -> {
+            invocation.getArgument(0, List.class).forEach(conta -> written.add(((Conta) conta).getDescricao()));
+            return null;
+        }).when(contaBatchRepository).insertAll(anyList());
+
+        // Act
+        contaCsvImporter.importCsv(new ByteArrayInputStream(csvContent.toString().getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(rows, written.size());
+        for (int i = 0; i < rows; i++) {
+            assertEquals("Conta " + i, written.get(i));
+        }
+    }
+}
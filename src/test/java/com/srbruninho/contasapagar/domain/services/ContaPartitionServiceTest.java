@@ -0,0 +1,65 @@
+package com.srbruninho.contasapagar.domain.services;
+
+import com.srbruninho.contasapagar.domain.repositories.ContaBatchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ContaPartitionServiceTest {
+
+    @Mock
+    private ContaBatchRepository contaBatchRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private ContaPartitionService contaPartitionService;
+
+    public ContaPartitionServiceTest() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(contaPartitionService, "yearsAhead", 1);
+    }
+
+    @Test
+    public void testMaintain_WithoutRetention_ShouldOnlyCreatePartitions() {
+        // Arrange
+        when(contaBatchRepository.ensurePartitions(any())).thenReturn(1);
+
+        // Act
+        List<String> archived = contaPartitionService.maintain();
+
+        // Assert
+        assertTrue(archived.isEmpty());
+        verify(contaBatchRepository).ensurePartitions(LocalDate.now().plusYears(1));
+        verify(contaBatchRepository, never()).archivePartitions(any());
+        assertEquals(1, meterRegistry.get("contasapagar.partition.maintenance").timer().count());
+    }
+
+    @Test
+    public void testMaintain_WithRetention_ShouldArchiveYearsBeforeTheRetainedOnes() {
+        // Arrange
+        ReflectionTestUtils.setField(contaPartitionService, "retentionYears", 5);
+        LocalDate cutoff = LocalDate.of(LocalDate.now().getYear() - 5, 1, 1);
+        when(contaBatchRepository.archivePartitions(cutoff)).thenReturn(List.of("conta_y2019"));
+
+        // Act
+        List<String> archived = contaPartitionService.maintain();
+
+        // Assert
+        assertEquals(List.of("conta_y2019"), archived);
+        verify(contaBatchRepository).archivePartitions(cutoff);
+    }
+}
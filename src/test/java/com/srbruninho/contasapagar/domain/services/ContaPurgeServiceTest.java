@@ -0,0 +1,68 @@
+package com.srbruninho.contasapagar.domain.services;
+
+import com.srbruninho.contasapagar.domain.repositories.ContaBatchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ContaPurgeServiceTest {
+
+    @Mock
+    private ContaBatchRepository contaBatchRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private ContaPurgeService contaPurgeService;
+
+    public ContaPurgeServiceTest() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(contaPurgeService, "purgeDelay", Duration.ofHours(1));
+    }
+
+    @Test
+    public void testPurge_WhenLockAcquired_ShouldRemoveBillsDeletedBeforeTheDelay() {
+        // Arrange
+        ArgumentCaptor<Instant> deletedBefore = ArgumentCaptor.forClass(Instant.class);
+        when(contaBatchRepository.purgeDeleted(deletedBefore.capture(), anyInt(), eq(ContaPurgeService.PURGE_LOCK_KEY)))
+                .thenReturn(OptionalLong.of(40));
+
+        // Act
+        long purged = contaPurgeService.purge();
+
+        // Assert
+        assertEquals(40, purged);
+        assertFalse(deletedBefore.getValue().isAfter(Instant.now().minus(Duration.ofHours(1))));
+        assertEquals(40, meterRegistry.get("contasapagar.delete.purge.rows").counter().count());
+        assertEquals(1, meterRegistry.get("contasapagar.delete.purge").tag("outcome", "purged").timer().count());
+    }
+
+    @Test
+    public void testPurge_WhenLockHeldElsewhere_ShouldSkip() {
+        // Arrange
+        when(contaBatchRepository.purgeDeleted(any(), anyInt(), anyLong())).thenReturn(OptionalLong.empty());
+
+        // Act
+        long purged = contaPurgeService.purge();
+
+        // Assert
+        assertEquals(-1, purged);
+        assertNull(meterRegistry.find("contasapagar.delete.purge.rows").counter());
+        assertEquals(1, meterRegistry.get("contasapagar.delete.purge").tag("outcome", "skipped").timer().count());
+    }
+}
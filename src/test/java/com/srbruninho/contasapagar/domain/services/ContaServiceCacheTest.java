@@ -0,0 +1,204 @@
+package com.srbruninho.contasapagar.domain.services;
+
+import com.srbruninho.contasapagar.api.converter.ContaConverter;
+import com.srbruninho.contasapagar.api.dto.ContaDTO;
+import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.model.ContaSummary;
+import com.srbruninho.contasapagar.domain.repositories.ContaBatchRepository;
+import com.srbruninho.contasapagar.domain.repositories.ContaMonthlyPaidTotalRepository;
+import com.srbruninho.contasapagar.domain.repositories.ContaRepository;
+import com.srbruninho.contasapagar.infrastructure.configuration.CacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig
+public class ContaServiceCacheTest {
+
+    @Configuration
+    @Import({CacheConfig.class, ContaService.class})
+    static class Config {
+        @Bean
+        public CacheManager cacheManager() {
+            return new CaffeineCacheManager(ContaService.CONTA_CACHE, ContaService.SUMMARY_CACHE);
+        }
+
+        /** Converts the Duration properties of CacheConfig, as Spring Boot does. */
+        @Bean
+        public static ConversionService conversionService() {
+            return ApplicationConversionService.getSharedInstance();
+        }
+    }
+
+    @MockBean
+    private ContaRepository contaRepository;
+
+    @MockBean
+    private ContaMonthlyPaidTotalRepository contaMonthlyPaidTotalRepository;
+
+    @MockBean
+    private MonthlyPaidTotalService monthlyPaidTotalService;
+
+    @MockBean
+    private ContaCsvImporter contaCsvImporter;
+
+    @MockBean
+    private ContaBulkCreator contaBulkCreator;
+
+    @MockBean
+    private ContaBatchRepository contaBatchRepository;
+
+    @Autowired
+    private ContaService contaService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager.getCache(ContaService.CONTA_CACHE).clear();
+        cacheManager.getCache(ContaService.SUMMARY_CACHE).clear();
+    }
+
+    @Test
+    public void testFindDTOById_ShouldHitDatabaseOnlyOnce() {
+        // Arrange
+        when(contaRepository.findDTOById(1L)).thenReturn(Optional.of(dto(1L)));
+
+        // Act
+        Optional<ContaDTO> first = contaService.findDTOById(1L);
+        Optional<ContaDTO> second = contaService.findDTOById(1L);
+
+        // Assert
+        assertTrue(first.isPresent());
+        assertTrue(second.isPresent());
+        verify(contaRepository, times(1)).findDTOById(1L);
+    }
+
+    @Test
+    public void testFindDTOById_WhenNotFound_ShouldNotCacheMiss() {
+        // Arrange
+        when(contaRepository.findDTOById(2L)).thenReturn(Optional.empty()).thenReturn(Optional.of(dto(2L)));
+
+        // Act
+        Optional<ContaDTO> first = contaService.findDTOById(2L);
+        Optional<ContaDTO> second = contaService.findDTOById(2L);
+
+        // Assert
+        assertTrue(first.isEmpty());
+        assertTrue(second.isPresent());
+        verify(contaRepository, times(2)).findDTOById(2L);
+    }
+
+    @Test
+    public void testFindById_ShouldNotBeCached() {
+        // Arrange
+        when(contaRepository.findById(6L)).thenAnswer(invocation -> Optional.of(conta(6L)));
+
+        // Act
+        Conta first = contaService.findById(6L).orElseThrow();
+        Conta second = contaService.findById(6L).orElseThrow();
+
+        // Assert
+        assertNotSame(first, second);
+        verify(contaRepository, times(2)).findById(6L);
+    }
+
+    @Test
+    public void testSave_ShouldEvictCachedBill() {
+        // Arrange
+        Conta conta = conta(3L);
+        when(contaRepository.findDTOById(3L)).thenReturn(Optional.of(dto(3L)));
+        when(contaRepository.findById(3L)).thenReturn(Optional.of(conta));
+        when(contaRepository.save(any(Conta.class))).thenReturn(conta);
+        contaService.findDTOById(3L);
+
+        // Act
+        contaService.save(conta(3L));
+        contaService.findDTOById(3L);
+
+        // Assert
+        // one cached lookup before the save and the reload after eviction
+        verify(contaRepository, times(2)).findDTOById(3L);
+    }
+
+    @Test
+    public void testUpdateSituacao_WhenSaveFails_ShouldEvictCachedBill() {
+        // Arrange
+        when(contaRepository.findDTOById(4L)).thenReturn(Optional.of(dto(4L)));
+        when(contaRepository.findById(4L)).thenAnswer(invocation -> Optional.of(conta(4L)));
+        when(contaRepository.save(any(Conta.class))).thenThrow(new IllegalStateException("Database unavailable"));
+        contaService.findDTOById(4L);
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> contaService.updateSituacao(conta(4L), true));
+        contaService.findDTOById(4L);
+
+        // Assert
+        verify(contaRepository, times(2)).findDTOById(4L);
+    }
+
+    @Test
+    public void testDeleteById_ShouldEvictCachedBill() {
+        // Arrange
+        when(contaRepository.findDTOById(5L)).thenReturn(Optional.of(dto(5L)));
+        contaService.findDTOById(5L);
+
+        // Act
+        contaService.deleteById(5L);
+
+        // Assert
+        assertNull(cacheManager.getCache(ContaService.CONTA_CACHE).get(5L));
+    }
+
+    @Test
+    public void testGetCachedSummary_ShouldScanOncePerDay_WhileGetSummaryAlwaysScans() {
+        // Arrange
+        LocalDate today = LocalDate.of(2024, 9, 9);
+        ContaSummary summary = new ContaSummary(today, List.of(), List.of());
+        when(contaBatchRepository.summarize(any(LocalDate.class))).thenReturn(summary);
+
+        // Act
+        ContaSummary first = contaService.getCachedSummary(today);
+        ContaSummary second = contaService.getCachedSummary(today);
+        contaService.getCachedSummary(today.plusDays(1));
+        contaService.getSummary(today);
+
+        // Assert
+        assertSame(first, second);
+        verify(contaBatchRepository, times(2)).summarize(today);
+        verify(contaBatchRepository, times(1)).summarize(today.plusDays(1));
+        verify(contaBatchRepository, times(3)).summarize(any(LocalDate.class));
+    }
+
+    private static Conta conta(Long id) {
+        return Conta.builder()
+                .id(id)
+                .dataVencimento(LocalDate.now().plusDays(10))
+                .valor(new BigDecimal("100.00"))
+                .descricao("Conta de luz")
+                .build();
+    }
+
+    private static ContaDTO dto(Long id) {
+        return ContaConverter.toDTO(conta(id));
+    }
+}
@@ -1,9 +1,23 @@
 package com.srbruninho.contasapagar.domain.services;
 
+import com.srbruninho.contasapagar.api.dto.ContaDTO;
+import com.srbruninho.contasapagar.domain.model.BulkDeleteResult;
+import com.srbruninho.contasapagar.domain.model.BulkPaymentResult;
 import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.model.ContaChangedEvent;
+import com.srbruninho.contasapagar.domain.model.ContaDeleteFilter;
+import com.srbruninho.contasapagar.domain.model.ContaKeyset;
+import com.srbruninho.contasapagar.domain.model.ContaPatch;
+import com.srbruninho.contasapagar.domain.model.ContasDeletedEvent;
+import com.srbruninho.contasapagar.domain.model.ContasPaidEvent;
+import com.srbruninho.contasapagar.domain.model.DescriptionMatch;
+import com.srbruninho.contasapagar.domain.model.PaymentOutcome;
 import com.srbruninho.contasapagar.domain.model.Situacao;
+import com.srbruninho.contasapagar.domain.repositories.ContaBatchRepository;
+import com.srbruninho.contasapagar.domain.repositories.ContaMonthlyPaidTotalRepository;
 import com.srbruninho.contasapagar.domain.repositories.ContaRepository;
 import com.srbruninho.contasapagar.domain.repositories.projection.TotalValuePaidPerPeriodProjection;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.junit.jupiter.api.Test;
@@ -12,16 +26,28 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class ContaServiceTest {
@@ -29,6 +55,21 @@ class ContaServiceTest {
     @Mock
     private ContaRepository contaRepository;
 
+    @Mock
+    private ContaMonthlyPaidTotalRepository contaMonthlyPaidTotalRepository;
+
+    @Mock
+    private MonthlyPaidTotalService monthlyPaidTotalService;
+
+    @Mock
+    private ContaCsvImporter contaCsvImporter;
+
+    @Mock
+    private ContaBatchRepository contaBatchRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ContaService contaService;
 
@@ -104,6 +145,7 @@ class ContaServiceTest {
         // Assert
         assertEquals(Situacao.PENDENTE, savedConta.getSituacao());
         verify(contaRepository, times(1)).save(conta);
+        verify(eventPublisher).publishEvent(ContaChangedEvent.saved(conta));
     }
 
     @Test
@@ -175,38 +217,148 @@ class ContaServiceTest {
     }
 
     @Test
-    public void testFindAll_ShouldReturnPageOfContas() {
+    public void testFindAllDTOs_ShouldReturnPageOfDTOs() {
         // Arrange
         Pageable pageable = PageRequest.of(0, 10);
-        Conta conta = new Conta();
-        Page<Conta> page = new PageImpl<>(Collections.singletonList(conta));
-        when(contaRepository.findAll(pageable)).thenReturn(page);
+        Page<ContaDTO> page = new PageImpl<>(Collections.singletonList(new ContaDTO()));
+        when(contaRepository.findAllDTOs(pageable)).thenReturn(page);
 
         // Act
-        Page<Conta> result = contaService.findAll(pageable);
+        Page<ContaDTO> result = contaService.findAllDTOs(pageable);
 
         // Assert
         assertEquals(1, result.getTotalElements());
-        verify(contaRepository, times(1)).findAll(pageable);
+        verify(contaRepository, times(1)).findAllDTOs(pageable);
     }
 
     @Test
     public void testDeleteById_ShouldDeleteConta() {
         // Arrange
         Long id = 1L;
-        doNothing().when(contaRepository).deleteById(id);
+        when(contaBatchRepository.deleteById(id, false)).thenReturn(Optional.of(Conta.builder().id(id).build()));
 
         // Act
         contaService.deleteById(id);
 
         // Assert
-        verify(contaRepository, times(1)).deleteById(id);
+        verify(contaBatchRepository, times(1)).deleteById(id, false);
+        verify(contaRepository, never()).findById(any());
+        verify(eventPublisher).publishEvent(ContaChangedEvent.deleted(id));
     }
 
     @Test
-    public void testGetTotalValuePaidPerPeriod_ShouldReturnPageOfPeriodProjections() {
+    public void testDeleteById_WhenNotFound_ShouldPublishNothing() {
         // Arrange
-        LocalDate startDate = LocalDate.of(2023, 1, 1);
+        when(contaBatchRepository.deleteById(9L, false)).thenReturn(Optional.empty());
+
+        // Act
+        contaService.deleteById(9L);
+
+        // Assert
+        verifyNoInteractions(monthlyPaidTotalService, eventPublisher);
+    }
+
+    @Test
+    public void testDeleteAll_ShouldDeleteInChunksUntilOneComesBackEmpty() {
+        // Arrange
+        ReflectionTestUtils.setField(contaService, "deleteBatchSize", 2);
+        ReflectionTestUtils.setField(contaService, "softDelete", true);
+        ContaDeleteFilter filter = new ContaDeleteFilter(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), Situacao.PENDENTE, null);
+        when(contaBatchRepository.deleteChunk(filter, 2, true))
+                .thenReturn(List.of(1L))
+                .thenReturn(List.of(2L, 3L))
+                .thenReturn(List.of());
+
+        // Act
+        BulkDeleteResult result = contaService.deleteAll(filter);
+
+        // Assert
+        assertEquals(new BulkDeleteResult(3, true), result);
+        verify(contaBatchRepository, times(3)).deleteChunk(filter, 2, true);
+        verify(eventPublisher).publishEvent(new ContasDeletedEvent(Set.of(1L)));
+        verify(eventPublisher).publishEvent(new ContasDeletedEvent(Set.of(2L, 3L)));
+    }
+
+    @Test
+    public void testDeleteAll_WhenNothingMatches_ShouldPublishNothing() {
+        // Arrange
+        ContaDeleteFilter filter = new ContaDeleteFilter(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), null, "Luz");
+        when(contaBatchRepository.deleteChunk(eq(filter), anyInt(), eq(false))).thenReturn(List.of());
+
+        // Act
+        BulkDeleteResult result = contaService.deleteAll(filter);
+
+        // Assert
+        assertEquals(0, result.getDeleted());
+        verify(contaBatchRepository, times(1)).deleteChunk(eq(filter), anyInt(), eq(false));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void testPatch_WhenOnlyDescriptionChanges_ShouldKeepSituacaoAndTotals() {
+        // Arrange
+        Conta conta = Conta.builder().id(1L).descricao("Luz").valor(BigDecimal.TEN)
+                .dataVencimento(LocalDate.now().minusDays(1)).situacao(Situacao.PENDENTE).version(2L).build();
+        when(contaRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(conta));
+
+        // Act
+        Optional<Conta> result = contaService.patch(1L, ContaPatch.builder().descricao("Agua").build());
+
+        // Assert
+        assertEquals("Agua", result.orElseThrow().getDescricao());
+        assertEquals(Situacao.PENDENTE, conta.getSituacao());
+        verify(contaRepository, times(1)).flush();
+        verify(contaRepository, never()).save(any(Conta.class));
+        verify(monthlyPaidTotalService, times(1)).recordChange(null, BigDecimal.TEN, null, BigDecimal.TEN);
+    }
+
+    @Test
+    public void testPatch_WhenPaymentCleared_ShouldRedefineSituacaoAndMoveTotals() {
+        // Arrange
+        LocalDate paidDate = LocalDate.of(2024, 5, 10);
+        Conta conta = Conta.builder().id(1L).descricao("Luz").valor(BigDecimal.TEN)
+                .dataVencimento(LocalDate.now().plusDays(5)).dataPagamento(paidDate).situacao(Situacao.PAGA).version(2L).build();
+        when(contaRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(conta));
+
+        // Act
+        contaService.patch(1L, ContaPatch.builder().dataPagamentoSet(true).dataPagamento(null).build());
+
+        // Assert
+        assertNull(conta.getDataPagamento());
+        assertEquals(Situacao.PENDENTE, conta.getSituacao());
+        verify(monthlyPaidTotalService, times(1)).recordChange(paidDate, BigDecimal.TEN, null, BigDecimal.TEN);
+    }
+
+    @Test
+    public void testPatch_WhenVersionIsStale_ShouldThrowWithoutChanging() {
+        // Arrange
+        Conta conta = Conta.builder().id(1L).descricao("Luz").version(3L).build();
+        when(contaRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(conta));
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> contaService.patch(1L, ContaPatch.builder().descricao("Agua").version(2L).build()));
+        assertEquals("Luz", conta.getDescricao());
+        verifyNoInteractions(monthlyPaidTotalService);
+    }
+
+    @Test
+    public void testPatch_WhenIdNotFound_ShouldReturnEmpty() {
+        // Arrange
+        when(contaRepository.findByIdForUpdate(9L)).thenReturn(Optional.empty());
+
+        // Act
+        Optional<Conta> result = contaService.patch(9L, ContaPatch.builder().descricao("Agua").build());
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(contaRepository, never()).flush();
+    }
+
+    @Test
+    public void testGetTotalValuePaidPerPeriod_WhenPartialMonths_ShouldQueryContaTable() {
+        // Arrange
+        LocalDate startDate = LocalDate.of(2023, 1, 15);
         LocalDate endDate = LocalDate.of(2023, 12, 31);
         Pageable pageable = PageRequest.of(0, 10);
         TotalValuePaidPerPeriodProjection projection = mock(TotalValuePaidPerPeriodProjection.class);
@@ -219,6 +371,61 @@ class ContaServiceTest {
         // Assert
         assertEquals(1, result.getTotalElements());
         verify(contaRepository, times(1)).getTotalValuePaidPerPeriod(startDate, endDate, pageable);
+        verifyNoInteractions(contaMonthlyPaidTotalRepository);
+    }
+
+    @Test
+    public void testGetTotalValuePaidPerPeriod_ShouldReturnPageOfPeriodProjections() {
+        // Arrange
+        LocalDate startDate = LocalDate.of(2023, 1, 1);
+        LocalDate endDate = LocalDate.of(2023, 12, 31);
+        Pageable pageable = PageRequest.of(0, 10);
+        TotalValuePaidPerPeriodProjection projection = mock(TotalValuePaidPerPeriodProjection.class);
+        Page<TotalValuePaidPerPeriodProjection> page = new PageImpl<>(Collections.singletonList(projection));
+        when(contaMonthlyPaidTotalRepository.findTotalValuePaidPerPeriod(startDate, endDate, pageable)).thenReturn(page);
+
+        // Act
+        Page<TotalValuePaidPerPeriodProjection> result = contaService.getTotalValuePaidPerPeriod(startDate, endDate, pageable);
+
+        // Assert
+        assertEquals(1, result.getTotalElements());
+        verify(contaMonthlyPaidTotalRepository, times(1)).findTotalValuePaidPerPeriod(startDate, endDate, pageable);
+    }
+
+    @Test
+    public void testUpdateSituacao_WhenPaid_ShouldMoveValueIntoMonthlyTotals() {
+        // Arrange
+        Conta conta = new Conta();
+        conta.setId(1L);
+        conta.setValor(BigDecimal.valueOf(50));
+        conta.setDataVencimento(LocalDate.now().plusDays(1));
+
+        when(contaRepository.findById(1L)).thenReturn(Optional.of(conta));
+        when(contaRepository.save(any(Conta.class))).thenReturn(conta);
+
+        // Act
+        contaService.updateSituacao(conta, true);
+
+        // Assert
+        verify(monthlyPaidTotalService, times(1)).recordChange(null, BigDecimal.valueOf(50), LocalDate.now(), BigDecimal.valueOf(50));
+    }
+
+    @Test
+    public void testDeleteById_WhenPaid_ShouldRemoveValueFromMonthlyTotals() {
+        // Arrange
+        Long id = 1L;
+        LocalDate paidDate = LocalDate.of(2024, 5, 10);
+        Conta conta = new Conta();
+        conta.setId(id);
+        conta.setValor(BigDecimal.TEN);
+        conta.setDataPagamento(paidDate);
+        when(contaBatchRepository.deleteById(id, false)).thenReturn(Optional.of(conta));
+
+        // Act
+        contaService.deleteById(id);
+
+        // Assert
+        verify(monthlyPaidTotalService, times(1)).recordChange(paidDate, BigDecimal.TEN, null, null);
     }
 
     @Test
@@ -228,20 +435,19 @@ class ContaServiceTest {
         LocalDate endDate = LocalDate.of(2023, 12, 31);
         String description = "Teste";
         Pageable pageable = PageRequest.of(0, 10);
-        Conta conta = new Conta();
-        Page<Conta> page = new PageImpl<>(Collections.singletonList(conta));
-        when(contaRepository.findByDataVencimentoBetweenAndDescricaoAndDataPagamentoIsNull(startDate, endDate, description, pageable)).thenReturn(page);
+        Page<ContaDTO> page = new PageImpl<>(Collections.singletonList(new ContaDTO()));
+        when(contaRepository.findUnpaidByDescription(startDate, endDate, description, pageable)).thenReturn(page);
 
         // Act
-        Page<Conta> result = contaService.getAccountsbyDateAndDescription(startDate, endDate, description, pageable);
+        Page<ContaDTO> result = contaService.getAccountsbyDateAndDescription(startDate, endDate, description, pageable);
 
         // Assert
         assertEquals(1, result.getTotalElements());
-        verify(contaRepository, times(1)).findByDataVencimentoBetweenAndDescricaoAndDataPagamentoIsNull(startDate, endDate, description, pageable);
+        verify(contaRepository, times(1)).findUnpaidByDescription(startDate, endDate, description, pageable);
     }
 
     @Test
-    public void testProcessCSV_ShouldSaveContasFromCSV() throws Exception {
+    public void testProcessCSV_ShouldDelegateToImporter() throws Exception {
         // Arrange
         String csvContent = "Conta Teste,99.99,2024-05-01";
         MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", new ByteArrayInputStream(csvContent.getBytes()));
@@ -250,7 +456,128 @@ class ContaServiceTest {
         contaService.processCSV(file);
 
         // Assert
-        verify(contaRepository, times(1)).save(any(Conta.class));
+        verify(contaCsvImporter, times(1)).importCsv(any(InputStream.class));
+        verify(contaRepository, never()).save(any(Conta.class));
+    }
+
+
+    @Test
+    public void testFindAllByKeyset_WhenMoreRowsThanSize_ShouldTrimAndFlagNextSlice() {
+        // Arrange
+        ContaKeyset after = new ContaKeyset(LocalDate.of(2024, 5, 1), 10L);
+        List<Conta> rows = List.of(new Conta(), new Conta(), new Conta());
+        when(contaRepository.findKeysetPageAfter(after.getDataVencimento(), after.getId(), PageRequest.of(0, 3))).thenReturn(rows);
+
+        // Act
+        Slice<Conta> result = contaService.findAll(after, 2);
+
+        // Assert
+        assertTrue(result.hasNext());
+        assertEquals(2, result.getNumberOfElements());
+        verify(contaRepository, never()).count();
+    }
+
+    @Test
+    public void testFindAllByKeyset_WhenNoCursor_ShouldReadFirstPage() {
+        // Arrange
+        when(contaRepository.findFirstKeysetPage(PageRequest.of(0, 11))).thenReturn(List.of(new Conta()));
+
+        // Act
+        Slice<Conta> result = contaService.findAll(null, 10);
+
+        // Assert
+        assertFalse(result.hasNext());
+        assertEquals(1, result.getNumberOfElements());
+    }
+
+    @Test
+    public void testGetAccountsByDateAndDescription_WhenContains_ShouldSearchEscapedPattern() {
+        // Arrange
+        LocalDate startDate = LocalDate.of(2023, 1, 1);
+        LocalDate endDate = LocalDate.of(2023, 12, 31);
+        Pageable pageable = PageRequest.of(0, 10);
+        when(contaRepository.findUnpaidByDescriptionLike(startDate, endDate, "%100\\%\\_luz%", pageable)).thenReturn(Page.empty());
+
+        // Act
+        contaService.getAccountsbyDateAndDescription(startDate, endDate, "100%_luz", DescriptionMatch.CONTAINS, pageable);
+
+        // Assert
+        verify(contaRepository, times(1)).findUnpaidByDescriptionLike(startDate, endDate, "%100\\%\\_luz%", pageable);
+        verify(contaRepository, never()).findUnpaidByDescription(any(), any(), any(), any());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testPayAll_ShouldReportOutcomePerIdAndRecordPaidTotal() {
+        // Arrange
+        Map<Long, BigDecimal> paid = new LinkedHashMap<>();
+        paid.put(1L, new BigDecimal("10.00"));
+        paid.put(3L, new BigDecimal("15.50"));
+        when(contaBatchRepository.markPaid(any(), any(LocalDate.class))).thenReturn(paid);
+        when(contaBatchRepository.findExistingIds(List.of(2L, 4L))).thenReturn(Set.of(2L));
+
+        // Act
+        BulkPaymentResult result = contaService.payAll(List.of(1L, 2L, 3L, 4L, 1L));
+
+        // Assert
+        assertEquals(LocalDate.now(), result.getPaymentDate());
+        assertEquals(List.of(1L, 2L, 3L, 4L), List.copyOf(result.getOutcomes().keySet()));
+        assertEquals(PaymentOutcome.PAID, result.getOutcomes().get(1L));
+        assertEquals(PaymentOutcome.ALREADY_PAID, result.getOutcomes().get(2L));
+        assertEquals(PaymentOutcome.PAID, result.getOutcomes().get(3L));
+        assertEquals(PaymentOutcome.NOT_FOUND, result.getOutcomes().get(4L));
+        verify(monthlyPaidTotalService).recordPayments(LocalDate.now(), new BigDecimal("25.50"), 2);
+        verify(eventPublisher).publishEvent(new ContasPaidEvent(Set.of(1L, 3L), LocalDate.now()));
+    }
+
+    @Test
+    public void testPayAllDueBetween_ShouldReportPaidBills() {
+        // Arrange
+        LocalDate startDate = LocalDate.of(2024, 6, 1);
+        LocalDate endDate = LocalDate.of(2024, 6, 30);
+        when(contaBatchRepository.markPaidByDueDate(startDate, endDate, "Luz", LocalDate.now()))
+                .thenReturn(Map.of(7L, new BigDecimal("40.00")));
+
+        // Act
+        BulkPaymentResult result = contaService.payAllDueBetween(startDate, endDate, "Luz");
+
+        // Assert
+        assertEquals(Map.of(7L, PaymentOutcome.PAID), result.getOutcomes());
+        verify(monthlyPaidTotalService).recordPayments(LocalDate.now(), new BigDecimal("40.00"), 1);
+    }
+
+    @Test
+    public void testPayAllDueBetween_WhenRangeMatchesTooManyBills_ShouldRejectWithoutPaying() {
+        // Arrange
+        LocalDate startDate = LocalDate.of(2024, 1, 1);
+        LocalDate endDate = LocalDate.of(2024, 12, 31);
+        when(contaBatchRepository.countUnpaidDueBetween(startDate, endDate, null, ContaService.MAX_BULK_PAYMENTS + 1))
+                .thenReturn(ContaService.MAX_BULK_PAYMENTS + 1L);
+
+        // Act
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> contaService.payAllDueBetween(startDate, endDate, null));
+
+        // Assert
+        assertTrue(exception.getMessage().startsWith("More than 10000 unpaid bills"));
+        verify(contaBatchRepository, never()).markPaidByDueDate(any(), any(), any(), any());
+        verifyNoInteractions(monthlyPaidTotalService, eventPublisher);
+    }
+
+    @Test
+    public void testExportAll_ShouldStreamFromBatchRepository() {
+        // Arrange
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        List<Conta> exported = new ArrayList<>();
+        when(contaBatchRepository.streamAll(eq(from), isNull(), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<Conta>>getArgument(2).accept(new Conta());
+            return 1L;
+        });
+
+        // Act
+        long count = contaService.exportAll(from, null, exported::add);
+
+        // Assert
+        assertEquals(1, count);
+        assertEquals(1, exported.size());
+    }
+}
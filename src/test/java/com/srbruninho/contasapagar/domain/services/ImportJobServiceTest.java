@@ -0,0 +1,117 @@
+package com.srbruninho.contasapagar.domain.services;
+
+import com.srbruninho.contasapagar.domain.model.ImportJob;
+import com.srbruninho.contasapagar.domain.model.ImportJobStatus;
+import com.srbruninho.contasapagar.domain.model.ImportProgress;
+import com.srbruninho.contasapagar.domain.model.ImportRejection;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ImportJobServiceTest {
+
+    @Mock
+    private ContaCsvImporter contaCsvImporter;
+
+    @Spy
+    private TaskExecutor csvImportExecutor = new SyncTaskExecutor();
+
+    @InjectMocks
+    private ImportJobService importJobService;
+
+    public ImportJobServiceTest() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    public void testSubmit_ShouldSpoolFileAndRunImport() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", "Conta Teste,99.99,2024-05-01\n".getBytes());
+        when(contaCsvImporter.importCsv(any(InputStream.class), any(ImportProgress.class), any())).thenAnswer(invocation -> {
+            invocation.getArgument(0, InputStream.class).readAllBytes();
+            invocation.getArgument(1, ImportProgress.class).rowRead();
+            invocation.getArgument(1, ImportProgress.class).rowsInserted(1);
+            return 1L;
+        });
+
+        // Act
+        ImportJob job = importJobService.submit(file);
+
+        // Assert
+        assertEquals(ImportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(1, job.getProgress().getRowsInserted());
+        assertEquals(file.getSize(), job.getBytesRead().get());
+        assertFalse(Files.exists(job.getFile()));
+        assertSame(job, importJobService.findById(job.getId()).orElseThrow());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSubmit_WhenRowsAreRejected_ShouldWriteRejectionReport() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", "Conta Teste,abc,2024-05-01\n".getBytes());
+        when(contaCsvImporter.importCsv(any(InputStream.class), any(ImportProgress.class), any())).thenAnswer(invocation -> {
+            invocation.getArgument(2, Consumer.class).accept(new ImportRejection(1, "Invalid amount 'abc'"));
+            return 0L;
+        });
+
+        // Act
+        ImportJob job = importJobService.submit(file);
+
+        // Assert
+        Path report = importJobService.findRejectionReport(job.getId()).orElseThrow();
+        assertEquals(List.of("line,reason", "\"1\",\"Invalid amount 'abc'\""), Files.readAllLines(report));
+        Files.deleteIfExists(report);
+    }
+
+    @Test
+    public void testSubmit_WhenEarlierJobIsPastRetention_ShouldPurgeItAndItsReport() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(importJobService, "jobRetention", Duration.ZERO);
+        when(contaCsvImporter.importCsv(any(InputStream.class), any(ImportProgress.class), any())).thenReturn(0L);
+        ImportJob earlier = importJobService.submit(new MockMultipartFile("file", "a.csv", "text/csv", new byte[0]));
+        Thread.sleep(5);
+
+        // Act
+        ImportJob job = importJobService.submit(new MockMultipartFile("file", "b.csv", "text/csv", new byte[0]));
+
+        // Assert
+        assertNotNull(earlier.getFinishedAt());
+        assertTrue(importJobService.findById(earlier.getId()).isEmpty());
+        assertFalse(Files.exists(earlier.getRejectionReport()));
+        assertSame(job, importJobService.findById(job.getId()).orElseThrow());
+        Files.deleteIfExists(job.getRejectionReport());
+    }
+
+    @Test
+    public void testSubmit_WhenImportFails_ShouldMarkJobAsFailed() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", "Conta Teste,99.99,2024-05-01\n".getBytes());
+        when(contaCsvImporter.importCsv(any(InputStream.class), any(ImportProgress.class), any())).thenThrow(new IllegalStateException("boom"));
+
+        // Act
+        ImportJob job = importJobService.submit(file);
+
+        // Assert
+        assertEquals(ImportJobStatus.FAILED, job.getStatus());
+        assertEquals("boom", job.getErrorMessage());
+        assertFalse(Files.exists(job.getFile()));
+    }
+}
@@ -0,0 +1,73 @@
+package com.srbruninho.contasapagar.domain.services;
+
+import com.srbruninho.contasapagar.domain.repositories.ContaMonthlyPaidTotalRepository;
+import com.srbruninho.contasapagar.domain.repositories.ContaRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MonthlyPaidTotalServiceTest {
+
+    @Mock
+    private ContaMonthlyPaidTotalRepository contaMonthlyPaidTotalRepository;
+
+    @Mock
+    private ContaRepository contaRepository;
+
+    @InjectMocks
+    private MonthlyPaidTotalService monthlyPaidTotalService;
+
+    public MonthlyPaidTotalServiceTest() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    public void testRecordChange_WhenBillBecomesPaid_ShouldAddToPaymentMonth() {
+        // Act
+        monthlyPaidTotalService.recordChange(null, null, LocalDate.of(2024, 5, 10), BigDecimal.TEN);
+
+        // Assert
+        verify(contaMonthlyPaidTotalRepository, times(1)).addPaidAmount(LocalDate.of(2024, 5, 10), BigDecimal.TEN, 1);
+        verifyNoMoreInteractions(contaMonthlyPaidTotalRepository);
+    }
+
+    @Test
+    public void testRecordChange_WhenPaymentMovesToAnotherMonth_ShouldMoveValue() {
+        // Act
+        monthlyPaidTotalService.recordChange(LocalDate.of(2024, 4, 30), BigDecimal.TEN, LocalDate.of(2024, 5, 1), BigDecimal.ONE);
+
+        // Assert
+        verify(contaMonthlyPaidTotalRepository, times(1)).addPaidAmount(LocalDate.of(2024, 4, 30), BigDecimal.TEN.negate(), -1);
+        verify(contaMonthlyPaidTotalRepository, times(1)).addPaidAmount(LocalDate.of(2024, 5, 1), BigDecimal.ONE, 1);
+    }
+
+    @Test
+    public void testRecordChange_WhenSameMonthAndValue_ShouldDoNothing() {
+        // Act
+        monthlyPaidTotalService.recordChange(LocalDate.of(2024, 5, 1), BigDecimal.TEN, LocalDate.of(2024, 5, 20), BigDecimal.TEN);
+
+        // Assert
+        verifyNoInteractions(contaMonthlyPaidTotalRepository);
+    }
+
+    @Test
+    public void testRebuild_ShouldBumpWatermarkLockDeleteAndRecomputeWholeMonths() {
+        // Act
+        monthlyPaidTotalService.rebuild(LocalDate.of(2024, 1, 15), LocalDate.of(2024, 3, 10));
+
+        // Assert
+        InOrder inOrder = inOrder(contaRepository, contaMonthlyPaidTotalRepository);
+        inOrder.verify(contaRepository).bumpChangeWatermark();
+        inOrder.verify(contaMonthlyPaidTotalRepository).lockForRebuild();
+        inOrder.verify(contaMonthlyPaidTotalRepository).deleteMonths(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 1));
+        inOrder.verify(contaMonthlyPaidTotalRepository).insertMonthsFromConta(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 1));
+    }
+}
@@ -0,0 +1,62 @@
+package com.srbruninho.contasapagar.domain.services;
+
+import com.srbruninho.contasapagar.domain.repositories.ContaBatchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.time.LocalDate;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OverdueSweepServiceTest {
+
+    @Mock
+    private ContaBatchRepository contaBatchRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private OverdueSweepService overdueSweepService;
+
+    public OverdueSweepServiceTest() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    public void testSweep_WhenLockAcquired_ShouldCountTransitionedRows() {
+        // Arrange
+        when(contaBatchRepository.markOverdue(eq(LocalDate.now()), anyInt(), eq(OverdueSweepService.SWEEP_LOCK_KEY)))
+                .thenReturn(OptionalLong.of(120));
+
+        // Act
+        long transitioned = overdueSweepService.sweep();
+
+        // Assert
+        assertEquals(120, transitioned);
+        assertEquals(120, meterRegistry.get("contasapagar.overdue.sweep.rows").counter().count());
+        assertEquals(1, meterRegistry.get("contasapagar.overdue.sweep").tag("outcome", "swept").timer().count());
+    }
+
+    @Test
+    public void testSweep_WhenLockHeldElsewhere_ShouldSkip() {
+        // Arrange
+        when(contaBatchRepository.markOverdue(any(), anyInt(), anyLong())).thenReturn(OptionalLong.empty());
+
+        // Act
+        long transitioned = overdueSweepService.sweep();
+
+        // Assert
+        assertEquals(-1, transitioned);
+        assertNull(meterRegistry.find("contasapagar.overdue.sweep.rows").counter());
+        assertEquals(1, meterRegistry.get("contasapagar.overdue.sweep").tag("outcome", "skipped").timer().count());
+    }
+}
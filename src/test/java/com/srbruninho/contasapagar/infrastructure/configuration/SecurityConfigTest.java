@@ -0,0 +1,47 @@
+package com.srbruninho.contasapagar.infrastructure.configuration;
+
+import com.srbruninho.contasapagar.infrastructure.security.TokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecurityConfigTest {
+
+    private final SecurityConfig securityConfig = new SecurityConfig();
+
+    private final Authentication user = UsernamePasswordAuthenticationToken.authenticated("contas", null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+    @Test
+    public void testTokenService_WhenSecretIsMissing_ShouldFailStartup() {
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> securityConfig.tokenService("", Duration.ofMinutes(15), false));
+        assertTrue(exception.getMessage().startsWith("contasapagar.security.token.secret is not set"));
+    }
+
+    @Test
+    public void testTokenService_WhenSecretIsMissingButGeneratedKeyAllowed_ShouldGenerateOne() {
+        // Act
+        TokenService tokenService = securityConfig.tokenService("", Duration.ofMinutes(15), true);
+
+        // Assert
+        assertTrue(tokenService.verify(tokenService.issue(user)).isPresent());
+    }
+
+    @Test
+    public void testTokenService_WhenSecretIsShared_ShouldAcceptTokensOfOtherInstances() {
+        // Arrange
+        String secret = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+        TokenService issuer = securityConfig.tokenService(secret, Duration.ofMinutes(15), false);
+        TokenService verifier = securityConfig.tokenService(secret, Duration.ofMinutes(15), false);
+
+        // Act & Assert
+        assertTrue(verifier.verify(issuer.issue(user)).isPresent());
+    }
+}
@@ -0,0 +1,50 @@
+package com.srbruninho.contasapagar.infrastructure.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementCountFilterTest {
+
+    private final StatementCounter statementCounter = new StatementCounter();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final StatementCountFilter statementCountFilter = new StatementCountFilter(statementCounter, meterRegistry);
+
+    @Test
+    public void testDoFilter_ShouldRecordStatementsPerUriTemplate() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/contas/1");
+
+        // Act
+        statementCountFilter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) -> {
+            statementCounter.inspect("select count(*) from conta");
+            statementCounter.inspect("select * from conta");
+            servletRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/contas/{id}");
+        });
+
+        // Assert
+        DistributionSummary summary = meterRegistry.get("contasapagar.http.statements")
+                .tag("method", "GET")
+                .tag("uri", "/api/contas/{id}")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(2, summary.totalAmount());
+    }
+
+    @Test
+    public void testInspect_OutsideRequest_ShouldNotCount() {
+        // Act
+        String sql = statementCounter.inspect("select 1");
+
+        // Assert
+        assertEquals("select 1", sql);
+        assertEquals(0, statementCounter.stop());
+    }
+}
@@ -0,0 +1,71 @@
+package com.srbruninho.contasapagar.infrastructure.security;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CachingAuthenticationProviderTest {
+
+    @Mock
+    private AuthenticationProvider delegate;
+
+    private final CachingAuthenticationProvider provider;
+
+    public CachingAuthenticationProviderTest() {
+        MockitoAnnotations.openMocks(this);
+        provider = new CachingAuthenticationProvider(delegate, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    public void testAuthenticate_WhenCredentialsRepeat_ShouldCheckPasswordOnce() {
+        // Arrange
+        when(delegate.authenticate(any())).thenReturn(UsernamePasswordAuthenticationToken.authenticated("contas", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+
+        // Act
+        Authentication first = provider.authenticate(login("contas", "contas#2024", "first"));
+        Authentication second = provider.authenticate(login("contas", "contas#2024", "second"));
+
+        // Assert
+        verify(delegate, times(1)).authenticate(any());
+        assertTrue(second.isAuthenticated());
+        assertEquals("contas", second.getName());
+        assertEquals(AuthorityUtils.createAuthorityList("ROLE_USER"), second.getAuthorities());
+        assertEquals("first", first.getDetails());
+        assertEquals("second", second.getDetails());
+        assertNull(second.getCredentials());
+    }
+
+    @Test
+    public void testAuthenticate_WhenPasswordDiffers_ShouldNotUseCachedLogin() {
+        // Arrange
+        when(delegate.authenticate(any())).thenAnswer(invocation -> {
+            Authentication login = invocation.getArgument(0);
+            if (!"contas#2024".equals(login.getCredentials()))
+                throw new BadCredentialsException("Bad credentials");
+            return UsernamePasswordAuthenticationToken.authenticated("contas", null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+        });
+        provider.authenticate(login("contas", "contas#2024", null));
+
+        // Act & Assert
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(login("contas", "wrong", null)));
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(login("contas", "wrong", null)));
+        verify(delegate, times(3)).authenticate(any());
+    }
+
+    private static Authentication login(String username, String password, Object details) {
+        UsernamePasswordAuthenticationToken login = UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+        login.setDetails(details);
+        return login;
+    }
+}
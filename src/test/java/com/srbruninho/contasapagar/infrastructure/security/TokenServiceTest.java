@@ -0,0 +1,82 @@
+package com.srbruninho.contasapagar.infrastructure.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenServiceTest {
+
+    private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes();
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+
+    private final TokenService tokenService = new TokenService(SECRET, Duration.ofMinutes(15), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    private final Authentication user = UsernamePasswordAuthenticationToken.authenticated("contas", null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+    @Test
+    public void testVerify_WhenTokenIsValid_ShouldReturnUserAndAuthorities() {
+        // Arrange
+        String token = tokenService.issue(user);
+
+        // Act
+        Optional<Authentication> result = tokenService.verify(token);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals("contas", result.get().getName());
+        assertEquals(AuthorityUtils.createAuthorityList("ROLE_USER"), result.get().getAuthorities());
+        assertTrue(result.get().isAuthenticated());
+    }
+
+    @Test
+    public void testVerify_WhenTokenExpired_ShouldReject() {
+        // Arrange
+        String token = tokenService.issue(user);
+        TokenService later = new TokenService(SECRET, Duration.ofMinutes(15), Clock.fixed(NOW.plus(Duration.ofMinutes(16)), ZoneOffset.UTC));
+
+        // Act & Assert
+        assertTrue(later.verify(token).isEmpty());
+    }
+
+    @Test
+    public void testVerify_WhenSignedWithAnotherKey_ShouldReject() {
+        // Arrange
+        byte[] otherSecret = Arrays.copyOf(SECRET, SECRET.length);
+        otherSecret[0]++;
+        String token = new TokenService(otherSecret, Duration.ofMinutes(15), Clock.fixed(NOW, ZoneOffset.UTC)).issue(user);
+
+        // Act & Assert
+        assertTrue(tokenService.verify(token).isEmpty());
+    }
+
+    @Test
+    public void testVerify_WhenPayloadTamperedOrMalformed_ShouldReject() {
+        // Arrange
+        String[] parts = tokenService.issue(user).split("\\.");
+        String forgedPayload = java.util.Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"sub\":\"admin\",\"exp\":9999999999}".getBytes());
+
+        // Act & Assert
+        assertTrue(tokenService.verify(parts[0] + "." + forgedPayload + "." + parts[2]).isEmpty());
+        assertTrue(tokenService.verify("eyJhbGciOiJub25lIn0." + parts[1] + ".").isEmpty());
+        assertTrue(tokenService.verify("not-a-token").isEmpty());
+        assertTrue(tokenService.verify(parts[0] + "." + parts[1] + ".%%%").isEmpty());
+    }
+
+    @Test
+    public void testConstructor_WhenSecretTooShort_ShouldFail() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new TokenService(new byte[16], Duration.ofMinutes(15), Clock.systemUTC()));
+    }
+}
@@ -0,0 +1,118 @@
+package com.srbruninho.contasapagar.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Time to create bills one POST /create-account call at a time against a single POST /bulk, and the throughput of
+ * a 500k-element NDJSON body generated while it is sent, which the server never holds in memory as a whole.
+ */
+@Tag("benchmark")
+class ContaBulkCreateBenchmarkTest {
+
+    private static final int SINGLE_CALLS = 5_000;
+    private static final int STREAMED_ELEMENTS = 500_000;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static LoadTestEnvironment environment;
+
+    @BeforeAll
+    public static void startDatabase() throws Exception {
+        environment = LoadTestEnvironment.startDatabase();
+        environment.startApplication();
+    }
+
+    @AfterAll
+    public static void stopDatabase() throws Exception {
+        environment.close();
+    }
+
+    @Test
+    public void compareSingleCallsWithOneBulkRequest() throws Exception {
+        HttpClient client = environment.login();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < SINGLE_CALLS; i++) {
+            HttpResponse<String> response = client.send(post("/create-account", "application/json", HttpRequest.BodyPublishers.ofString(element(i))),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(201, response.statusCode());
+        }
+        double singleMillis = (System.nanoTime() - start) / 1e6;
+
+        StringJoiner array = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < SINGLE_CALLS; i++)
+            array.add(element(i));
+        start = System.nanoTime();
+        JsonNode result = send(client, "application/json", HttpRequest.BodyPublishers.ofString(array.toString()));
+        double bulkMillis = (System.nanoTime() - start) / 1e6;
+        assertEquals(SINGLE_CALLS, result.get("created").asLong());
+
+        System.out.printf("%,d bills: one call each = %.0f ms, one bulk request = %.0f ms%n", SINGLE_CALLS, singleMillis, bulkMillis);
+        assertTrue(bulkMillis < singleMillis);
+
+        start = System.nanoTime();
+        result = send(client, "application/x-ndjson", HttpRequest.BodyPublishers.ofInputStream(() -> ndjson(STREAMED_ELEMENTS)));
+        double streamedMillis = (System.nanoTime() - start) / 1e6;
+        assertEquals(STREAMED_ELEMENTS, result.get("created").asLong());
+        assertEquals(0, result.get("rejected").asLong());
+        System.out.printf("%,d bills streamed as NDJSON in %.0f ms (%.0f bills/s)%n",
+                STREAMED_ELEMENTS, streamedMillis, STREAMED_ELEMENTS / streamedMillis * 1000);
+    }
+
+    private static JsonNode send(HttpClient client, String contentType, HttpRequest.BodyPublisher body) throws Exception {
+        HttpResponse<InputStream> response = client.send(post("/bulk", contentType, body), HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+        try (InputStream responseBody = response.body()) {
+            return OBJECT_MAPPER.readTree(responseBody);
+        }
+    }
+
+    private static HttpRequest post(String path, String contentType, HttpRequest.BodyPublisher body) {
+        return HttpRequest.newBuilder(URI.create(environment.getBaseUrl() + "/api/contas" + path))
+                .header("Content-Type", contentType)
+                .POST(body)
+                .build();
+    }
+
+    private static String element(int i) {
+        return "{\"descricao\":\"Fornecedor " + (i % 500) + "\",\"valor\":" + (10 + i % 1000) + ".90," +
+                "\"dataVencimento\":\"2024-" + String.format("%02d", 1 + i % 12) + "-10\"}";
+    }
+
+    /**
+     * NDJSON body produced one line at a time as the client reads it.
+     */
+    private static InputStream ndjson(int elements) {
+        return new SequenceInputStream(new Enumeration<>() {
+            private int next;
+
+            @Override
+            public boolean hasMoreElements() {
+                return next < elements;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                return new ByteArrayInputStream((element(next++) + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+}
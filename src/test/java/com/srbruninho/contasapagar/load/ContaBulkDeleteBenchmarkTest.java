@@ -0,0 +1,114 @@
+package com.srbruninho.contasapagar.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.srbruninho.contasapagar.domain.services.ContaPurgeService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Time to delete a year of bills one DELETE /{id} call at a time against a single DELETE by due-date range, first
+ * with hard deletes and then with contasapagar.delete.soft, where the range delete only stamps deleted_at and the
+ * purge removes the rows afterwards.
+ */
+@Tag("benchmark")
+class ContaBulkDeleteBenchmarkTest {
+
+    private static final int BILLS_PER_YEAR = 5_000;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static LoadTestEnvironment environment;
+
+    @BeforeAll
+    public static void startDatabase() throws Exception {
+        environment = LoadTestEnvironment.startDatabase();
+    }
+
+    @AfterAll
+    public static void stopDatabase() throws Exception {
+        environment.close();
+    }
+
+    @Test
+    public void compareSingleDeletesWithRangeDeletes() throws Exception {
+        environment.startApplication("contasapagar.delete.soft=false");
+        HttpClient client = environment.login();
+
+        List<Long> ids = create(client, 2022);
+        long start = System.nanoTime();
+        for (Long id : ids) {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(environment.getBaseUrl() + "/api/contas/" + id)).DELETE().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(204, response.statusCode());
+        }
+        double singleMillis = (System.nanoTime() - start) / 1e6;
+
+        create(client, 2023);
+        start = System.nanoTime();
+        JsonNode hard = deleteYear(client, 2023);
+        double hardMillis = (System.nanoTime() - start) / 1e6;
+        assertEquals(BILLS_PER_YEAR, hard.get("deleted").asLong());
+        assertFalse(hard.get("soft").asBoolean());
+
+        ContaPurgeService purgeService = environment.startApplication("contasapagar.delete.soft=true", "contasapagar.delete.purge-cron=-",
+                "contasapagar.delete.purge-delay=PT0S").getBean(ContaPurgeService.class);
+        client = environment.login();
+        create(client, 2024);
+        start = System.nanoTime();
+        JsonNode soft = deleteYear(client, 2024);
+        double softMillis = (System.nanoTime() - start) / 1e6;
+        assertEquals(BILLS_PER_YEAR, soft.get("deleted").asLong());
+        assertTrue(soft.get("soft").asBoolean());
+
+        start = System.nanoTime();
+        assertEquals(BILLS_PER_YEAR, purgeService.purge());
+        double purgeMillis = (System.nanoTime() - start) / 1e6;
+
+        System.out.printf("%,d bills: one DELETE each = %.0f ms, one range delete = %.0f ms, one range soft delete = %.0f ms, purge = %.0f ms%n",
+                BILLS_PER_YEAR, singleMillis, hardMillis, softMillis, purgeMillis);
+        assertTrue(hardMillis < singleMillis);
+    }
+
+    private static List<Long> create(HttpClient client, int year) throws Exception {
+        StringJoiner array = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < BILLS_PER_YEAR; i++)
+            array.add("{\"descricao\":\"Fornecedor " + (i % 500) + "\",\"valor\":" + (10 + i % 1000) + ".90," +
+                    "\"dataVencimento\":\"" + year + "-" + String.format("%02d", 1 + i % 12) + "-10\"}");
+        HttpRequest request = HttpRequest.newBuilder(URI.create(environment.getBaseUrl() + "/api/contas/bulk"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(array.toString()))
+                .build();
+        JsonNode result = readJson(client.send(request, HttpResponse.BodyHandlers.ofInputStream()));
+        List<Long> ids = new ArrayList<>(BILLS_PER_YEAR);
+        result.get("items").forEach(item -> ids.add(item.get("id").asLong()));
+        return ids;
+    }
+
+    private static JsonNode deleteYear(HttpClient client, int year) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(environment.getBaseUrl() + "/api/contas?startDate=" + year + "-01-01&endDate=" + year + "-12-31"))
+                .DELETE()
+                .build();
+        return readJson(client.send(request, HttpResponse.BodyHandlers.ofInputStream()));
+    }
+
+    private static JsonNode readJson(HttpResponse<InputStream> response) throws Exception {
+        assertEquals(200, response.statusCode());
+        try (InputStream body = response.body()) {
+            return OBJECT_MAPPER.readTree(body);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.srbruninho.contasapagar.load;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end throughput of a synchronous POST /import-csv of 10k, 100k and 1M rows against the embedded Postgres,
+ * including the upload, parsing and the batched inserts.
+ */
+@Tag("benchmark")
+class ContaCsvImportBenchmarkTest {
+
+    private static final int[] ROWS = {10_000, 100_000, 1_000_000};
+
+    private static final String BOUNDARY = "contasapagar-benchmark";
+
+    private static LoadTestEnvironment environment;
+
+    @BeforeAll
+    public static void startDatabase() throws Exception {
+        environment = LoadTestEnvironment.startDatabase();
+        environment.startApplication("spring.servlet.multipart.max-file-size=-1", "spring.servlet.multipart.max-request-size=-1");
+    }
+
+    @AfterAll
+    public static void stopDatabase() throws Exception {
+        environment.close();
+    }
+
+    @Test
+    public void measureImportThroughput() throws Exception {
+        HttpClient client = environment.login();
+        // Warms up the JIT and the connection pool, so the first size is not penalised.
+        importCsv(client, 10_000);
+
+        for (int rows : ROWS) {
+            double millis = importCsv(client, rows);
+            System.out.printf("CSV import, %,d rows: %.0f ms (%.0f rows/s)%n", rows, millis, rows / millis * 1000);
+        }
+    }
+
+    private static double importCsv(HttpClient client, int rows) throws Exception {
+        StringBuilder csv = new StringBuilder(rows * 48);
+        for (int i = 0; i < rows; i++) {
+            csv.append("\"Fornecedor ").append(i % 500).append("\",")
+                    .append(10 + i % 9000).append('.').append(i % 100).append(",\"2024-")
+                    .append(String.format("%02d", 1 + i % 12)).append("-15\"");
+            if (i % 3 == 0)
+                csv.append(",\"2024-06-01\"");
+            csv.append('\n');
+        }
+        byte[] body = ("--" + BOUNDARY + "\r\n" +
+                "Content-Disposition: form-data; name=\"file\"; filename=\"contas.csv\"\r\n" +
+                "Content-Type: text/csv\r\n\r\n" +
+                csv + "\r\n" +
+                "--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(environment.getBaseUrl() + "/api/contas/import-csv"))
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        double millis = (System.nanoTime() - start) / 1e6;
+        assertEquals(204, response.statusCode(), response.body());
+        return millis;
+    }
+}
@@ -0,0 +1,77 @@
+package com.srbruninho.contasapagar.load;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end load run of the mixed {@code /api/contas} workload against an embedded PostgreSQL seeded by
+ * {@link ContaSeeder}. Writes a JSON report with throughput and latency percentiles per endpoint. Run with
+ * {@code mvn test -Pbenchmark -Dtest=ContaLoadTest}, tuned through system properties:
+ * <ul>
+ *     <li>{@code load.rows} (1000000), {@code load.years} (5) and {@code load.seed} (0.42): size and shape of the data set;</li>
+ *     <li>{@code load.clients} (50), {@code load.warmup} (PT10S) and {@code load.duration} (PT60S): the run itself;</li>
+ *     <li>{@code load.virtual-threads} (false): request threading mode, {@code true} needs Java 21;</li>
+ *     <li>{@code load.report} (target/load-report.json): where the report is written.</li>
+ * </ul>
+ */
+@Tag("benchmark")
+class ContaLoadTest {
+
+    @Test
+    public void runMixedWorkload() throws Exception {
+        long rows = Long.getLong("load.rows", 1_000_000);
+        int years = Integer.getInteger("load.years", 5);
+        double seed = Double.parseDouble(System.getProperty("load.seed", "0.42"));
+        int clients = Integer.getInteger("load.clients", 50);
+        Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT60S"));
+        boolean virtualThreads = Boolean.getBoolean("load.virtual-threads");
+        Path reportFile = Path.of(System.getProperty("load.report", "target/load-report.json"));
+
+        try (LoadTestEnvironment environment = LoadTestEnvironment.startDatabase()) {
+            new ContaSeeder(environment.startApplication("spring.threads.virtual.enabled=" + virtualThreads)).seed(rows, years, seed);
+
+            HttpClient client = environment.login();
+            List<Scenario> scenarios = ContaWorkloads.mixed(client, environment.getBaseUrl(), rows, years);
+            LoadDriver driver = new LoadDriver(client, environment.getBaseUrl(), scenarios);
+
+            Map<String, Object> settings = new LinkedHashMap<>();
+            settings.put("rows", rows);
+            settings.put("years", years);
+            settings.put("seed", seed);
+            settings.put("clients", clients);
+            settings.put("warmupSeconds", warmup.toSeconds());
+            settings.put("virtualThreads", virtualThreads);
+            settings.put("javaVersion", Runtime.version().toString());
+            settings.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+
+            driver.run(clients, warmup, settings);
+            LoadReport report = driver.run(clients, duration, settings);
+            report.write(reportFile);
+
+            System.out.printf("%-24s %9s %8s %8s %9s %8s %8s %8s %8s%n", "scenario", "requests", "errors", "4xx", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+            for (LoadReport.ScenarioReport scenario : report.getScenarios())
+                print(scenario);
+            print(report.getTotal());
+            System.out.println("Report written to " + reportFile.toAbsolutePath());
+
+            assertTrue(report.getTotal().getRequests() > 0);
+            assertEquals(0, report.scenario("getById").getErrors());
+        }
+    }
+
+    private static void print(LoadReport.ScenarioReport scenario) {
+        System.out.printf("%-24s %9d %8d %8d %9.1f %8d %8d %8d %8d%n", scenario.getName(), scenario.getRequests(), scenario.getErrors(),
+                scenario.getClientErrors(), scenario.getThroughputPerSecond(), scenario.getLatencyMs().getP50(),
+                scenario.getLatencyMs().getP90(), scenario.getLatencyMs().getP99(), scenario.getLatencyMs().getMax());
+    }
+}
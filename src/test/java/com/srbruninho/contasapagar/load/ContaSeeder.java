@@ -0,0 +1,108 @@
+package com.srbruninho.contasapagar.load;
+
+import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.services.MonthlyPaidTotalService;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Fills {@code conta} with generated bills, in chunks of one INSERT ... SELECT each, so tens of millions of rows
+ * never pass through the JVM. The data is reproducible for a given seed and shaped like a real payables book:
+ * <ul>
+ *     <li>due dates spread over {@code years} years up to one year ahead, 60% on the usual billing days (5, 10, 15, 20, 25);</li>
+ *     <li>90% of past-due bills paid, three quarters of them on time (up to 10 days early) and the rest up to 30 days late;
+ *     10% of future bills already paid;</li>
+ *     <li>values skewed towards small amounts (10.00 to 5,000.00) and 5,000 suppliers with a few much more frequent than others.</li>
+ * </ul>
+ * Afterwards the id sequence, the monthly paid totals and the planner statistics are brought up to date.
+ */
+public class ContaSeeder {
+
+    private static final Logger LOGGER = Logger.getLogger(ContaSeeder.class.getName());
+
+    public static final int SUPPLIERS = 5000;
+
+    private static final int CHUNK_SIZE = 1_000_000;
+
+    private static final String INSERT_CHUNK_SQL = "INSERT INTO conta (id, data_vencimento, data_pagamento, valor, descricao, situacao)\n" +
+            "SELECT id, due, paid, valor, descricao,\n" +
+            "       CASE WHEN paid IS NOT NULL THEN 'PAGA' WHEN due < CAST(? AS date) THEN 'ATRASADA' ELSE 'PENDENTE' END\n" +
+            "FROM (SELECT id, due, valor, descricao,\n" +
+            "             CASE WHEN due < CAST(? AS date) THEN CASE WHEN r_paid < 0.9 THEN LEAST(due + delay, CAST(? AS date)) END\n" +
+            "                  WHEN r_paid < 0.1 THEN CAST(? AS date) - CAST(floor(r_delay * 10) AS int) END AS paid\n" +
+            "      FROM (SELECT i AS id,\n" +
+            "                   CAST(CAST(? AS date) + make_interval(months => CAST(floor(random() * ?) AS int))\n" +
+            "                        + make_interval(days => CAST(CASE WHEN random() < 0.6 THEN 5 * (1 + floor(random() * 5)) ELSE 1 + floor(random() * 28) END AS int) - 1) AS date) AS due,\n" +
+            "                   CAST(CASE WHEN random() < 0.75 THEN -floor(random() * 11) ELSE 1 + floor(random() * 30) END AS int) AS delay,\n" +
+            "                   random() AS r_paid,\n" +
+            "                   random() AS r_delay,\n" +
+            "                   round(CAST(10 + 4990 * power(random(), 4) AS numeric), 2) AS valor,\n" +
+            "                   'Fornecedor ' || CAST(floor(" + SUPPLIERS + " * power(random(), 2)) AS int) AS descricao\n" +
+            "            FROM generate_series(?, ?) AS i) generated) with_payment";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final MonthlyPaidTotalService monthlyPaidTotalService;
+
+    private final LocalDate today;
+
+    public ContaSeeder(ApplicationContext context) {
+        this.jdbcTemplate = context.getBean(JdbcTemplate.class);
+        this.monthlyPaidTotalService = context.getBean(MonthlyPaidTotalService.class);
+        this.today = LocalDate.now();
+    }
+
+    public long count() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM conta", Long.class);
+    }
+
+    /**
+     * Tops {@code conta} up to {@code rows} rows. Rows already present are kept, so reruns against the same
+     * database only pay for the seeding once.
+     */
+    public void seed(long rows, int years, double seed) {
+        long existing = count();
+        if (existing >= rows)
+            return;
+
+        LocalDate firstMonth = today.withDayOfMonth(1).minusYears(years);
+        int months = (years + 1) * 12;
+        long startedAt = System.nanoTime();
+        // Partitions first, so the history lands in its yearly partitions instead of conta_default
+        jdbcTemplate.queryForList("SELECT create_conta_partition(y) FROM generate_series(?, ?) AS y",
+                firstMonth.getYear(), today.getYear() + 1);
+        // setseed only applies to its own session, so every chunk runs on the same connection
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement setSeed = connection.prepareStatement("SELECT setseed(?)");
+                 PreparedStatement insert = connection.prepareStatement(INSERT_CHUNK_SQL)) {
+                setSeed.setDouble(1, seed);
+                setSeed.execute();
+                Date date = Date.valueOf(today);
+                for (int i = 1; i <= 4; i++)
+                    insert.setDate(i, date);
+                insert.setDate(5, Date.valueOf(firstMonth));
+                insert.setInt(6, months);
+                for (long from = existing + 1; from <= rows; from += CHUNK_SIZE) {
+                    long to = Math.min(from + CHUNK_SIZE - 1, rows);
+                    insert.setLong(7, from);
+                    insert.setLong(8, to);
+                    insert.executeUpdate();
+                    LOGGER.log(Level.INFO, "#0b6f3e5a - Seeded {0} of {1} bills", new Object[]{to, rows});
+                }
+            }
+            return null;
+        });
+
+        jdbcTemplate.queryForObject("SELECT setval('" + Conta.ID_SEQUENCE + "', ?)", Long.class, rows + Conta.ID_ALLOCATION_SIZE);
+        monthlyPaidTotalService.rebuild(null, null);
+        jdbcTemplate.execute("ANALYZE conta");
+        LOGGER.log(Level.INFO, "#7c2d5e80 - Seeded {0} bills in {1} s", new Object[]{rows - existing, (System.nanoTime() - startedAt) / 1_000_000_000});
+    }
+}
@@ -0,0 +1,145 @@
+package com.srbruninho.contasapagar.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Request mixes for {@link LoadDriver} covering the {@code /api/contas} endpoints, with ids, dates and suppliers
+ * drawn from the ranges produced by {@link ContaSeeder}. Reads dominate, as they do in production.
+ */
+public class ContaWorkloads {
+
+    private static final String API = "/api/contas";
+    private static final String CSV_BOUNDARY = "load-test-boundary";
+    private static final int CSV_IMPORT_ROWS = 50;
+
+    private ContaWorkloads() {
+    }
+
+    /**
+     * Weighted mix over every endpoint. An async import is submitted first so the import job endpoints have a job to
+     * report on; the import scenario itself is synchronous, so the bounded job queue never turns the mix into 503s.
+     */
+    public static List<Scenario> mixed(HttpClient client, String baseUrl, long rows, int years) throws IOException, InterruptedException {
+        String jobId = submitImportJob(client, baseUrl);
+        LocalDate firstMonth = LocalDate.now().withDayOfMonth(1).minusYears(years);
+        int months = (years + 1) * 12;
+
+        return List.of(
+                new Scenario("getById", 25, (url, random) -> get(url + API + "/" + randomId(random, rows))),
+                new Scenario("listPage", 8, (url, random) -> get(url + API + "?page=" + random.nextInt(50) + "&size=20")),
+                new Scenario("listCursor", 8, (url, random) -> get(url + API + "/cursor?size=20")),
+                new Scenario("exportMonth", 1, (url, random) -> exportMonth(url, random, firstMonth, months)),
+                new Scenario("unpaidExact", 8, (url, random) -> unpaid(url, "", random, firstMonth, months, "EXACT")),
+                new Scenario("unpaidContains", 4, (url, random) -> unpaid(url, "", random, firstMonth, months, "CONTAINS")),
+                new Scenario("unpaidCursor", 4, (url, random) -> unpaid(url, "/cursor", random, firstMonth, months, "EXACT")),
+                new Scenario("paidTotalsWholeMonths", 5, (url, random) -> paidTotals(url, random, firstMonth, months, true)),
+                new Scenario("paidTotalsPartialMonths", 3, (url, random) -> paidTotals(url, random, firstMonth, months, false)),
+                new Scenario("createAccount", 8, (url, random) -> json(url + API + "/create-account", "POST", contaJson(random, firstMonth, months))),
+                new Scenario("updateAccount", 5, (url, random) -> json(url + API + "/update-account/" + randomId(random, rows), "PUT", contaJson(random, firstMonth, months))),
+                new Scenario("updateSituacao", 5, (url, random) -> json(url + API + "/update-situacao/" + randomId(random, rows), "PUT", "true")),
+                new Scenario("bulkPayment", 2, (url, random) -> json(url + API + "/payments/bulk", "POST", bulkPaymentJson(random, rows))),
+                new Scenario("deleteById", 2, (url, random) -> HttpRequest.newBuilder(URI.create(url + API + "/" + randomId(random, rows))).DELETE().build()),
+                new Scenario("importCsv", 1, (url, random) -> csvImport(url, "false", random, firstMonth, months)),
+                new Scenario("importJob", 1, (url, random) -> get(url + API + "/import-jobs/" + jobId)),
+                new Scenario("importJobRejections", 1, (url, random) -> get(url + API + "/import-jobs/" + jobId + "/rejections")));
+    }
+
+    private static String submitImportJob(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(csvImport(baseUrl, "true", ThreadLocalRandom.current(), LocalDate.now(), 12),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 202)
+            throw new IllegalStateException("Import job submission failed with HTTP " + response.statusCode());
+        return new ObjectMapper().readTree(response.body()).get("id").asText();
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    private static HttpRequest json(String url, String method, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static HttpRequest unpaid(String url, String suffix, ThreadLocalRandom random, LocalDate firstMonth, int months, String match) {
+        LocalDate startDate = randomMonth(random, firstMonth, months);
+        String description = match.equals("CONTAINS") ? "necedor " + random.nextInt(ContaSeeder.SUPPLIERS) : randomSupplier(random);
+        return get(url + API + "/filter/due-date/description/unpaid" + suffix + "?size=20&startDate=" + startDate
+                + "&endDate=" + startDate.plusMonths(6).minusDays(1) + "&description=" + description.replace(" ", "%20") + "&match=" + match);
+    }
+
+    private static HttpRequest paidTotals(String url, ThreadLocalRandom random, LocalDate firstMonth, int months, boolean wholeMonths) {
+        LocalDate startDate = randomMonth(random, firstMonth, months);
+        LocalDate endDate = startDate.plusYears(1).minusDays(1);
+        if (!wholeMonths) {
+            startDate = startDate.plusDays(1 + random.nextInt(27));
+            endDate = endDate.minusDays(1 + random.nextInt(27));
+        }
+        return get(url + API + "/filter/total-value/period/paid?size=12&startDate=" + startDate + "&endDate=" + endDate);
+    }
+
+    private static HttpRequest exportMonth(String url, ThreadLocalRandom random, LocalDate firstMonth, int months) {
+        LocalDate from = randomMonth(random, firstMonth, months);
+        String format = random.nextBoolean() ? "NDJSON" : "CSV";
+        return get(url + API + "/export?format=" + format + "&from=" + from + "&to=" + from.plusMonths(1).minusDays(1));
+    }
+
+    private static HttpRequest csvImport(String url, String async, ThreadLocalRandom random, LocalDate firstMonth, int months) {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < CSV_IMPORT_ROWS; i++) {
+            csv.append('"').append(randomSupplier(random)).append("\",")
+                    .append(randomValue(random)).append(',')
+                    .append(randomMonth(random, firstMonth, months).plusDays(random.nextInt(28))).append(",\n");
+        }
+        String body = "--" + CSV_BOUNDARY + "\r\n" +
+                "Content-Disposition: form-data; name=\"file\"; filename=\"contas.csv\"\r\n" +
+                "Content-Type: text/csv\r\n\r\n" +
+                csv + "\r\n" +
+                "--" + CSV_BOUNDARY + "--\r\n";
+        return HttpRequest.newBuilder(URI.create(url + API + "/import-csv?async=" + async))
+                .header("Content-Type", "multipart/form-data; boundary=" + CSV_BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private static String contaJson(ThreadLocalRandom random, LocalDate firstMonth, int months) {
+        return "{\"dataVencimento\":\"" + randomMonth(random, firstMonth, months).plusDays(random.nextInt(28)) + "\"," +
+                "\"valor\":" + randomValue(random) + "," +
+                "\"descricao\":\"" + randomSupplier(random) + "\"}";
+    }
+
+    private static String bulkPaymentJson(ThreadLocalRandom random, long rows) {
+        StringBuilder ids = new StringBuilder();
+        for (int i = 0; i < 50; i++)
+            ids.append(i > 0 ? "," : "").append(randomId(random, rows));
+        return "{\"ids\":[" + ids + "]}";
+    }
+
+    private static long randomId(ThreadLocalRandom random, long rows) {
+        return 1 + random.nextLong(rows);
+    }
+
+    private static LocalDate randomMonth(ThreadLocalRandom random, LocalDate firstMonth, int months) {
+        return firstMonth.plusMonths(random.nextInt(months));
+    }
+
+    private static String randomSupplier(ThreadLocalRandom random) {
+        return "Fornecedor " + (int) (ContaSeeder.SUPPLIERS * Math.pow(random.nextDouble(), 2));
+    }
+
+    private static String randomValue(ThreadLocalRandom random) {
+        return String.format("%.2f", 10 + 4990 * Math.pow(random.nextDouble(), 4)).replace(',', '.');
+    }
+}
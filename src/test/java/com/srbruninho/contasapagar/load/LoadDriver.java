@@ -0,0 +1,135 @@
+package com.srbruninho.contasapagar.load;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop load generator: each client thread sends one request at a time, picking a scenario at random by
+ * weight, until the run ends. Latencies are kept per client and merged at the end.
+ */
+public class LoadDriver {
+
+    private final HttpClient client;
+
+    private final String baseUrl;
+
+    private final List<Scenario> scenarios;
+
+    private final int totalWeight;
+
+    public LoadDriver(HttpClient client, String baseUrl, List<Scenario> scenarios) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.scenarios = scenarios;
+        this.totalWeight = scenarios.stream().mapToInt(Scenario::getWeight).sum();
+    }
+
+    public LoadReport run(int clients, Duration duration, Map<String, Object> settings) throws InterruptedException {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + duration.toNanos();
+        List<ClientStats> stats = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(clients);
+
+        for (int i = 0; i < clients; i++) {
+            ClientStats clientStats = new ClientStats(scenarios.size());
+            stats.add(clientStats);
+            Thread thread = new Thread(() -> {
+                try {
+                    runClient(clientStats, deadline);
+                } finally {
+                    done.countDown();
+                }
+            }, "load-client-" + i);
+            thread.start();
+        }
+        done.await();
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+
+        List<LoadReport.ScenarioReport> reports = new ArrayList<>();
+        List<Long> all = new ArrayList<>();
+        long errors = 0;
+        long clientErrors = 0;
+        for (int s = 0; s < scenarios.size(); s++) {
+            List<Long> latencies = new ArrayList<>();
+            long scenarioErrors = 0;
+            long scenarioClientErrors = 0;
+            for (ClientStats clientStats : stats) {
+                latencies.addAll(clientStats.latencies.get(s));
+                scenarioErrors += clientStats.errors[s];
+                scenarioClientErrors += clientStats.clientErrors[s];
+            }
+            all.addAll(latencies);
+            errors += scenarioErrors;
+            clientErrors += scenarioClientErrors;
+            reports.add(report(scenarios.get(s).getName(), latencies, scenarioErrors, scenarioClientErrors, seconds));
+        }
+        return new LoadReport(settings, seconds, report("total", all, errors, clientErrors, seconds), reports);
+    }
+
+    private void runClient(ClientStats stats, long deadline) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            int index = pick(random);
+            HttpRequest request = scenarios.get(index).getRequest().apply(baseUrl, random);
+            long startedAt = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                stats.latencies.get(index).add((System.nanoTime() - startedAt) / 1_000_000);
+                if (response.statusCode() >= 500)
+                    stats.errors[index]++;
+                else if (response.statusCode() >= 400)
+                    stats.clientErrors[index]++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                stats.errors[index]++;
+            }
+        }
+    }
+
+    private int pick(ThreadLocalRandom random) {
+        int target = random.nextInt(totalWeight);
+        for (int i = 0; i < scenarios.size(); i++) {
+            target -= scenarios.get(i).getWeight();
+            if (target < 0)
+                return i;
+        }
+        return scenarios.size() - 1;
+    }
+
+    private static LoadReport.ScenarioReport report(String name, List<Long> latencies, long errors, long clientErrors, double seconds) {
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        double mean = Arrays.stream(sorted).average().orElse(0);
+        LoadReport.Latency latency = new LoadReport.Latency(mean, percentile(sorted, 0.50), percentile(sorted, 0.90),
+                percentile(sorted, 0.99), percentile(sorted, 0.999), sorted.length > 0 ? sorted[sorted.length - 1] : 0);
+        return new LoadReport.ScenarioReport(name, sorted.length, errors, clientErrors, sorted.length / seconds, latency);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0)
+            return 0;
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+
+    private static class ClientStats {
+        private final List<List<Long>> latencies = new ArrayList<>();
+        private final long[] errors;
+        private final long[] clientErrors;
+
+        private ClientStats(int scenarios) {
+            for (int i = 0; i < scenarios; i++)
+                latencies.add(new ArrayList<>());
+            errors = new long[scenarios];
+            clientErrors = new long[scenarios];
+        }
+    }
+}
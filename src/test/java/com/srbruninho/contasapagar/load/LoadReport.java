@@ -0,0 +1,68 @@
+package com.srbruninho.contasapagar.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.Value;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Machine-readable result of a load run: throughput and latency percentiles, overall and per scenario.
+ * 5xx responses and transport failures count as errors; 4xx responses are reported separately.
+ */
+@Value
+public class LoadReport {
+
+    Map<String, Object> settings;
+
+    double durationSeconds;
+
+    ScenarioReport total;
+
+    List<ScenarioReport> scenarios;
+
+    public ScenarioReport scenario(String name) {
+        return scenarios.stream().filter(scenario -> scenario.getName().equals(name)).findFirst().orElseThrow();
+    }
+
+    public void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), this);
+    }
+
+    @Value
+    public static class ScenarioReport {
+
+        String name;
+
+        long requests;
+
+        long errors;
+
+        long clientErrors;
+
+        double throughputPerSecond;
+
+        Latency latencyMs;
+    }
+
+    @Value
+    public static class Latency {
+
+        double mean;
+
+        long p50;
+
+        long p90;
+
+        long p99;
+
+        long p999;
+
+        long max;
+    }
+}
@@ -0,0 +1,93 @@
+package com.srbruninho.contasapagar.load;
+
+import com.srbruninho.contasapagar.ContasapagarApiApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A running instance of the application on a random port, backed by an embedded PostgreSQL (zonky), for load tests.
+ * The database outlives application restarts, so one seeded data set can serve several runs.
+ */
+public class LoadTestEnvironment implements AutoCloseable {
+
+    private static final String LOGIN_FORM = "username=contas&password=" + URLEncoder.encode("contas#2024", StandardCharsets.UTF_8);
+
+    private final EmbeddedPostgres postgres;
+
+    private ConfigurableApplicationContext context;
+
+    private LoadTestEnvironment(EmbeddedPostgres postgres) {
+        this.postgres = postgres;
+    }
+
+    public static LoadTestEnvironment startDatabase() throws IOException {
+        return new LoadTestEnvironment(EmbeddedPostgres.start());
+    }
+
+    /**
+     * (Re)starts the application against the embedded database. {@code properties} are extra
+     * {@code name=value} settings, applied with command-line precedence.
+     */
+    public ConfigurableApplicationContext startApplication(String... properties) {
+        stopApplication();
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                // Same driver options as application.properties, so JDBC batches are rewritten as in production.
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true",
+                "--contasapagar.overdue-sweep.cron=-",
+                // A single instance, so the generated token signing key the dev profile allows is enough.
+                "--spring.profiles.active=dev",
+                "--logging.level.root=WARN"));
+        for (String property : properties)
+            args.add("--" + property);
+        context = new SpringApplicationBuilder(ContasapagarApiApplication.class).run(args.toArray(String[]::new));
+        return context;
+    }
+
+    public void stopApplication() {
+        if (context != null) {
+            context.close();
+            context = null;
+        }
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/contasapagar";
+    }
+
+    /**
+     * HTTP client logged in through the form login. The session cookie is shared by every request sent with it, so
+     * load runs measure the endpoints rather than a BCrypt check per request.
+     */
+    public HttpClient login() throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .cookieHandler(new CookieManager())
+                .build();
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(getBaseUrl() + "/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(LOGIN_FORM))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 302)
+            throw new IllegalStateException("Login failed with HTTP " + response.statusCode());
+        return client;
+    }
+
+    @Override
+    public void close() throws IOException {
+        stopApplication();
+        postgres.close();
+    }
+}
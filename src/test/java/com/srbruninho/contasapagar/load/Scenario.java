@@ -0,0 +1,21 @@
+package com.srbruninho.contasapagar.load;
+
+import lombok.Value;
+
+import java.net.http.HttpRequest;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
+
+/**
+ * One kind of request in a load mix. {@code weight} is its share of the requests relative to the other scenarios;
+ * {@code request} builds a request for the given base URL.
+ */
+@Value
+public class Scenario {
+
+    String name;
+
+    int weight;
+
+    BiFunction<String, ThreadLocalRandom, HttpRequest> request;
+}
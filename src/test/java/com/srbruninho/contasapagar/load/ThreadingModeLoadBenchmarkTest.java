@@ -0,0 +1,84 @@
+package com.srbruninho.contasapagar.load;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * p99 latency of a cheap endpoint (cached GET by id) while slow aggregation queries saturate the connection pool,
+ * with 500 concurrent clients, on platform and on virtual request threads. The virtual mode needs Java 21:
+ * {@code mvn test -Pbenchmark,java21 -Dtest=ThreadingModeLoadBenchmarkTest} with a JDK 21.
+ */
+@Tag("benchmark")
+class ThreadingModeLoadBenchmarkTest {
+
+    private static final int SEEDED_ROWS = 1_000_000;
+    private static final int SEEDED_YEARS = 5;
+    private static final int CLIENTS = 500;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(20);
+
+    private static LoadTestEnvironment environment;
+
+    @BeforeAll
+    public static void startDatabase() throws Exception {
+        environment = LoadTestEnvironment.startDatabase();
+    }
+
+    @AfterAll
+    public static void stopDatabase() throws Exception {
+        environment.close();
+    }
+
+    @Test
+    public void compareP99LatencyOfPlatformAndVirtualThreads() throws Exception {
+        print("Platform", run(false));
+
+        if (Runtime.version().feature() < 21) {
+            System.out.println("Virtual threads skipped: run on Java 21 with -Pjava21");
+            return;
+        }
+        print("Virtual", run(true));
+    }
+
+    private LoadReport run(boolean virtualThreads) throws Exception {
+        new ContaSeeder(environment.startApplication("spring.threads.virtual.enabled=" + virtualThreads))
+                .seed(SEEDED_ROWS, SEEDED_YEARS, 0.42);
+        HttpClient client = environment.login();
+
+        // One slow request for every four cheap ones; the period is not whole months, so it is summed from conta
+        // instead of the monthly aggregate
+        LocalDate startDate = LocalDate.now().withDayOfMonth(2).minusYears(2);
+        HttpRequest cheap = HttpRequest.newBuilder(URI.create(environment.getBaseUrl() + "/api/contas/1")).build();
+        HttpRequest slow = HttpRequest.newBuilder(URI.create(environment.getBaseUrl() + "/api/contas/filter/total-value/period/paid?startDate="
+                + startDate + "&endDate=" + startDate.plusYears(1).minusDays(3) + "&size=200")).build();
+        LoadDriver driver = new LoadDriver(client, environment.getBaseUrl(), List.of(
+                new Scenario("cheap", 4, (url, random) -> cheap),
+                new Scenario("slow", 1, (url, random) -> slow)));
+
+        Map<String, Object> settings = Map.of("clients", CLIENTS, "virtualThreads", virtualThreads);
+        driver.run(CLIENTS, WARMUP, settings);
+        LoadReport report = driver.run(CLIENTS, MEASUREMENT, settings);
+        assertTrue(report.scenario("cheap").getRequests() > 0);
+        return report;
+    }
+
+    private static void print(String mode, LoadReport report) {
+        LoadReport.ScenarioReport cheap = report.scenario("cheap");
+        LoadReport.ScenarioReport slow = report.scenario("slow");
+        System.out.printf("%s threads, %d clients: cheap p99 = %d ms (p50 %d ms, %d requests), slow p99 = %d ms, errors = %d%n",
+                mode, CLIENTS, cheap.getLatencyMs().getP99(), cheap.getLatencyMs().getP50(), cheap.getRequests(),
+                slow.getLatencyMs().getP99(), report.getTotal().getErrors());
+    }
+}
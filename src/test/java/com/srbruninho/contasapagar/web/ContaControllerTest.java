@@ -1,22 +1,79 @@
 package com.srbruninho.contasapagar.web;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.srbruninho.contasapagar.api.converter.ContaConverter;
+import com.srbruninho.contasapagar.api.converter.ContaExportConverter;
+import com.srbruninho.contasapagar.api.converter.CursorConverter;
+import com.srbruninho.contasapagar.api.dto.BulkPaymentRequestDTO;
+import com.srbruninho.contasapagar.api.dto.BulkPaymentResultDTO;
+import com.srbruninho.contasapagar.api.dto.ContaDTO;
+import com.srbruninho.contasapagar.api.dto.CursorPageDTO;
+import com.srbruninho.contasapagar.api.converter.ImportJobConverter;
+import com.srbruninho.contasapagar.api.dto.ImportJobDTO;
+import com.srbruninho.contasapagar.api.dto.PaymentOutcomeDTO;
+import com.srbruninho.contasapagar.domain.model.BulkCreateItem;
+import com.srbruninho.contasapagar.domain.model.BulkCreateResult;
+import com.srbruninho.contasapagar.domain.model.BulkDeleteResult;
+import com.srbruninho.contasapagar.domain.model.BulkPaymentResult;
 import com.srbruninho.contasapagar.domain.model.Conta;
+import com.srbruninho.contasapagar.domain.model.ContaAggregate;
+import com.srbruninho.contasapagar.domain.model.ContaAggregateGroup;
+import com.srbruninho.contasapagar.domain.model.ContaDeleteFilter;
+import com.srbruninho.contasapagar.domain.model.ContaKeyset;
+import com.srbruninho.contasapagar.domain.model.ContaPatch;
+import com.srbruninho.contasapagar.domain.model.ContaSummary;
+import com.srbruninho.contasapagar.domain.model.ExportFormat;
+import com.srbruninho.contasapagar.domain.model.ImportJob;
+import com.srbruninho.contasapagar.domain.model.ImportJobStatus;
+import com.srbruninho.contasapagar.domain.model.PaymentOutcome;
+import com.srbruninho.contasapagar.domain.model.Situacao;
+import com.srbruninho.contasapagar.domain.services.ContaAnalyticsService;
 import com.srbruninho.contasapagar.domain.services.ContaService;
+import com.srbruninho.contasapagar.domain.services.ImportJobService;
 import com.srbruninho.contasapagar.api.controller.ContaController;
+import com.srbruninho.contasapagar.infrastructure.exception.BusinessErrorResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.mock.web.MockMultipartFile;
-
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 public class ContaControllerTest {
@@ -24,6 +81,15 @@ public class ContaControllerTest {
     @Mock
     private ContaService contaService;
 
+    @Mock
+    private ImportJobService importJobService;
+
+    @Mock
+    private ContaAnalyticsService contaAnalyticsService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @InjectMocks
     private ContaController contaController;
 
@@ -49,6 +115,26 @@ public class ContaControllerTest {
         verify(contaService, times(1)).save(any(Conta.class));
     }
 
+    @Test
+    public void testCreateAccount_WhenBodyCarriesIdAndVersion_ShouldCreateNewAccount() {
+        //Arrange
+        Conta conta = new Conta();
+        conta.setId(7L);
+        conta.setVersion(3L);
+        conta.setDescricao("Conta Teste");
+        ArgumentCaptor<Conta> saved = ArgumentCaptor.forClass(Conta.class);
+        when(contaService.save(saved.capture())).thenReturn(Conta.builder().id(100L).build());
+
+        //Act
+        ResponseEntity<Object> response = contaController.createAccount(conta);
+
+        //Assert
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(100L, response.getBody());
+        assertNull(saved.getValue().getId());
+        assertNull(saved.getValue().getVersion());
+    }
+
     @Test
     public void testCreateAccount_WhenAccountIsNull_ShouldReturnBadRequest() {
         //Arrange
@@ -72,7 +158,7 @@ public class ContaControllerTest {
         when(contaService.save(any(Conta.class))).thenReturn(conta);
 
         //Act
-        ResponseEntity<Object> response = contaController.updateAccount(id, conta);
+        ResponseEntity<Object> response = contaController.updateAccount(id, conta, null);
 
         //Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -88,7 +174,7 @@ public class ContaControllerTest {
         Long id = 1L;
 
         //Act
-        ResponseEntity<Object> response = contaController.updateAccount(id, null);
+        ResponseEntity<Object> response = contaController.updateAccount(id, null, null);
 
         //Assert
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -103,7 +189,7 @@ public class ContaControllerTest {
         Conta conta = new Conta();
 
         //Act
-        ResponseEntity<Object> response = contaController.updateAccount(null, conta);
+        ResponseEntity<Object> response = contaController.updateAccount(null, conta, null);
 
         //Assert
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -120,7 +206,7 @@ public class ContaControllerTest {
         when(contaService.findById(id)).thenReturn(Optional.empty());
 
         //Act
-        ResponseEntity<Object> response = contaController.updateAccount(id, conta);
+        ResponseEntity<Object> response = contaController.updateAccount(id, conta, null);
 
         //Assert
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
@@ -135,31 +221,200 @@ public class ContaControllerTest {
     public void testFindById_WhenValidId_ShouldReturnAccount() {
         // Arrange
         Long id = 1L;
-        Conta conta = new Conta();
-        conta.setId(id);
-        when(contaService.findById(id)).thenReturn(Optional.of(conta));
+        ContaDTO dto = new ContaDTO();
+        dto.setId(id);
+        when(contaService.findDTOById(id)).thenReturn(Optional.of(dto));
 
         // Act
-        ResponseEntity<Object> response = contaController.getById(id);
+        ResponseEntity<Object> response = contaController.getById(id, getRequest());
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(contaService, times(1)).findById(id);
+        assertEquals(List.of(dto), ((Page<?>) response.getBody()).getContent());
+        verify(contaService, times(1)).findDTOById(id);
     }
 
     @Test
     public void testFindById_WhenInvalidId_ShouldReturnNotFound() {
         // Arrange
         Long id = 999L;
-        when(contaService.findById(id)).thenReturn(Optional.empty());
+        when(contaService.findDTOById(id)).thenReturn(Optional.empty());
 
         // Act
-        ResponseEntity<Object> response = contaController.getById(id);
+        ResponseEntity<Object> response = contaController.getById(id, getRequest());
 
         // Assert
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertEquals("Id not found!", response.getBody());
-        verify(contaService, times(1)).findById(id);
+        verify(contaService, times(1)).findDTOById(id);
+    }
+
+    @Test
+    public void testFindById_WhenIfNoneMatchIsCurrentVersion_ShouldReturnNotModified() {
+        // Arrange
+        Long id = 1L;
+        ContaDTO dto = new ContaDTO();
+        dto.setId(id);
+        dto.setVersion(3L);
+        when(contaService.findDTOById(id)).thenReturn(Optional.of(dto));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/contas/1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        // Act
+        ResponseEntity<Object> response = contaController.getById(id, new ServletWebRequest(request, servletResponse));
+
+        // Assert
+        assertNull(response);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), servletResponse.getStatus());
+        assertEquals("\"3\"", servletResponse.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void testGetAll_WhenWatermarkUnchanged_ShouldReturnNotModifiedWithoutQuerying() {
+        // Arrange
+        when(contaService.getChangeWatermark()).thenReturn(42L);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/contas");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "W/\"w42\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        // Act
+        ResponseEntity<Page<ContaDTO>> response = contaController.getAll(0, 10, new ServletWebRequest(request, servletResponse));
+
+        // Assert
+        assertNull(response);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), servletResponse.getStatus());
+        verify(contaService, never()).findAllDTOs(any());
+    }
+
+    @Test
+    public void testGetAll_WhenWatermarkChanged_ShouldReturnPageWithNewETag() {
+        // Arrange
+        when(contaService.getChangeWatermark()).thenReturn(43L);
+        when(contaService.findAllDTOs(any())).thenReturn(Page.empty());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/contas");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "W/\"w42\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        // Act
+        ResponseEntity<Page<ContaDTO>> response = contaController.getAll(0, 10, new ServletWebRequest(request, servletResponse));
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("W/\"w43\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        verify(contaService, times(1)).findAllDTOs(any());
+    }
+
+    @Test
+    public void testUpdateAccount_WhenIfMatchIsStale_ShouldReturnPreconditionFailed() {
+        //Arrange
+        Long id = 1L;
+        Conta existing = Conta.builder().id(id).version(5L).build();
+        when(contaService.findById(id)).thenReturn(Optional.of(existing));
+
+        //Act
+        ResponseEntity<Object> response = contaController.updateAccount(id, new Conta(), "\"4\"");
+
+        //Assert
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+        verify(contaService, never()).save(any(Conta.class));
+    }
+
+    @Test
+    public void testUpdateAccount_WhenChangedConcurrently_ShouldReturnPreconditionFailed() {
+        //Arrange
+        Long id = 1L;
+        Conta existing = Conta.builder().id(id).version(5L).build();
+        when(contaService.findById(id)).thenReturn(Optional.of(existing));
+        when(contaService.save(any(Conta.class))).thenThrow(new ObjectOptimisticLockingFailureException(Conta.class, id));
+
+        //Act
+        ResponseEntity<Object> response = contaController.updateAccount(id, new Conta(), "\"5\"");
+
+        //Assert
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+    }
+
+    @Test
+    public void testUpdateAccount_WhenIfMatchIsCurrent_ShouldSaveExpectedVersionAndReturnNewETag() {
+        //Arrange
+        Long id = 1L;
+        Conta existing = Conta.builder().id(id).version(5L).build();
+        Conta saved = Conta.builder().id(id).version(6L).build();
+        when(contaService.findById(id)).thenReturn(Optional.of(existing));
+        when(contaService.save(any(Conta.class))).thenReturn(saved);
+
+        //Act
+        ResponseEntity<Object> response = contaController.updateAccount(id, new Conta(), "\"5\"");
+
+        //Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"6\"", response.getHeaders().getETag());
+        verify(contaService, times(1)).save(argThat(conta -> conta.getVersion() == 5L && id.equals(conta.getId())));
+    }
+
+    @Test
+    public void testPatchAccount_WhenValidPatch_ShouldApplyOnlySentFieldsAndReturnNewETag() throws Exception {
+        //Arrange
+        Long id = 1L;
+        Conta patched = Conta.builder().id(id).descricao("Agua").version(4L).build();
+        when(contaService.patch(eq(id), any(ContaPatch.class))).thenReturn(Optional.of(patched));
+
+        //Act
+        ResponseEntity<Object> response = contaController.patchAccount(id, objectMapper.readTree("{\"descricao\": \"Agua\", \"dataPagamento\": null}"), "\"3\"");
+
+        //Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+        verify(contaService, times(1)).patch(eq(id), argThat(patch -> "Agua".equals(patch.getDescricao())
+                && patch.isDataPagamentoSet() && patch.getDataPagamento() == null
+                && patch.getValor() == null && patch.getDataVencimento() == null
+                && patch.getVersion() == 3L));
+    }
+
+    @Test
+    public void testPatchAccount_WhenFieldCannotBePatched_ShouldReturnBadRequest() throws Exception {
+        //Act
+        ResponseEntity<Object> response = contaController.patchAccount(1L, objectMapper.readTree("{\"situacao\": \"PAGA\"}"), null);
+
+        //Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Field situacao cannot be patched!", ((BusinessErrorResponse) response.getBody()).getMessage());
+        verify(contaService, never()).patch(any(), any());
+    }
+
+    @Test
+    public void testPatchAccount_WhenValorIsNotPositive_ShouldReturnBadRequest() throws Exception {
+        //Act
+        ResponseEntity<Object> response = contaController.patchAccount(1L, objectMapper.readTree("{\"valor\": -5}"), null);
+
+        //Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Invalid value for valor!", ((BusinessErrorResponse) response.getBody()).getMessage());
+    }
+
+    @Test
+    public void testPatchAccount_WhenIdNotFound_ShouldReturnNotFound() throws Exception {
+        //Arrange
+        when(contaService.patch(eq(9L), any(ContaPatch.class))).thenReturn(Optional.empty());
+
+        //Act
+        ResponseEntity<Object> response = contaController.patchAccount(9L, objectMapper.readTree("{\"descricao\": \"Agua\"}"), null);
+
+        //Assert
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    public void testPatchAccount_WhenVersionIsStale_ShouldReturnPreconditionFailed() throws Exception {
+        //Arrange
+        when(contaService.patch(eq(1L), any(ContaPatch.class))).thenThrow(new ObjectOptimisticLockingFailureException(Conta.class, 1L));
+
+        //Act
+        ResponseEntity<Object> response = contaController.patchAccount(1L, objectMapper.readTree("{\"descricao\": \"Agua\", \"version\": 2}"), null);
+
+        //Assert
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
     }
 
     @Test
@@ -169,7 +424,7 @@ public class ContaControllerTest {
         MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", csvData.getBytes());
 
         // Act
-        ResponseEntity<Object> response = contaController.importFromCsv(file);
+        ResponseEntity<Object> response = contaController.importFromCsv(file, false);
 
         // Assert
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
@@ -184,11 +439,324 @@ public class ContaControllerTest {
         MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", csvData.getBytes());
 
         // Act
-        ResponseEntity<Object> response = contaController.importFromCsv(file);
+        ResponseEntity<Object> response = contaController.importFromCsv(file, false);
 
         // Assert
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertEquals("File is empty", response.getBody());
         verify(contaService, never()).processCSV(any(MockMultipartFile.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testImportFromCsv_WhenAsync_ShouldReturnAcceptedWithJob() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", "Conta Teste,99.99,2024-05-01\n".getBytes());
+        ImportJob job = new ImportJob("job-1", Paths.get("job-1.csv"), Paths.get("job-1-rejections.csv"), 28);
+        when(importJobService.submit(any(MockMultipartFile.class))).thenReturn(job);
+
+        // Act
+        ResponseEntity<Object> response = contaController.importFromCsv(file, true);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(ImportJobConverter.toDTO(job).getId(), ((ImportJobDTO) response.getBody()).getId());
+        assertEquals(ImportJobStatus.QUEUED, ((ImportJobDTO) response.getBody()).getStatus());
+        verify(contaService, never()).processCSV(any(MockMultipartFile.class));
+    }
+
+    @Test
+    public void testImportFromCsv_WhenAsyncQueueIsFull_ShouldReturnServiceUnavailable() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", "Conta Teste,99.99,2024-05-01\n".getBytes());
+        when(importJobService.submit(any(MockMultipartFile.class))).thenThrow(new TaskRejectedException("full"));
+
+        // Act
+        ResponseEntity<Object> response = contaController.importFromCsv(file, true);
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    }
+
+    @Test
+    public void testGetImportJob_WhenUnknownId_ShouldReturnNotFound() {
+        // Arrange
+        when(importJobService.findById("missing")).thenReturn(Optional.empty());
+
+        // Act
+        ResponseEntity<Object> response = contaController.getImportJob("missing");
+
+        // Assert
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("Import job not found!", response.getBody());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGetAllByCursor_WhenMoreRowsExist_ShouldReturnCursorOfLastRow() {
+        // Arrange
+        Conta conta = new Conta();
+        conta.setId(42L);
+        conta.setDataVencimento(LocalDate.of(2024, 6, 1));
+        ContaKeyset after = new ContaKeyset(LocalDate.of(2024, 6, 2), 50L);
+        when(contaService.findAll(after, 1)).thenReturn(new SliceImpl<>(List.of(conta), PageRequest.of(0, 1), true));
+
+        // Act
+        ResponseEntity<CursorPageDTO<ContaDTO>> response = contaController.getAllByCursor(CursorConverter.encode(after), 1, getRequest());
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().isHasNext());
+        assertEquals(new ContaKeyset(LocalDate.of(2024, 6, 1), 42L), CursorConverter.decode(response.getBody().getNextCursor()));
+    }
+
+    @Test
+    public void testGetAllByCursor_WhenCursorIsInvalid_ShouldRejectIt() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> contaController.getAllByCursor("not-a-cursor", 10, getRequest()));
+        verify(contaService, never()).findAll(any(ContaKeyset.class), anyInt());
+    }
+
+    @Test
+    public void testCreateBulk_ShouldStreamIdsAndErrorsInOrderThenTotals() throws Exception {
+        //Arrange
+        InputStream body = new ByteArrayInputStream("[]".getBytes(StandardCharsets.UTF_8));
+        doAnswer(invocation -> {
+            Consumer<BulkCreateItem> sink = invocation.getArgument(1);
+            sink.accept(BulkCreateItem.created(0, 10L));
+            sink.accept(BulkCreateItem.rejected(1, List.of("O valor deve ser maior que zero")));
+            return new BulkCreateResult(1, 1, null);
+        }).when(contaService).createAll(eq(body), any());
+
+        //Act
+        ResponseEntity<StreamingResponseBody> response = contaController.createBulk(body);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        //Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("{\"items\":[{\"index\":0,\"id\":10},{\"index\":1,\"errors\":[\"O valor deve ser maior que zero\"]}]," +
+                "\"created\":1,\"rejected\":1}", output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testCreateBulk_WhenDatabaseFails_ShouldReportWhereItStopped() throws Exception {
+        //Arrange
+        InputStream body = new ByteArrayInputStream("[]".getBytes(StandardCharsets.UTF_8));
+        doAnswer(invocation -> {
+            Consumer<BulkCreateItem> sink = invocation.getArgument(1);
+            sink.accept(BulkCreateItem.created(0, 10L));
+            sink.accept(BulkCreateItem.rejected(1, List.of("Database error, bill not created")));
+            return new BulkCreateResult(1, 1, 1);
+        }).when(contaService).createAll(eq(body), any());
+
+        //Act
+        ResponseEntity<StreamingResponseBody> response = contaController.createBulk(body);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        //Assert
+        assertTrue(output.toString(StandardCharsets.UTF_8).endsWith("\"created\":1,\"rejected\":1,\"failedAt\":1}"));
+    }
+
+    @Test
+    public void testCreateBulk_WhenBodyCannotBeRead_ShouldAbortResponse() throws Exception {
+        //Arrange
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        when(contaService.createAll(eq(body), any())).thenThrow(new IOException("Connection reset"));
+
+        //Act
+        ResponseEntity<StreamingResponseBody> response = contaController.createBulk(body);
+
+        //Assert
+        IOException exception = assertThrows(IOException.class, () -> response.getBody().writeTo(new ByteArrayOutputStream()));
+        assertEquals("Connection reset", exception.getMessage());
+    }
+
+    @Test
+    public void testPayBulk_WhenIdsInformed_ShouldReturnOutcomes() {
+        //Arrange
+        BulkPaymentRequestDTO request = new BulkPaymentRequestDTO();
+        request.setIds(List.of(1L, 2L));
+        Map<Long, PaymentOutcome> outcomes = new LinkedHashMap<>();
+        outcomes.put(1L, PaymentOutcome.PAID);
+        outcomes.put(2L, PaymentOutcome.NOT_FOUND);
+        when(contaService.payAll(request.getIds())).thenReturn(new BulkPaymentResult(LocalDate.now(), outcomes));
+
+        //Act
+        ResponseEntity<Object> response = contaController.payBulk(request);
+
+        //Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        BulkPaymentResultDTO body = (BulkPaymentResultDTO) response.getBody();
+        assertEquals(1, body.getPaid());
+        assertEquals(1, body.getNotFound());
+        assertEquals(new PaymentOutcomeDTO(2L, PaymentOutcome.NOT_FOUND), body.getOutcomes().get(1));
+    }
+
+    @Test
+    public void testPayBulk_WhenIdsAndRangeInformed_ShouldReturnBadRequest() {
+        //Arrange
+        BulkPaymentRequestDTO request = new BulkPaymentRequestDTO();
+        request.setIds(List.of(1L));
+        request.setStartDate(LocalDate.of(2024, 6, 1));
+        request.setEndDate(LocalDate.of(2024, 6, 30));
+
+        //Act
+        ResponseEntity<Object> response = contaController.payBulk(request);
+
+        //Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(contaService);
+    }
+
+    @Test
+    public void testPayBulk_WhenRangeIncomplete_ShouldReturnBadRequest() {
+        //Arrange
+        BulkPaymentRequestDTO request = new BulkPaymentRequestDTO();
+        request.setStartDate(LocalDate.of(2024, 6, 1));
+
+        //Act
+        ResponseEntity<Object> response = contaController.payBulk(request);
+
+        //Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Invalid due date range!", response.getBody());
+        verifyNoInteractions(contaService);
+    }
+
+    @Test
+    public void testDeleteAll_ShouldDeleteBillsMatchingFilter() {
+        //Arrange
+        ContaDeleteFilter filter = new ContaDeleteFilter(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 6, 30), Situacao.PENDENTE, "Luz");
+        when(contaService.deleteAll(filter)).thenReturn(new BulkDeleteResult(12, false));
+
+        //Act
+        ResponseEntity<Object> response = contaController.deleteAll(filter.getStartDate(), filter.getEndDate(), Situacao.PENDENTE, "Luz");
+
+        //Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(new BulkDeleteResult(12, false), response.getBody());
+    }
+
+    @Test
+    public void testDeleteAll_WhenRangeInverted_ShouldReturnBadRequest() {
+        //Act
+        ResponseEntity<Object> response = contaController.deleteAll(LocalDate.of(2024, 6, 30), LocalDate.of(2024, 1, 1), null, null);
+
+        //Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Invalid due date range!", response.getBody());
+        verifyNoInteractions(contaService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExport_WhenNdjson_ShouldStreamOneJsonObjectPerLine() throws Exception {
+        //Arrange
+        doAnswer(invocation -> {
+            Consumer<Conta> sink = invocation.getArgument(2);
+            sink.accept(exportedConta(1L, "Luz", null));
+            sink.accept(exportedConta(2L, "Agua", LocalDate.of(2024, 6, 1)));
+            return 2L;
+        }).when(contaService).exportAll(eq(LocalDate.of(2024, 6, 1)), isNull(), any(Consumer.class));
+
+        //Act
+        ResponseEntity<StreamingResponseBody> response = contaController.export(ExportFormat.NDJSON, LocalDate.of(2024, 6, 1), null);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        //Assert
+        assertEquals(ContaExportConverter.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, lines.size());
+        assertEquals("{\"id\":1,\"dataVencimento\":\"2024-06-10\",\"dataPagamento\":null,\"valor\":20.00,\"descricao\":\"Luz\",\"situacao\":\"ATRASADA\",\"version\":0}", lines.get(0));
+        assertTrue(lines.get(1).contains("\"dataPagamento\":\"2024-06-01\""));
+    }
+
+    @Test
+    public void testGetSummary_ShouldUseCachedSummaryUnlessFresh() {
+        //Arrange
+        ContaSummary cached = new ContaSummary(LocalDate.now(), List.of(), List.of());
+        ContaSummary fresh = new ContaSummary(LocalDate.now(), List.of(new ContaAggregate("PAGA", 1, new BigDecimal("10.00"))), List.of());
+        when(contaService.getCachedSummary(LocalDate.now())).thenReturn(cached);
+        when(contaService.getSummary(LocalDate.now())).thenReturn(fresh);
+
+        //Act
+        ResponseEntity<ContaSummary> cachedResponse = contaController.getSummary(false);
+        ResponseEntity<ContaSummary> freshResponse = contaController.getSummary(true);
+
+        //Assert
+        assertSame(cached, cachedResponse.getBody());
+        assertSame(fresh, freshResponse.getBody());
+    }
+
+    @Test
+    public void testGetAggregates_ShouldReturnAggregatesOfService() {
+        //Arrange
+        List<ContaAggregate> aggregates = List.of(new ContaAggregate("2024-06", 2, new BigDecimal("30.00")));
+        when(contaAnalyticsService.aggregate(ContaAggregateGroup.DUE_MONTH, LocalDate.of(2024, 6, 1), null)).thenReturn(aggregates);
+
+        //Act
+        ResponseEntity<List<ContaAggregate>> response = contaController.getAggregates(ContaAggregateGroup.DUE_MONTH, LocalDate.of(2024, 6, 1), null);
+
+        //Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(aggregates, response.getBody());
+    }
+
+    @Test
+    public void testGetAggregates_WhenRangeIsInverted_ShouldThrow() {
+        //Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> contaController.getAggregates(ContaAggregateGroup.SITUACAO, LocalDate.of(2024, 6, 30), LocalDate.of(2024, 6, 1)));
+        verifyNoInteractions(contaAnalyticsService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExport_WhenCsv_ShouldStreamHeaderAndQuotedRows() throws Exception {
+        //Arrange
+        doAnswer(invocation -> {
+            invocation.getArgument(2, Consumer.class).accept(exportedConta(1L, "Luz, \"centro\"", null));
+            return 1L;
+        }).when(contaService).exportAll(isNull(), isNull(), any(Consumer.class));
+
+        //Act
+        ResponseEntity<StreamingResponseBody> response = contaController.export(ExportFormat.CSV, null, null);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        //Assert
+        assertEquals(ContaExportConverter.TEXT_CSV, response.getHeaders().getContentType());
+        assertEquals("id,descricao,valor,dataVencimento,dataPagamento,situacao\n" +
+                "1,\"Luz, \"\"centro\"\"\",20.00,2024-06-10,,ATRASADA\n", output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testExport_WhenRangeInverted_ShouldRejectRequest() {
+        //Act
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> contaController.export(ExportFormat.CSV, LocalDate.of(2024, 7, 1), LocalDate.of(2024, 6, 1)));
+
+        //Assert
+        assertEquals("Invalid due date range!", exception.getMessage());
+        verifyNoInteractions(contaService);
+    }
+
+    private static Conta exportedConta(Long id, String descricao, LocalDate dataPagamento) {
+        return Conta.builder()
+                .id(id)
+                .dataVencimento(LocalDate.of(2024, 6, 10))
+                .dataPagamento(dataPagamento)
+                .valor(new BigDecimal("20.00"))
+                .descricao(descricao)
+                .situacao(dataPagamento != null ? Situacao.PAGA : Situacao.ATRASADA)
+                .version(0L)
+                .build();
+    }
+
+    private static ServletWebRequest getRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/api/contas"), new MockHttpServletResponse());
+    }
+}